@@ -0,0 +1,83 @@
+package org.cloudsimplus.examples.autoscaling.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import org.cloudsimplus.examples.autoscaling.AutoscalingScenario;
+import org.cloudsimplus.examples.autoscaling.ScenarioSize;
+import org.cloudsimplus.examples.autoscaling.ScenarioType;
+import org.cloudsimplus.util.Log;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for benchmarks measuring a single phase of an {@link AutoscalingScenario}.
+ * The scenario and its size are JMH parameters, which can be overridden
+ * from the command line, for instance:
+ * {@code java -jar target/benchmarks.jar -p scenario=MANUAL_MIGRATION -p hosts=500 -p vms=40}.
+ *
+ * <p>Simulation logs are disabled and the standard output is discarded while benchmarking,
+ * so that the terminal is not the bottleneck being measured.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public abstract class ScenarioBenchmark {
+    @Param({"VERTICAL_CPU_SCALING", "VERTICAL_CPU_ADAPTIVE_INTERVAL", "VERTICAL_RAM_SCALING", "HORIZONTAL_LOAD_BALANCER", "HORIZONTAL_LOAD_BALANCER_INDEXED", "MANUAL_MIGRATION"})
+    public ScenarioType scenario;
+
+    @Param({"50"})
+    public int hosts;
+
+    @Param({"4"})
+    public int vms;
+
+    @Param({"10"})
+    public int cloudlets;
+
+    private PrintStream stdout;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void silenceOutput() {
+        Log.setLevel(Level.OFF);
+        stdout = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(final int b) {
+                //discards the output
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                //discards the output
+            }
+        }));
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void restoreOutput() {
+        System.setOut(stdout);
+    }
+
+    /**
+     * Builds a new scenario with the benchmark parameters, without starting it.
+     * @return the built scenario
+     */
+    protected AutoscalingScenario newScenario() {
+        return scenario.create(new ScenarioSize(hosts, vms, cloudlets));
+    }
+}
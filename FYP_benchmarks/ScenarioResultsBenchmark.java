@@ -0,0 +1,31 @@
+package org.cloudsimplus.examples.autoscaling.benchmarks;
+
+import org.cloudsimplus.examples.autoscaling.AutoscalingScenario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures just the result printing of a scenario,
+ * which is built and simulated before each invocation.
+ */
+public class ScenarioResultsBenchmark extends ScenarioBenchmark {
+    private AutoscalingScenario finished;
+
+    @Setup(Level.Invocation)
+    public void simulate() {
+        finished = newScenario();
+        finished.start();
+    }
+
+    @Benchmark
+    public void printSimulationResults() {
+        finished.printSimulationResults();
+    }
+
+    @TearDown(Level.Invocation)
+    public void dispose() {
+        finished.close();
+    }
+}
@@ -0,0 +1,31 @@
+package org.cloudsimplus.examples.autoscaling.benchmarks;
+
+import org.cloudsimplus.examples.autoscaling.AutoscalingScenario;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures the building of a scenario (creation of Hosts, VMs and Cloudlets and their submission),
+ * as well as the whole scenario end to end.
+ */
+public class ScenarioSetupBenchmark extends ScenarioBenchmark {
+    /**
+     * Builds a scenario and disposes of it. Since the scenario just creates
+     * the files to record its results when it starts, disposing of it doesn't add to the measured time.
+     * @return the built scenario
+     */
+    @Benchmark
+    public AutoscalingScenario setup() {
+        try(AutoscalingScenario built = newScenario()) {
+            return built;
+        }
+    }
+
+    @Benchmark
+    public AutoscalingScenario endToEnd() {
+        try(AutoscalingScenario built = newScenario()) {
+            built.start();
+            built.printSimulationResults();
+            return built;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.cloudsimplus.examples.autoscaling.benchmarks;
+
+import org.cloudsimplus.examples.autoscaling.AutoscalingScenario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures just the {@code simulation.start()} phase of a scenario,
+ * which is built before each invocation.
+ */
+public class ScenarioSimulationBenchmark extends ScenarioBenchmark {
+    private AutoscalingScenario built;
+
+    @Setup(Level.Invocation)
+    public void build() {
+        built = newScenario();
+    }
+
+    @Benchmark
+    public double start() {
+        built.start();
+        return built.getSimulation().clock();
+    }
+
+    @TearDown(Level.Invocation)
+    public void dispose() {
+        built.close();
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * JMH benchmarks for the {@link org.cloudsimplus.examples.autoscaling.AutoscalingScenario}s.
+ * Build with {@code mvn package} from the repository root, then run
+ * {@code java -jar FYP_benchmarks/target/benchmarks.jar}.
+ */
+package org.cloudsimplus.examples.autoscaling.benchmarks;
@@ -0,0 +1,128 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.listeners.EventInfo;
+
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Changes the {@link Datacenter#setSchedulingInterval(double) scheduling interval} of a Datacenter
+ * as the simulation runs, instead of keeping it fixed. The interval is tightened when some VM utilization is near
+ * a scaling threshold, so that scaling decisions are taken as soon as they would be with the minimum interval,
+ * and stretched when all VMs are far from their thresholds, so that fewer VM processing updates
+ * (and clock ticks) happen when no decision would be taken.
+ *
+ * <p>At every clock tick, the smallest distance between a VM utilization and its thresholds
+ * (given by a distance function) selects the interval: the minimum one if the distance is 0,
+ * up to the maximum one if the distance is at least the {@code band}.
+ * Intervals are the minimum one multiplied by a power of 2.
+ * Since the Datacenter aligns processing updates to multiples of the interval,
+ * updates after changing the interval still happen at multiples of the minimum interval,
+ * which is when VM scaling checks its thresholds.</p>
+ *
+ * <p>The interval never goes past the next Cloudlet arrival, if a function giving such a time is set.
+ * That is required for Cloudlets created by clock tick listeners, which would be delayed otherwise.
+ * Cloudlets submitted with a delay and Cloudlets finishing already generate their own events,
+ * since the Datacenter schedules the next update to the earliest of the interval and the next Cloudlet finish.</p>
+ */
+public final class AdaptiveSchedulingInterval {
+    private final Datacenter datacenter;
+    private final List<Vm> vms;
+    private final ToDoubleFunction<Vm> thresholdDistance;
+    private final double minInterval;
+    private final int maxLevel;
+    private final double band;
+    private DoubleUnaryOperator nextArrivalTime = time -> Double.POSITIVE_INFINITY;
+    private int changes;
+
+    /**
+     * Creates an adaptive interval for a Datacenter and registers it to be updated at every clock tick.
+     *
+     * @param datacenter the Datacenter to change the scheduling interval of
+     * @param vms the VMs whose distance to their thresholds defines the interval
+     * @param thresholdDistance gives the distance (from 0 to 1) between a VM utilization and its nearest threshold
+     * @param minInterval the interval (in seconds) used when some VM is at a threshold
+     * @param maxInterval the interval (in seconds) used when all VMs are far from their thresholds,
+     *                    which is rounded down to the minimum interval multiplied by a power of 2
+     * @param band the distance from which the maximum interval is used
+     */
+    public AdaptiveSchedulingInterval(
+        final Datacenter datacenter, final List<Vm> vms, final ToDoubleFunction<Vm> thresholdDistance,
+        final double minInterval, final double maxInterval, final double band)
+    {
+        if(minInterval <= 0 || maxInterval < minInterval || band <= 0){
+            throw new IllegalArgumentException("Intervals must satisfy 0 < min <= max and the band must be positive");
+        }
+
+        this.datacenter = datacenter;
+        this.vms = vms;
+        this.thresholdDistance = thresholdDistance;
+        this.minInterval = minInterval;
+        this.maxLevel = 31 - Integer.numberOfLeadingZeros((int) (maxInterval / minInterval));
+        this.band = band;
+        datacenter.setSchedulingInterval(minInterval);
+        datacenter.getSimulation().addOnClockTickListener(this::onClockTick);
+    }
+
+    /**
+     * Creates a function giving the distance between the CPU utilization of a VM and the nearest of two thresholds.
+     *
+     * @param lowerThreshold the CPU utilization (from 0 to 1) below which a VM is underloaded
+     * @param upperThreshold the CPU utilization (from 0 to 1) above which a VM is overloaded
+     * @return the distance function
+     */
+    public static ToDoubleFunction<Vm> cpuThresholdDistance(final double lowerThreshold, final double upperThreshold) {
+        return vm -> {
+            final double utilization = vm.getCpuPercentUtilization();
+            return Math.min(Math.abs(upperThreshold - utilization), Math.abs(utilization - lowerThreshold));
+        };
+    }
+
+    private void onClockTick(final EventInfo info) {
+        final double time = info.getTime();
+        double distance = Double.POSITIVE_INFINITY;
+        for (Vm vm : vms) {
+            if(vm.isCreated()) {
+                distance = Math.min(distance, thresholdDistance.applyAsDouble(vm));
+            }
+        }
+
+        int level = Double.isInfinite(distance) ? 0 : (int) Math.min(maxLevel, Math.floor(distance / band * (maxLevel + 1)));
+        final double untilArrival = nextArrivalTime.applyAsDouble(time) - time;
+        while (level > 0 && intervalAt(level) > untilArrival) {
+            level--;
+        }
+
+        final double interval = intervalAt(level);
+        if(interval != datacenter.getSchedulingInterval()){
+            datacenter.setSchedulingInterval(interval);
+            changes++;
+        }
+    }
+
+    private double intervalAt(final int level) {
+        return minInterval * (1 << level);
+    }
+
+    /**
+     * Sets a function giving the time of the next Cloudlet arrival after a given time,
+     * or infinity if no more Cloudlets will arrive. The interval is not stretched beyond such a time.
+     *
+     * @param nextArrivalTime the function to set
+     * @return this object
+     */
+    public AdaptiveSchedulingInterval setNextArrivalTime(final DoubleUnaryOperator nextArrivalTime) {
+        this.nextArrivalTime = nextArrivalTime;
+        return this;
+    }
+
+    /**
+     * @return the number of times the interval was changed
+     */
+    public int getChanges() {
+        return changes;
+    }
+}
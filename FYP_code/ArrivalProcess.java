@@ -0,0 +1,289 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates the arrival times of Cloudlets, one at a time, so that a workload
+ * of any length can be produced without creating all its Cloudlets up front.
+ *
+ * <p>Processes drawing random numbers are created with a seed, so that a scenario can be reproduced.
+ * They keep state between calls, therefore an instance must be used by a single generator.</p>
+ *
+ * @see StochasticCloudletGenerator
+ */
+public interface ArrivalProcess {
+    /**
+     * Gets the time of the next arrival.
+     * Several arrivals may happen at the same time, in which case the given time is returned.
+     *
+     * @param time the time of the previous arrival, or the time the process starts at
+     * @return the time of the next arrival (not before the given time),
+     *         or {@link Double#POSITIVE_INFINITY} if there are no more arrivals
+     */
+    double next(double time);
+
+    /**
+     * Creates a process with arrivals at regular intervals.
+     *
+     * @param firstTime the time of the first arrival
+     * @param interval the time between arrivals, which must be positive
+     * @return the created process
+     */
+    static ArrivalProcess periodic(final double firstTime, final double interval) {
+        if(firstTime < 0 || interval <= 0){
+            throw new IllegalArgumentException("First time cannot be negative and interval must be positive");
+        }
+
+        return new ArrivalProcess() {
+            private boolean started;
+
+            @Override
+            public double next(final double time) {
+                if(started){
+                    return time + interval;
+                }
+
+                started = true;
+                return Math.max(time, firstTime);
+            }
+        };
+    }
+
+    /**
+     * Creates a process with arrivals in {@link CloudletBursts bursts}:
+     * all Cloudlets of a burst arrive at the burst time.
+     *
+     * @param bursts the bursts specification
+     * @return the created process
+     */
+    static ArrivalProcess bursts(final CloudletBursts bursts) {
+        return new ArrivalProcess() {
+            private long arrivals;
+
+            @Override
+            public double next(final double time) {
+                if(bursts.getCloudletsPerBurst() == 0 || arrivals >= (long)bursts.getBursts() * bursts.getCloudletsPerBurst()){
+                    return Double.POSITIVE_INFINITY;
+                }
+
+                return Math.max(time, bursts.getTime((int)(arrivals++ / bursts.getCloudletsPerBurst())));
+            }
+        };
+    }
+
+    /**
+     * Creates a Poisson process, whose inter-arrival times are exponentially distributed.
+     *
+     * @param rate the mean number of arrivals per second
+     * @param seed the seed for the pseudo-random number generator
+     * @return the created process
+     */
+    static ArrivalProcess poisson(final double rate, final long seed) {
+        return new Mmpp(new double[]{rate}, new double[]{Double.POSITIVE_INFINITY}, seed);
+    }
+
+    /**
+     * Creates a Markov-modulated Poisson process (MMPP), which alternates among states with different arrival rates,
+     * such as quiet and bursty periods. The time spent in each state is exponentially distributed.
+     * When leaving a state, the process moves to the next one, returning to the first state after the last.
+     *
+     * @param rates the mean number of arrivals per second in each state
+     * @param meanDurations the mean time (in seconds) the process stays in each state
+     * @param seed the seed for the pseudo-random number generator
+     * @return the created process
+     */
+    static ArrivalProcess mmpp(final double[] rates, final double[] meanDurations, final long seed) {
+        return new Mmpp(rates, meanDurations, seed);
+    }
+
+    /**
+     * Creates a non-homogeneous Poisson process whose rate follows a daily cycle:
+     * {@code meanRate * (1 + amplitude * cos(2*PI*(time - peakTime)/period))}.
+     * Arrivals are generated by thinning a Poisson process at the peak rate.
+     *
+     * @param meanRate the mean number of arrivals per second along the cycle
+     * @param amplitude the rate variation relative to the mean, from 0 (constant rate) to 1 (no arrivals at the valley)
+     * @param period the cycle length (in seconds), such as 86400 for a day
+     * @param peakTime the time (in seconds) of the first peak
+     * @param seed the seed for the pseudo-random number generator
+     * @return the created process
+     */
+    static ArrivalProcess diurnal(
+        final double meanRate, final double amplitude, final double period, final double peakTime, final long seed)
+    {
+        if(meanRate <= 0 || amplitude < 0 || amplitude > 1 || period <= 0){
+            throw new IllegalArgumentException("Rate and period must be positive and amplitude must be between 0 and 1");
+        }
+
+        final double peakRate = meanRate * (1 + amplitude);
+        final Random random = new Random(seed);
+        return time -> {
+            double next = time;
+            do {
+                next += exponential(random, peakRate);
+            } while (random.nextDouble() * peakRate > meanRate * (1 + amplitude * Math.cos(2 * Math.PI * (next - peakTime) / period)));
+
+            return next;
+        };
+    }
+
+    /**
+     * Creates a process that replays a histogram of inter-arrival times, such as one computed from a trace.
+     * Each inter-arrival time is drawn from a bin with probability proportional to its count,
+     * then uniformly inside the bin.
+     *
+     * @param binEdges the bounds of the bins in increasing order (one more than the number of bins),
+     *                 where bin {@code i} goes from {@code binEdges[i]} to {@code binEdges[i+1]}
+     * @param counts the number of inter-arrival times in each bin
+     * @param seed the seed for the pseudo-random number generator
+     * @return the created process
+     */
+    static ArrivalProcess replay(final double[] binEdges, final long[] counts, final long seed) {
+        if(binEdges.length != counts.length + 1 || counts.length == 0 || binEdges[0] < 0){
+            throw new IllegalArgumentException("There must be one more non-negative edge than bins, and at least one bin");
+        }
+
+        final long[] cumulative = new long[counts.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if(counts[i] < 0 || binEdges[i + 1] < binEdges[i]){
+                throw new IllegalArgumentException("Counts cannot be negative and edges must be in increasing order");
+            }
+
+            total += counts[i];
+            cumulative[i] = total;
+        }
+
+        if(total == 0){
+            throw new IllegalArgumentException("The histogram is empty");
+        }
+
+        final long samples = total;
+        final Random random = new Random(seed);
+        return time -> {
+            //Finds the first bin whose cumulative count is above the sample, skipping empty bins
+            final long sample = (long)(random.nextDouble() * samples);
+            int low = 0, high = cumulative.length - 1;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if(cumulative[mid] > sample) high = mid;
+                else low = mid + 1;
+            }
+
+            final int bin = low;
+            return time + binEdges[bin] + random.nextDouble() * (binEdges[bin + 1] - binEdges[bin]);
+        };
+    }
+
+    /**
+     * Creates a process that replays the histogram of observed inter-arrival times,
+     * using bins of equal width from 0 to the largest time.
+     *
+     * @param interArrivalTimes the observed inter-arrival times (in seconds)
+     * @param bins the number of bins
+     * @param seed the seed for the pseudo-random number generator
+     * @return the created process
+     * @see #replay(double[], long[], long)
+     */
+    static ArrivalProcess replay(final double[] interArrivalTimes, final int bins, final long seed) {
+        if(interArrivalTimes.length == 0 || bins <= 0){
+            throw new IllegalArgumentException("There must be some inter-arrival time and bins must be positive");
+        }
+
+        double max = 0;
+        for (double interval : interArrivalTimes) {
+            if(interval < 0){
+                throw new IllegalArgumentException("Inter-arrival times cannot be negative");
+            }
+            max = Math.max(max, interval);
+        }
+
+        final double width = max == 0 ? 1 : max / bins;
+        final double[] edges = new double[bins + 1];
+        for (int i = 0; i <= bins; i++) {
+            edges[i] = max == 0 ? 0 : i * width;
+        }
+
+        final long[] counts = new long[bins];
+        for (double interval : interArrivalTimes) {
+            counts[Math.min((int)(interval / width), bins - 1)]++;
+        }
+
+        return replay(edges, counts, seed);
+    }
+
+    /**
+     * Draws an exponentially distributed time.
+     * @param random the pseudo-random number generator
+     * @param rate the mean number of events per second
+     * @return the drawn time (in seconds)
+     */
+    static double exponential(final Random random, final double rate) {
+        return -Math.log(1 - random.nextDouble()) / rate;
+    }
+
+    /**
+     * A Markov-modulated Poisson process, where a single state makes it a plain Poisson process.
+     * Since inter-arrival and state durations are memoryless, when the state changes before the next arrival,
+     * the time to the next arrival is drawn again at the new state rate.
+     */
+    final class Mmpp implements ArrivalProcess {
+        private final double[] rates;
+        private final double[] meanDurations;
+        private final Random random;
+        private int state;
+        private double stateEndTime = Double.NaN;
+
+        Mmpp(final double[] rates, final double[] meanDurations, final long seed) {
+            if(rates.length == 0 || rates.length != meanDurations.length){
+                throw new IllegalArgumentException("There must be a rate and a mean duration for each state");
+            }
+
+            for (int i = 0; i < rates.length; i++) {
+                if(rates[i] < 0 || meanDurations[i] <= 0){
+                    throw new IllegalArgumentException("Rates cannot be negative and mean durations must be positive");
+                }
+            }
+
+            if(Arrays.stream(rates).allMatch(rate -> rate == 0)){
+                throw new IllegalArgumentException("Some state must have a positive rate");
+            }
+
+            this.rates = rates.clone();
+            this.meanDurations = meanDurations.clone();
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public double next(final double time) {
+            if(Double.isNaN(stateEndTime)){
+                stateEndTime = time + stateDuration();
+            }
+
+            double current = time;
+            while (true) {
+                final double next = rates[state] == 0 ? Double.POSITIVE_INFINITY : current + exponential(random, rates[state]);
+                if(next <= stateEndTime){
+                    return next;
+                }
+
+                current = stateEndTime;
+                state = (state + 1) % rates.length;
+                stateEndTime = current + stateDuration();
+            }
+        }
+
+        private double stateDuration() {
+            final double mean = meanDurations[state];
+            return Double.isInfinite(mean) ? mean : exponential(random, 1 / mean);
+        }
+
+        /**
+         * @return the index of the current state
+         */
+        public int getState() {
+            return state;
+        }
+    }
+}
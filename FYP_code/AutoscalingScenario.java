@@ -0,0 +1,50 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * A simulation scenario whose building, execution and result reporting
+ * are performed as separate phases.
+ * The constructor of each implementing class only builds the scenario,
+ * so that every phase can be measured on its own.
+ * Files used to record results are just created when the simulation starts
+ * and must be released by {@link #close()} when the results are not needed anymore.
+ *
+ * @see ScenarioType
+ */
+public interface AutoscalingScenario extends AutoCloseable {
+    /**
+     * Gets the simulation instance the scenario was built on.
+     * @return the scenario simulation
+     */
+    CloudSim getSimulation();
+
+    /**
+     * Gets the broker that submits the scenario VMs and Cloudlets.
+     * @return the scenario broker
+     */
+    DatacenterBroker getBroker();
+
+    /**
+     * Starts the simulation and waits until it finishes.
+     */
+    default void start() {
+        getSimulation().start();
+    }
+
+    /**
+     * Prints the results of a finished simulation.
+     */
+    void printSimulationResults();
+
+    /**
+     * Releases the resources used to record the scenario results, deleting the files they were written to.
+     * The results can't be printed after that.
+     * Scenarios that don't record results into files have nothing to release.
+     */
+    @Override
+    default void close() {
+        //nothing to release by default
+    }
+}
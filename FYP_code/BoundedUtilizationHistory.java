@@ -0,0 +1,149 @@
+package org.cloudsimplus.examples.autoscaling;
+
+/**
+ * A fixed-capacity history of a VM resource utilization,
+ * an alternative to enabling the {@link org.cloudbus.cloudsim.vms.UtilizationHistory} of a VM,
+ * which keeps a boxed map entry per sample for the whole simulation.
+ *
+ * <p>The most recent samples are kept in parallel primitive arrays (time and utilization)
+ * used as ring buffers, together with their {@link #getRecentStatistics() incremental statistics}.
+ * Optionally, samples evicted from the recent window are downsampled:
+ * each group of evicted samples is averaged into a single older sample,
+ * which is kept in another ring buffer. This way, a longer period is covered
+ * at a lower resolution, using constant memory.</p>
+ */
+public final class BoundedUtilizationHistory {
+    private final SlidingWindowStatistics recent;
+    private final double[] recentTimes;
+    private int nextRecent;
+
+    private final int downsamplingFactor;
+    private final double[] olderTimes;
+    private final double[] olderUtilization;
+    private int nextOlder;
+    private int olderCount;
+    private int evictedInGroup;
+    private double evictedUtilizationSum;
+
+    /**
+     * Creates a history that discards samples older than the recent window.
+     * @param window the number of most recent samples to keep
+     */
+    public BoundedUtilizationHistory(final int window) {
+        this(window, 1, 0);
+    }
+
+    /**
+     * Creates a history that downsamples the samples older than the recent window.
+     *
+     * @param window the number of most recent samples to keep
+     * @param downsamplingFactor the number of evicted samples averaged into one older sample
+     * @param olderWindow the number of downsampled older samples to keep (0 to discard evicted samples)
+     */
+    public BoundedUtilizationHistory(final int window, final int downsamplingFactor, final int olderWindow) {
+        if(downsamplingFactor <= 0 || olderWindow < 0){
+            throw new IllegalArgumentException("Downsampling factor must be positive and the older window must not be negative");
+        }
+
+        this.recent = new SlidingWindowStatistics(window);
+        this.recentTimes = new double[window];
+        this.downsamplingFactor = downsamplingFactor;
+        this.olderTimes = new double[olderWindow];
+        this.olderUtilization = new double[olderWindow];
+    }
+
+    /**
+     * Adds a sample, evicting the oldest recent one if the window is full.
+     * @param time the time of the sample
+     * @param utilization the resource utilization at that time
+     */
+    public void add(final double time, final double utilization) {
+        if(recent.size() == recentTimes.length && olderTimes.length > 0){
+            downsample(recentTimes[nextRecent], recent.get(0));
+        }
+
+        recentTimes[nextRecent] = time;
+        nextRecent = (nextRecent + 1) % recentTimes.length;
+        recent.add(utilization);
+    }
+
+    private void downsample(final double time, final double utilization) {
+        evictedUtilizationSum += utilization;
+        if(++evictedInGroup < downsamplingFactor){
+            return;
+        }
+
+        olderTimes[nextOlder] = time;
+        olderUtilization[nextOlder] = evictedUtilizationSum / evictedInGroup;
+        nextOlder = (nextOlder + 1) % olderTimes.length;
+        olderCount = Math.min(olderCount + 1, olderTimes.length);
+        evictedInGroup = 0;
+        evictedUtilizationSum = 0;
+    }
+
+    /**
+     * Gets the statistics of the recent samples, which are updated in O(1) at each addition.
+     * @return the recent samples statistics
+     */
+    public SlidingWindowStatistics getRecentStatistics() {
+        return recent;
+    }
+
+    /**
+     * @return the number of recent samples
+     */
+    public int size() {
+        return recent.size();
+    }
+
+    /**
+     * @param index the sample index, where 0 is the oldest recent sample
+     * @return the time of a recent sample
+     */
+    public double getTime(final int index) {
+        if(index < 0 || index >= recent.size()){
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + recent.size());
+        }
+
+        return recentTimes[(nextRecent - recent.size() + index + recentTimes.length) % recentTimes.length];
+    }
+
+    /**
+     * @param index the sample index, where 0 is the oldest recent sample
+     * @return the utilization of a recent sample
+     */
+    public double getUtilization(final int index) {
+        return recent.get(index);
+    }
+
+    /**
+     * @return the number of downsampled older samples
+     */
+    public int olderSize() {
+        return olderCount;
+    }
+
+    /**
+     * @param index the sample index, where 0 is the oldest downsampled sample
+     * @return the time of the last sample averaged into a downsampled sample
+     */
+    public double getOlderTime(final int index) {
+        return olderTimes[olderIndex(index)];
+    }
+
+    /**
+     * @param index the sample index, where 0 is the oldest downsampled sample
+     * @return the mean utilization of the samples averaged into a downsampled sample
+     */
+    public double getOlderUtilization(final int index) {
+        return olderUtilization[olderIndex(index)];
+    }
+
+    private int olderIndex(final int index) {
+        if(index < 0 || index >= olderCount){
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + olderCount);
+        }
+
+        return (nextOlder - olderCount + index + olderTimes.length) % olderTimes.length;
+    }
+}
@@ -0,0 +1,62 @@
+package org.cloudsimplus.examples.autoscaling;
+
+/**
+ * Bursts of Cloudlets submitted at regular intervals while a simulation runs,
+ * after the Cloudlets created at the beginning.
+ *
+ * @see LoadBalancerByHorizontalVmScalingExample
+ */
+public final class CloudletBursts {
+    /**
+     * The single burst of 4 Cloudlets at time 10 the example has been using.
+     */
+    public static final CloudletBursts DEFAULT = new CloudletBursts(10, 0, 1, 4);
+
+    private final double firstTime;
+    private final double interval;
+    private final int bursts;
+    private final int cloudletsPerBurst;
+
+    /**
+     * Creates the bursts specification.
+     *
+     * @param firstTime the time (in seconds) of the first burst
+     * @param interval the time (in seconds) between bursts, which must be positive if there is more than one burst
+     * @param bursts the number of bursts
+     * @param cloudletsPerBurst the number of Cloudlets submitted in each burst
+     */
+    public CloudletBursts(final double firstTime, final double interval, final int bursts, final int cloudletsPerBurst) {
+        if(firstTime < 0 || bursts < 0 || cloudletsPerBurst < 0 || bursts > 1 && interval <= 0){
+            throw new IllegalArgumentException("Invalid bursts: time, bursts and Cloudlets must not be negative and interval must be positive");
+        }
+
+        this.firstTime = firstTime;
+        this.interval = interval;
+        this.bursts = bursts;
+        this.cloudletsPerBurst = cloudletsPerBurst;
+    }
+
+    public double getFirstTime() {
+        return firstTime;
+    }
+
+    public double getInterval() {
+        return interval;
+    }
+
+    public int getBursts() {
+        return bursts;
+    }
+
+    public int getCloudletsPerBurst() {
+        return cloudletsPerBurst;
+    }
+
+    /**
+     * @param burst the burst index
+     * @return the time (in seconds) of the burst
+     */
+    public double getTime(final int burst) {
+        return firstTime + burst * interval;
+    }
+}
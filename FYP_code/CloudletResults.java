@@ -0,0 +1,389 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The results of finished Cloudlets held in primitive arrays, to be sorted and aggregated after a simulation
+ * without going through the Cloudlet, VM and Host objects at every comparison,
+ * as sorting the broker finished list with comparators does.
+ *
+ * <p>The sort keys (VM id, Host id and execution start time) are extracted once, when the results are
+ * {@link #load(Path) loaded} from a {@link CloudletResultsSink} file or {@link #of(List) copied} from a list.
+ * Rows are sorted by an LSD radix sort on such keys, which takes linear time and doesn't compare rows.
+ * Per VM and per Host aggregates are then computed in a single pass over the sorted rows.</p>
+ */
+public final class CloudletResults {
+    /**
+     * How rows are grouped when sorted and aggregated.
+     */
+    public enum Group {
+        /**
+         * Rows are grouped by VM, then sorted by execution start time.
+         */
+        VM,
+
+        /**
+         * Rows are grouped by Host, then by VM and then sorted by execution start time.
+         */
+        HOST
+    }
+
+    /**
+     * The number of bits of the key digit sorted at each radix sort pass.
+     */
+    private static final int DIGIT_BITS = 16;
+    private static final int DIGIT_MASK = (1 << DIGIT_BITS) - 1;
+
+    private final int size;
+    private final long[] cloudletId;
+    private final long[] vmId;
+    private final long[] hostId;
+    private final double[] arrivalTime;
+    private final double[] startTime;
+    private final double[] finishTime;
+    private final int[] pes;
+    private final double[] cost;
+
+    /**
+     * Aggregates of the rows of each group.
+     */
+    public static final class Aggregates {
+        private final Group group;
+        private final int size;
+        private final long[] key;
+        private final int[] cloudlets;
+        private final double[] firstArrival;
+        private final double[] lastFinish;
+        private final double[] totalWait;
+        private final double[] totalExecution;
+
+        private Aggregates(final Group group, final int capacity) {
+            this.group = group;
+            key = new long[capacity];
+            cloudlets = new int[capacity];
+            firstArrival = new double[capacity];
+            lastFinish = new double[capacity];
+            totalWait = new double[capacity];
+            totalExecution = new double[capacity];
+            size = capacity;
+        }
+
+        /**
+         * @return the number of groups
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param i the group index
+         * @return the VM or Host id of the group
+         */
+        public long getKey(final int i) {
+            return key[i];
+        }
+
+        /**
+         * @param i the group index
+         * @return the number of Cloudlets in the group
+         */
+        public int getCloudlets(final int i) {
+            return cloudlets[i];
+        }
+
+        /**
+         * @param i the group index
+         * @return the time from the first Cloudlet arrival to the last Cloudlet finish in the group
+         */
+        public double getMakespan(final int i) {
+            return lastFinish[i] - firstArrival[i];
+        }
+
+        /**
+         * @param i the group index
+         * @return the mean time the Cloudlets in the group waited from arrival to execution start
+         */
+        public double getMeanWait(final int i) {
+            return totalWait[i] / cloudlets[i];
+        }
+
+        /**
+         * @param i the group index
+         * @return the mean execution time of the Cloudlets in the group
+         */
+        public double getMeanExecution(final int i) {
+            return totalExecution[i] / cloudlets[i];
+        }
+
+        /**
+         * Prints a table with a line for each group.
+         * @param out where to print the aggregates
+         */
+        public void print(final PrintStream out) {
+            out.printf("%nCLOUDLETS BY %s%n", group);
+            out.printf("%6s %10s %14s %14s %14s %14s %14s%n",
+                group, "Cloudlets", "First Arrival", "Last Finish", "Makespan (s)", "Mean Wait (s)", "Mean Exec (s)");
+            for (int i = 0; i < size; i++) {
+                out.printf("%6d %10d %14.2f %14.2f %14.2f %14.2f %14.2f%n",
+                    key[i], cloudlets[i], firstArrival[i], lastFinish[i], getMakespan(i), getMeanWait(i), getMeanExecution(i));
+            }
+        }
+    }
+
+    private CloudletResults(final int size) {
+        this.size = size;
+        cloudletId = new long[size];
+        vmId = new long[size];
+        hostId = new long[size];
+        arrivalTime = new double[size];
+        startTime = new double[size];
+        finishTime = new double[size];
+        pes = new int[size];
+        cost = new double[size];
+    }
+
+    /**
+     * Prints the results in a file written by a {@link CloudletResultsSink}:
+     * a line for each Cloudlet, sorted according to a group, followed by the per VM and per Host aggregates.
+     *
+     * @param file the results file
+     * @param order how the Cloudlets are sorted
+     * @param out where to print the results
+     */
+    public static void print(final Path file, final Group order, final PrintStream out) {
+        final CloudletResults results = load(file);
+        results.print(results.sort(order), out);
+        results.aggregate(Group.VM).print(out);
+        results.aggregate(Group.HOST).print(out);
+    }
+
+    /**
+     * Loads the results in a file written by a {@link CloudletResultsSink}.
+     * The block headers are read first, so that the arrays are allocated with the exact number of rows.
+     *
+     * @param file the results file
+     * @return the loaded results
+     */
+    public static CloudletResults load(final Path file) {
+        try (FileChannel input = CloudletResultsSink.open(file)) {
+            final long firstBlock = input.position();
+            final ByteBuffer rows = ByteBuffer.allocate(Integer.BYTES);
+            long total = 0;
+            int maxBlock = 0;
+            while (input.position() < input.size()) {
+                rows.clear();
+                CloudletResultsSink.readFully(input, rows);
+                final int blockSize = rows.getInt(0);
+                total += blockSize;
+                maxBlock = Math.max(maxBlock, blockSize);
+                input.position(input.position() + (long) blockSize * CloudletResultsSink.RECORD_BYTES);
+            }
+
+            if(total > Integer.MAX_VALUE){
+                throw new IllegalStateException(String.format("%s has %d rows, more than an array supports", file, total));
+            }
+
+            final CloudletResults results = new CloudletResults((int) total);
+            final ByteBuffer block = ByteBuffer.allocate(maxBlock * CloudletResultsSink.RECORD_BYTES);
+            input.position(firstBlock);
+            for (int offset = 0; offset < results.size; ) {
+                rows.clear();
+                CloudletResultsSink.readFully(input, rows);
+                final int blockSize = rows.getInt(0);
+                block.clear().limit(blockSize * CloudletResultsSink.RECORD_BYTES);
+                CloudletResultsSink.readFully(input, block);
+                block.flip();
+                results.readBlock(block, offset, blockSize);
+                offset += blockSize;
+            }
+
+            return results;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readBlock(final ByteBuffer block, final int offset, final int rows) {
+        block.asLongBuffer().get(cloudletId, offset, rows);
+        block.position(block.position() + rows * Long.BYTES);
+        block.asLongBuffer().get(vmId, offset, rows);
+        block.position(block.position() + rows * Long.BYTES);
+        block.asLongBuffer().get(hostId, offset, rows);
+        block.position(block.position() + rows * Long.BYTES);
+        block.asDoubleBuffer().get(arrivalTime, offset, rows);
+        block.position(block.position() + rows * Double.BYTES);
+        block.asDoubleBuffer().get(startTime, offset, rows);
+        block.position(block.position() + rows * Double.BYTES);
+        block.asDoubleBuffer().get(finishTime, offset, rows);
+        block.position(block.position() + rows * Double.BYTES);
+        block.asIntBuffer().get(pes, offset, rows);
+        block.position(block.position() + rows * Integer.BYTES);
+        block.asDoubleBuffer().get(cost, offset, rows);
+    }
+
+    /**
+     * Copies the results of finished Cloudlets, going through each Cloudlet, VM and Host just once.
+     * @param finished the finished Cloudlets
+     * @return the copied results
+     */
+    public static CloudletResults of(final List<? extends Cloudlet> finished) {
+        final CloudletResults results = new CloudletResults(finished.size());
+        for (int i = 0; i < results.size; i++) {
+            final Cloudlet cloudlet = finished.get(i);
+            results.cloudletId[i] = cloudlet.getId();
+            results.vmId[i] = cloudlet.getVm().getId();
+            results.hostId[i] = cloudlet.getVm().getHost().getId();
+            results.arrivalTime[i] = cloudlet.getLastDatacenterArrivalTime();
+            results.startTime[i] = cloudlet.getExecStartTime();
+            results.finishTime[i] = cloudlet.getFinishTime();
+            results.pes[i] = (int) cloudlet.getNumberOfPes();
+            results.cost[i] = cloudlet.getTotalCost();
+        }
+
+        return results;
+    }
+
+    /**
+     * Sorts the rows according to a group.
+     * @param group how rows are grouped and sorted inside a group
+     * @return the row indexes in sorted order
+     */
+    public int[] sort(final Group group) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+
+        //LSD: the least significant key is sorted first and each next pass is stable
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = sortableBits(startTime[i]);
+        }
+        order = radixSort(order, keys);
+
+        for (int i = 0; i < size; i++) {
+            keys[i] = vmId[i] ^ Long.MIN_VALUE;
+        }
+        order = radixSort(order, keys);
+
+        if(group == Group.HOST) {
+            for (int i = 0; i < size; i++) {
+                keys[i] = hostId[i] ^ Long.MIN_VALUE;
+            }
+            order = radixSort(order, keys);
+        }
+
+        return order;
+    }
+
+    /**
+     * Maps a double to a long whose unsigned order is the order of the doubles.
+     */
+    private static long sortableBits(final double value) {
+        final long bits = Double.doubleToLongBits(value);
+        return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Stable sorts rows by the unsigned order of a key, a {@link #DIGIT_BITS} digit at a time.
+     * Passes where all rows have the same digit are skipped, so small keys such as ids take one or two passes.
+     *
+     * @param order the row indexes in their current order
+     * @param keys the key of each row, indexed by row
+     * @return the row indexes sorted by the key
+     */
+    private static int[] radixSort(int[] order, final long[] keys) {
+        int[] sorted = new int[order.length];
+        final int[] counts = new int[(1 << DIGIT_BITS) + 1];
+        for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+            Arrays.fill(counts, 0);
+            for (int row : order) {
+                counts[(int) (keys[row] >>> shift & DIGIT_MASK) + 1]++;
+            }
+
+            if(order.length == 0 || counts[(int) (keys[order[0]] >>> shift & DIGIT_MASK) + 1] == order.length){
+                continue;
+            }
+
+            for (int digit = 0; digit < DIGIT_MASK + 1; digit++) {
+                counts[digit + 1] += counts[digit];
+            }
+
+            for (int row : order) {
+                sorted[counts[(int) (keys[row] >>> shift & DIGIT_MASK)]++] = row;
+            }
+
+            final int[] previous = order;
+            order = sorted;
+            sorted = previous;
+        }
+
+        return order;
+    }
+
+    /**
+     * Computes the aggregates of each VM or Host in a single pass over the sorted rows.
+     * @param group whether rows are aggregated by VM or by Host
+     * @return the aggregates of each group, ordered by id
+     */
+    public Aggregates aggregate(final Group group) {
+        final int[] order = sort(group);
+        final long[] ids = group == Group.VM ? vmId : hostId;
+        int groups = 0;
+        for (int i = 0; i < size; i++) {
+            if(i == 0 || ids[order[i]] != ids[order[i - 1]]){
+                groups++;
+            }
+        }
+
+        final Aggregates aggregates = new Aggregates(group, groups);
+        int g = -1;
+        for (int i = 0; i < size; i++) {
+            final int row = order[i];
+            if(i == 0 || ids[row] != ids[order[i - 1]]){
+                g++;
+                aggregates.key[g] = ids[row];
+                aggregates.firstArrival[g] = arrivalTime[row];
+                aggregates.lastFinish[g] = finishTime[row];
+            }
+
+            aggregates.cloudlets[g]++;
+            aggregates.firstArrival[g] = Math.min(aggregates.firstArrival[g], arrivalTime[row]);
+            aggregates.lastFinish[g] = Math.max(aggregates.lastFinish[g], finishTime[row]);
+            aggregates.totalWait[g] += startTime[row] - arrivalTime[row];
+            aggregates.totalExecution[g] += finishTime[row] - startTime[row];
+        }
+
+        return aggregates;
+    }
+
+    /**
+     * Prints a line for each row.
+     * @param order the indexes of the rows to print, in the order to print them
+     * @param out where to print the rows
+     */
+    public void print(final int[] order, final PrintStream out) {
+        CloudletResultsSink.printHeader(out);
+        for (int row : order) {
+            CloudletResultsSink.printRow(
+                out, cloudletId[row], vmId[row], hostId[row], pes[row],
+                arrivalTime[row], startTime[row], finishTime[row], cost[row]);
+        }
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+}
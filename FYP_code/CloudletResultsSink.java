@@ -0,0 +1,308 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams the results of the Cloudlets finished by a broker into a columnar binary file, as they finish,
+ * replacing the sorting and rendering of the whole finished list as a table after the simulation.
+ * The table view of the results can be rendered from the file by {@link #print(Path, PrintStream)},
+ * when it's small enough to be read.
+ *
+ * <p>A Cloudlet is recorded when the broker receives it back from the Datacenter.
+ * Records are buffered into primitive arrays (blocks) which are written to the file when full,
+ * so no object is allocated per finished Cloudlet.</p>
+ *
+ * <p>The file starts with a {@link #MAGIC} int and the format version (int),
+ * followed by blocks in big-endian order. Each block has its number of records (int) followed by
+ * each column of such records stored contiguously: Cloudlet id, VM id and Host id (long),
+ * arrival time at the Datacenter, execution start time and finish time (double), PEs (int) and total cost (double).</p>
+ */
+public final class CloudletResultsSink implements Closeable {
+    /**
+     * Identifies files written by this class.
+     */
+    public static final int MAGIC = 0x434C5231; //"CLR1"
+    public static final int VERSION = 1;
+    public static final int RECORD_BYTES = Long.BYTES * 3 + Double.BYTES * 4 + Integer.BYTES;
+    public static final int DEFAULT_BLOCK_SIZE = 8192;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final DatacenterBroker broker;
+    private final ByteBuffer buffer;
+
+    private final long[] cloudletId;
+    private final long[] vmId;
+    private final long[] hostId;
+    private final double[] arrivalTime;
+    private final double[] startTime;
+    private final double[] finishTime;
+    private final int[] pes;
+    private final double[] cost;
+    private int size;
+    private long records;
+    private boolean closed;
+
+    /**
+     * Creates a sink that writes to a temporary file, deleted by {@link #delete()}
+     * or, if that is not called, when the JVM exits.
+     * @param prefix the prefix of the file name
+     * @param broker the broker whose finished Cloudlets are recorded
+     * @return the created sink
+     * @see #getFile()
+     */
+    public static CloudletResultsSink ofTempFile(final String prefix, final DatacenterBroker broker) {
+        try {
+            final Path file = Files.createTempFile(prefix, ".clr");
+            file.toFile().deleteOnExit();
+            return new CloudletResultsSink(file, broker);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a sink with the {@link #DEFAULT_BLOCK_SIZE}.
+     * @param file the file to write the results to (overwritten if it exists)
+     * @param broker the broker whose finished Cloudlets are recorded
+     */
+    public CloudletResultsSink(final Path file, final DatacenterBroker broker) {
+        this(file, broker, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a sink and registers it to record the Cloudlets a broker receives back from Datacenters.
+     * @param file the file to write the results to (overwritten if it exists)
+     * @param broker the broker whose finished Cloudlets are recorded
+     * @param blockSize the number of records stored in memory before being written
+     */
+    public CloudletResultsSink(final Path file, final DatacenterBroker broker, final int blockSize) {
+        if(blockSize <= 0){
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+
+        this.file = file;
+        this.broker = broker;
+        cloudletId = new long[blockSize];
+        vmId = new long[blockSize];
+        hostId = new long[blockSize];
+        arrivalTime = new double[blockSize];
+        startTime = new double[blockSize];
+        finishTime = new double[blockSize];
+        pes = new int[blockSize];
+        cost = new double[blockSize];
+        buffer = ByteBuffer.allocateDirect(Integer.BYTES + blockSize * RECORD_BYTES);
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.putInt(MAGIC).putInt(VERSION).flip();
+            writeBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        broker.getSimulation().addOnEventProcessingListener(this::onEventProcessing);
+    }
+
+    private void onEventProcessing(final SimEvent evt) {
+        if(evt.getTag() == CloudSimTags.CLOUDLET_RETURN && evt.getDestination() == broker && !closed){
+            record((Cloudlet) evt.getData());
+        }
+    }
+
+    /**
+     * Records the results of a finished Cloudlet.
+     * @param cloudlet the Cloudlet to record
+     */
+    public void record(final Cloudlet cloudlet) {
+        if(closed){
+            throw new IllegalStateException("The sink is already closed");
+        }
+
+        final Vm vm = cloudlet.getVm();
+        final int i = size++;
+        cloudletId[i] = cloudlet.getId();
+        vmId[i] = vm.getId();
+        hostId[i] = vm.getHost().getId();
+        arrivalTime[i] = cloudlet.getLastDatacenterArrivalTime();
+        startTime[i] = cloudlet.getExecStartTime();
+        finishTime[i] = cloudlet.getFinishTime();
+        pes[i] = (int) cloudlet.getNumberOfPes();
+        cost[i] = cloudlet.getTotalCost();
+        records++;
+
+        if(size == cloudletId.length){
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered records as a block.
+     */
+    private void flush() {
+        if(size == 0){
+            return;
+        }
+
+        buffer.clear();
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) buffer.putLong(cloudletId[i]);
+        for (int i = 0; i < size; i++) buffer.putLong(vmId[i]);
+        for (int i = 0; i < size; i++) buffer.putLong(hostId[i]);
+        for (int i = 0; i < size; i++) buffer.putDouble(arrivalTime[i]);
+        for (int i = 0; i < size; i++) buffer.putDouble(startTime[i]);
+        for (int i = 0; i < size; i++) buffer.putDouble(finishTime[i]);
+        for (int i = 0; i < size; i++) buffer.putInt(pes[i]);
+        for (int i = 0; i < size; i++) buffer.putDouble(cost[i]);
+        buffer.flip();
+        size = 0;
+        try {
+            writeBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Writes the buffered records and closes the file.
+     * Cloudlets finishing after that are not recorded.
+     */
+    @Override
+    public void close() {
+        if(closed){
+            return;
+        }
+
+        flush();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the sink, if not closed yet, and deletes its file.
+     * The results can't be printed after that.
+     */
+    public void delete() {
+        close();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return the number of Cloudlets recorded so far
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Prints the table view of a results file written by a {@link CloudletResultsSink},
+     * one line for each Cloudlet, in the order they finished.
+     * The file is read one block at a time.
+     *
+     * @param file the results file
+     * @param out where to print the results
+     * @see CloudletResults#print(Path, CloudletResults.Group, PrintStream)
+     */
+    public static void print(final Path file, final PrintStream out) {
+        printHeader(out);
+        try (FileChannel input = open(file)) {
+            final ByteBuffer rows = ByteBuffer.allocate(Integer.BYTES);
+            while (input.position() < input.size()) {
+                rows.clear();
+                readFully(input, rows);
+                final int size = rows.getInt(0);
+                final ByteBuffer block = ByteBuffer.allocate(size * RECORD_BYTES);
+                readFully(input, block);
+                for (int i = 0; i < size; i++) {
+                    printRecord(block, size, i, out);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a results file, checking its header.
+     * @param file the results file
+     * @return the file channel, positioned at the first block
+     */
+    static FileChannel open(final Path file) throws IOException {
+        final FileChannel input = FileChannel.open(file, StandardOpenOption.READ);
+        final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 2);
+        readFully(input, header);
+        if(header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION){
+            input.close();
+            throw new IllegalArgumentException(file + " is not a Cloudlet results file of version " + VERSION);
+        }
+
+        return input;
+    }
+
+    static void printHeader(final PrintStream out) {
+        out.printf("%nSIMULATION RESULTS%n");
+        out.printf("%10s %6s %6s %4s %14s %14s %14s %14s %10s%n",
+            "Cloudlet", "VM", "Host", "PEs", "Arrival (s)", "Start (s)", "Finish (s)", "Exec (s)", "Cost");
+    }
+
+    static void printRow(
+        final PrintStream out, final long cloudlet, final long vm, final long host, final int pes,
+        final double arrival, final double start, final double finish, final double cost)
+    {
+        out.printf("%10d %6d %6d %4d %14.2f %14.2f %14.2f %14.2f %10.2f%n",
+            cloudlet, vm, host, pes, arrival, start, finish, finish - start, cost);
+    }
+
+    private static void printRecord(final ByteBuffer block, final int size, final int i, final PrintStream out) {
+        final int longs = size * Long.BYTES;
+        final int doubles = size * Double.BYTES;
+        final long cloudlet = block.getLong(i * Long.BYTES);
+        final long vm = block.getLong(longs + i * Long.BYTES);
+        final long host = block.getLong(2 * longs + i * Long.BYTES);
+        final double arrival = block.getDouble(3 * longs + i * Double.BYTES);
+        final double start = block.getDouble(3 * longs + doubles + i * Double.BYTES);
+        final double finish = block.getDouble(3 * longs + 2 * doubles + i * Double.BYTES);
+        final int pes = block.getInt(3 * longs + 3 * doubles + i * Integer.BYTES);
+        final double cost = block.getDouble(3 * longs + 3 * doubles + size * Integer.BYTES + i * Double.BYTES);
+        printRow(out, cloudlet, vm, host, pes, arrival, start, finish, cost);
+    }
+
+    static void readFully(final FileChannel input, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if(input.read(buffer) < 0){
+                throw new IllegalStateException("Unexpected end of the Cloudlet results file");
+            }
+        }
+    }
+}
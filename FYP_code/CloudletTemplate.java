@@ -0,0 +1,133 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+
+/**
+ * The configuration shared by Cloudlets created alike: file and output sizes and utilization models.
+ * Cloudlets created from a template share the template utilization models,
+ * instead of allocating new models for each Cloudlet. Only the Cloudlet itself is allocated.
+ *
+ * <p>Models are shared by reference, therefore they must not keep per-Cloudlet state.
+ * That is the case of {@link UtilizationModelFull} and of a
+ * {@link org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic} with a constant utilization.
+ * A model whose utilization is updated along the time, such as a dynamic model with an update function,
+ * is shared only if all Cloudlets must follow the same utilization.</p>
+ *
+ * <p>Since models also keep the simulation they belong to, a template must not be shared among simulations,
+ * such as scenarios running in parallel. Each scenario creates its own templates.</p>
+ */
+public final class CloudletTemplate {
+    public static final long DEFAULT_FILE_SIZE = 1024;
+    public static final long DEFAULT_OUTPUT_SIZE = 1024;
+
+    private final long fileSize;
+    private final long outputSize;
+    private final UtilizationModel cpuModel;
+    private final UtilizationModel ramModel;
+    private final UtilizationModel bwModel;
+
+    /**
+     * Creates a template whose Cloudlets use all the CPU, RAM and bandwidth, with the default file and output sizes.
+     * A single {@link UtilizationModelFull} is shared by all resources and Cloudlets.
+     * @return the created template
+     */
+    public static CloudletTemplate full() {
+        final UtilizationModel full = new UtilizationModelFull();
+        return new CloudletTemplate(full, full, full);
+    }
+
+    /**
+     * Creates a template with the default file and output sizes.
+     *
+     * @param cpuModel the CPU utilization model shared by the Cloudlets
+     * @param ramModel the RAM utilization model shared by the Cloudlets
+     * @param bwModel the bandwidth utilization model shared by the Cloudlets
+     */
+    public CloudletTemplate(final UtilizationModel cpuModel, final UtilizationModel ramModel, final UtilizationModel bwModel) {
+        this(DEFAULT_FILE_SIZE, DEFAULT_OUTPUT_SIZE, cpuModel, ramModel, bwModel);
+    }
+
+    /**
+     * Creates a template.
+     *
+     * @param fileSize the size (in bytes) of the Cloudlet file before execution
+     * @param outputSize the size (in bytes) of the Cloudlet file after execution
+     * @param cpuModel the CPU utilization model shared by the Cloudlets
+     * @param ramModel the RAM utilization model shared by the Cloudlets
+     * @param bwModel the bandwidth utilization model shared by the Cloudlets
+     */
+    public CloudletTemplate(
+        final long fileSize, final long outputSize,
+        final UtilizationModel cpuModel, final UtilizationModel ramModel, final UtilizationModel bwModel)
+    {
+        if(fileSize <= 0 || outputSize <= 0){
+            throw new IllegalArgumentException("File and output sizes must be positive");
+        }
+
+        this.fileSize = fileSize;
+        this.outputSize = outputSize;
+        this.cpuModel = cpuModel;
+        this.ramModel = ramModel;
+        this.bwModel = bwModel;
+    }
+
+    /**
+     * Creates a template equal to this one, except for the RAM utilization model.
+     * @param ramModel the RAM utilization model shared by the Cloudlets
+     * @return the created template
+     */
+    public CloudletTemplate withRamModel(final UtilizationModel ramModel) {
+        return new CloudletTemplate(fileSize, outputSize, cpuModel, ramModel, bwModel);
+    }
+
+    /**
+     * Creates a Cloudlet with an automatically assigned id.
+     *
+     * @param length the length (in MI) of the Cloudlet
+     * @param pes the number of PEs the Cloudlet requires
+     * @return the created Cloudlet
+     */
+    public Cloudlet create(final long length, final long pes) {
+        return create(-1, length, pes);
+    }
+
+    /**
+     * Creates a Cloudlet.
+     *
+     * @param id the Cloudlet id, or -1 to be assigned automatically
+     * @param length the length (in MI) of the Cloudlet
+     * @param pes the number of PEs the Cloudlet requires
+     * @return the created Cloudlet
+     */
+    public Cloudlet create(final long id, final long length, final long pes) {
+        return new CloudletSimple(id, length, pes)
+            .setFileSize(fileSize)
+            .setOutputSize(outputSize)
+            .setUtilizationModelCpu(cpuModel)
+            .setUtilizationModelRam(ramModel)
+            .setUtilizationModelBw(bwModel);
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public long getOutputSize() {
+        return outputSize;
+    }
+
+    public UtilizationModel getCpuModel() {
+        return cpuModel;
+    }
+
+    public UtilizationModel getRamModel() {
+        return ramModel;
+    }
+
+    public UtilizationModel getBwModel() {
+        return bwModel;
+    }
+}
@@ -0,0 +1,205 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.listeners.HostUpdatesVmsProcessingEventInfo;
+
+import java.util.Arrays;
+
+/**
+ * A CPU usage history of a Host which takes much less memory than {@link Host#enableStateHistory()},
+ * which keeps one object for each processing update of the Host.
+ *
+ * <p>Consecutive samples with the same requested and allocated MIPS and the same active state are
+ * run-length encoded: they are stored as a single run, which keeps the time of its first and last samples
+ * and the number of samples. Runs are stored in primitive arrays, so a Host whose usage seldom changes
+ * takes a few bytes, whatever the number of processing updates.</p>
+ *
+ * <p>The maximum and mean CPU usage and whether the CPU usage was ever above zero
+ * are updated as samples are recorded, so that they are got in constant time.
+ * As in the Host state history, several samples at the same time are
+ * recorded as the last of them.</p>
+ */
+public final class CompactHostHistory {
+    private final Host host;
+
+    private double[] firstTimes = new double[8];
+    private double[] lastTimes = new double[8];
+    private double[] requestedMips = new double[8];
+    private double[] allocatedMips = new double[8];
+    private boolean[] active = new boolean[8];
+    private int[] samples = new int[8];
+    private int runs;
+
+    /**
+     * The last sample, which is just recorded when a sample at a later time arrives,
+     * since it may still be replaced by another one at the same time.
+     */
+    private boolean pending;
+    private double pendingTime;
+    private double pendingRequested;
+    private double pendingAllocated;
+    private boolean pendingActive;
+
+    private long recordedSamples;
+    private double usageSum;
+    private double maxUsage;
+
+    /**
+     * Creates a history and registers it to record a sample after every processing update of a Host.
+     * @param host the Host to record the history of
+     */
+    public CompactHostHistory(final Host host) {
+        this.host = host;
+        host.addOnUpdateProcessingListener(this::onUpdateProcessing);
+    }
+
+    private void onUpdateProcessing(final HostUpdatesVmsProcessingEventInfo info) {
+        double requested = 0;
+        double allocated = 0;
+        for (Vm vm : host.getVmList()) {
+            requested += vm.getCurrentRequestedTotalMips();
+            allocated += host.getVmScheduler().getTotalAllocatedMipsForVm(vm);
+        }
+
+        add(info.getTime(), requested, allocated, host.isActive());
+    }
+
+    /**
+     * Adds a sample to the history.
+     *
+     * @param time the time of the sample
+     * @param requested the total MIPS requested by the VMs
+     * @param allocated the total MIPS allocated to the VMs
+     * @param isActive whether the Host is active
+     */
+    public void add(final double time, final double requested, final double allocated, final boolean isActive) {
+        if(pending && time != pendingTime){
+            record();
+        }
+
+        pending = true;
+        pendingTime = time;
+        pendingRequested = requested;
+        pendingAllocated = allocated;
+        pendingActive = isActive;
+    }
+
+    /**
+     * @return true if the last sample is equal to the samples of the last run
+     */
+    private boolean pendingMatchesLastRun() {
+        final int last = runs - 1;
+        return runs > 0 && requestedMips[last] == pendingRequested &&
+               allocatedMips[last] == pendingAllocated && active[last] == pendingActive;
+    }
+
+    private void record() {
+        if(pendingMatchesLastRun()) {
+            lastTimes[runs - 1] = pendingTime;
+            samples[runs - 1]++;
+        } else {
+            if(runs == firstTimes.length){
+                grow();
+            }
+
+            firstTimes[runs] = pendingTime;
+            lastTimes[runs] = pendingTime;
+            requestedMips[runs] = pendingRequested;
+            allocatedMips[runs] = pendingAllocated;
+            active[runs] = pendingActive;
+            samples[runs] = 1;
+            runs++;
+        }
+
+        final double usage = usage(pendingAllocated);
+        recordedSamples++;
+        usageSum += usage;
+        maxUsage = Math.max(maxUsage, usage);
+    }
+
+    private void grow() {
+        final int capacity = firstTimes.length * 2;
+        firstTimes = Arrays.copyOf(firstTimes, capacity);
+        lastTimes = Arrays.copyOf(lastTimes, capacity);
+        requestedMips = Arrays.copyOf(requestedMips, capacity);
+        allocatedMips = Arrays.copyOf(allocatedMips, capacity);
+        active = Arrays.copyOf(active, capacity);
+        samples = Arrays.copyOf(samples, capacity);
+    }
+
+    private double usage(final double allocated) {
+        return allocated / host.getTotalMipsCapacity();
+    }
+
+    /**
+     * @return the number of runs of equal samples, including the last sample
+     */
+    public int getRuns() {
+        return runs + (pending && !pendingMatchesLastRun() ? 1 : 0);
+    }
+
+    /**
+     * @return the number of samples added, not counting the ones replaced by a later sample at the same time
+     */
+    public long getSamples() {
+        return recordedSamples + (pending ? 1 : 0);
+    }
+
+    /**
+     * @return the maximum CPU usage (from 0 to 1)
+     */
+    public double getMaxUsage() {
+        return pending ? Math.max(maxUsage, usage(pendingAllocated)) : maxUsage;
+    }
+
+    /**
+     * @return the mean CPU usage (from 0 to 1) of the samples
+     */
+    public double getMeanUsage() {
+        final long count = getSamples();
+        return count == 0 ? 0 : (usageSum + (pending ? usage(pendingAllocated) : 0)) / count;
+    }
+
+    /**
+     * @return true if the CPU usage was above zero at some sample
+     */
+    public boolean isCpuUsed() {
+        return getMaxUsage() > 0;
+    }
+
+    /**
+     * Prints a table with a line for each run of equal samples.
+     * @param title the title of the table
+     */
+    public void print(final String title) {
+        System.out.printf("%n%s%n", title);
+        System.out.printf("%12s %12s %9s %22s %22s %11s %6s%n",
+            "From (secs)", "To (secs)", "Samples", "Total Requested MIPS", "Total Allocated MIPS", "Used CPU %", "Active");
+        final boolean extendsLastRun = pending && pendingMatchesLastRun();
+        for (int i = 0; i < runs; i++) {
+            final boolean last = extendsLastRun && i == runs - 1;
+            printRun(
+                firstTimes[i], last ? pendingTime : lastTimes[i], samples[i] + (last ? 1 : 0),
+                requestedMips[i], allocatedMips[i], active[i]);
+        }
+
+        if(pending && !extendsLastRun) {
+            printRun(pendingTime, pendingTime, 1, pendingRequested, pendingAllocated, pendingActive);
+        }
+
+        System.out.printf("Max CPU usage: %.2f%% Mean CPU usage: %.2f%%%n", getMaxUsage() * 100, getMeanUsage() * 100);
+    }
+
+    private void printRun(
+        final double from, final double to, final int count,
+        final double requested, final double allocated, final boolean isActive)
+    {
+        System.out.printf("%12.2f %12.2f %9d %22.0f %22.0f %10.2f%% %6s%n",
+            from, to, count, requested, allocated, usage(allocated) * 100, isActive ? "on" : "off");
+    }
+
+    public Host getHost() {
+        return host;
+    }
+}
@@ -0,0 +1,444 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.listeners.EventInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Periodically plans VM migrations from the Hosts CPU utilization and requests them
+ * as a batch through {@link Datacenter#requestVmMigration(Vm, Host)}.
+ *
+ * <p>At every {@link #setEvaluationInterval(double) evaluation interval}, the planner:</p>
+ * <ol>
+ *     <li>relieves overloaded Hosts (above the {@link #setOverloadThreshold(double) overload threshold}),
+ *     moving their VMs (the ones with less RAM first, since they migrate faster)
+ *     until their utilization is expected to fall below the threshold;</li>
+ *     <li>consolidates underloaded Hosts (below the {@link #setUnderloadThreshold(double) underload threshold}),
+ *     the least utilized first, moving all their VMs to other active Hosts, so that they can be switched off.
+ *     A Host is just drained if there is a destination with enough capacity for all its VMs,
+ *     which are migrated along the next evaluations if they exceed the migrations limit.</li>
+ * </ol>
+ *
+ * <p>The destination of each VM is the Host with the lowest cost among the suitable ones
+ * that wouldn't become overloaded. The cost is the migration time (the VM RAM transferred using the
+ * {@link Datacenter#getBandwidthPercentForMigration() share of bandwidth} the Datacenter reserves for migration)
+ * plus the overload risk (the destination utilization after the migration, relative to the overload threshold)
+ * multiplied by a {@link #setRiskWeight(double) weight} in seconds.
+ * Hosts without VMs are just used when no active Host can receive a VM.</p>
+ *
+ * <p>Since a migration takes resources from both Hosts, at most
+ * {@link #setMaxMigrationsPerHost(int) a number of migrations} run at the same time from or to each Host.
+ * Migrations over such a limit are discarded and reconsidered at the next evaluation.</p>
+ */
+public final class ConsolidationPlanner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConsolidationPlanner.class.getSimpleName());
+
+    private final Datacenter datacenter;
+    private final List<Host> hosts;
+
+    private double evaluationInterval = 10;
+    private double underloadThreshold = 0.3;
+    private double overloadThreshold = 0.8;
+    private double riskWeight = 10;
+    private int maxMigrationsPerHost = 1;
+    private ToDoubleBiFunction<Vm, Host> migrationTime = this::ramTransferTime;
+
+    private double lastEvaluationTime;
+    private int requestedMigrations;
+
+    /**
+     * Migrations requested and not finished yet.
+     */
+    private final List<Migration> inFlight = new ArrayList<>();
+
+    /**
+     * The CPU demand (in MIPS) of each Host while planning, including the planned migrations.
+     */
+    private final Map<Host, Double> plannedDemand = new HashMap<>();
+
+    /**
+     * The RAM (in MB) of the VMs planned to be migrated to each Host in the current evaluation,
+     * which is not reserved in the Host yet.
+     */
+    private final Map<Host, Long> plannedRam = new HashMap<>();
+
+    /**
+     * The number of migrations from or to each Host, either running or planned.
+     */
+    private final Map<Host, Integer> migrationsByHost = new HashMap<>();
+
+    /**
+     * Hosts being drained, which can't receive VMs.
+     */
+    private final Set<Host> drained = new HashSet<>();
+
+    /**
+     * Hosts receiving VMs, which are not drained.
+     */
+    private final Set<Host> receiving = new HashSet<>();
+
+    private static final class Migration {
+        private final Vm vm;
+        private final Host source;
+        private final Host target;
+
+        private Migration(final Vm vm, final Host source, final Host target) {
+            this.vm = vm;
+            this.source = source;
+            this.target = target;
+        }
+    }
+
+    /**
+     * Creates a planner and registers it to evaluate the Hosts as the simulation clock advances.
+     *
+     * @param datacenter the Datacenter to request migrations to
+     * @param hosts the Hosts to evaluate
+     */
+    public ConsolidationPlanner(final Datacenter datacenter, final List<Host> hosts) {
+        this.datacenter = datacenter;
+        this.hosts = hosts;
+        datacenter.getSimulation().addOnClockTickListener(this::onClockTick);
+    }
+
+    private void onClockTick(final EventInfo info) {
+        if(info.getTime() - lastEvaluationTime < evaluationInterval){
+            return;
+        }
+
+        lastEvaluationTime = info.getTime();
+        final List<Migration> batch = plan();
+        for (Migration migration : batch) {
+            if(LOGGER.isInfoEnabled()) {
+                LOGGER.info(String.format(
+                    "%.2f: Requesting the migration of %s from %s to %s (%.2f seconds)",
+                    info.getTime(), migration.vm, migration.source, migration.target,
+                    migrationTime(migration.vm, migration.target)));
+            }
+
+            datacenter.requestVmMigration(migration.vm, migration.target);
+        }
+
+        inFlight.addAll(batch);
+        requestedMigrations += batch.size();
+    }
+
+    /**
+     * Plans the migrations for the current state of the Hosts.
+     * @return the migrations to request
+     */
+    private List<Migration> plan() {
+        inFlight.removeIf(migration -> !migration.vm.isInMigration());
+        plannedDemand.clear();
+        plannedRam.clear();
+        migrationsByHost.clear();
+        drained.clear();
+        receiving.clear();
+        for (Host host : hosts) {
+            double demand = 0;
+            for (Vm vm : host.getVmList()) {
+                demand += vmDemand(vm);
+            }
+            plannedDemand.put(host, demand);
+        }
+
+        //A VM being migrated still runs in the source Host, but it's already reserved in the target one
+        for (Migration migration : inFlight) {
+            plannedDemand.merge(migration.target, vmDemand(migration.vm), Double::sum);
+            countMigration(migration.source);
+            countMigration(migration.target);
+            receiving.add(migration.target);
+        }
+
+        final List<Migration> batch = new ArrayList<>();
+        for (Host host : hosts) {
+            if(utilization(host) > overloadThreshold) {
+                relieve(host, batch);
+            }
+        }
+
+        final List<Host> underloaded = new ArrayList<>();
+        for (Host host : hosts) {
+            if(!host.getVmList().isEmpty() && utilization(host) < underloadThreshold) {
+                underloaded.add(host);
+            }
+        }
+
+        underloaded.sort(Comparator.comparingDouble(this::utilization));
+        for (Host host : underloaded) {
+            if(!receiving.contains(host)) {
+                drain(host, batch);
+            }
+        }
+
+        return batch;
+    }
+
+    /**
+     * Plans migrations from an overloaded Host until it's expected to fall below the overload threshold.
+     */
+    private void relieve(final Host host, final List<Migration> batch) {
+        final List<Vm> vms = new ArrayList<>(host.getVmList());
+        vms.sort(Comparator.comparingLong((Vm vm) -> vm.getRam().getCapacity()));
+        for (Vm vm : vms) {
+            if(utilization(host) <= overloadThreshold || !canMigrate(host)){
+                return;
+            }
+
+            if(vm.isInMigration()){
+                continue;
+            }
+
+            final Host target = findTarget(vm, host, true);
+            if(target != null) {
+                addMigration(new Migration(vm, host, target), batch);
+            }
+        }
+    }
+
+    /**
+     * Plans the migration of all VMs from an underloaded Host, if there is a destination for all of them.
+     * Destinations are found by their capacity only, so that several VMs can go to the same Host.
+     * Then, just the migrations allowed by the limit of migrations per Host are kept.
+     * The other ones still hold their destination capacity along the current evaluation
+     * and the remaining VMs are planned again at the next evaluations.
+     */
+    private void drain(final Host host, final List<Migration> batch) {
+        if(!canMigrate(host)){
+            return;
+        }
+
+        final List<Migration> migrations = new ArrayList<>();
+        for (Vm vm : host.getVmList()) {
+            if(vm.isInMigration()){
+                continue;
+            }
+
+            final Host target = findTarget(vm, host, false);
+            if(target == null){
+                migrations.forEach(this::release);
+                return;
+            }
+
+            final Migration migration = new Migration(vm, host, target);
+            reserve(migration);
+            migrations.add(migration);
+        }
+
+        drained.add(host);
+        for (Migration migration : migrations) {
+            if(canMigrate(migration.source) && canMigrate(migration.target)) {
+                countMigration(migration.source);
+                countMigration(migration.target);
+                batch.add(migration);
+            }
+        }
+    }
+
+    private void addMigration(final Migration migration, final List<Migration> batch) {
+        reserve(migration);
+        countMigration(migration.source);
+        countMigration(migration.target);
+        batch.add(migration);
+    }
+
+    /**
+     * Moves the CPU demand and RAM of a VM to the planned destination.
+     */
+    private void reserve(final Migration migration) {
+        final double demand = vmDemand(migration.vm);
+        plannedDemand.merge(migration.source, -demand, Double::sum);
+        plannedDemand.merge(migration.target, demand, Double::sum);
+        plannedRam.merge(migration.target, migration.vm.getRam().getCapacity(), Long::sum);
+        receiving.add(migration.target);
+    }
+
+    /**
+     * Gives back the CPU demand and RAM of a VM to its Host. The target Host is kept as receiving VMs,
+     * which just prevents it from being drained in the current evaluation.
+     */
+    private void release(final Migration migration) {
+        final double demand = vmDemand(migration.vm);
+        plannedDemand.merge(migration.source, demand, Double::sum);
+        plannedDemand.merge(migration.target, -demand, Double::sum);
+        plannedRam.merge(migration.target, -migration.vm.getRam().getCapacity(), Long::sum);
+    }
+
+    /**
+     * Finds the lowest cost destination for a VM, preferring Hosts that already have VMs.
+     * Hosts being drained are not considered.
+     *
+     * @param vm the VM to migrate
+     * @param source the Host the VM is in
+     * @param withinLimit true to consider just Hosts below the limit of migrations,
+     *                    false to consider Hosts by their capacity only
+     * @return the destination Host or null if no Host can receive the VM
+     */
+    private Host findTarget(final Vm vm, final Host source, final boolean withinLimit) {
+        Host best = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        boolean bestActive = false;
+        for (Host host : hosts) {
+            if(host == source || drained.contains(host) || withinLimit && !canMigrate(host) || !host.isSuitableForVm(vm)){
+                continue;
+            }
+
+            //VMs planned to the Host in this evaluation are not reserved in it yet
+            if(host.getRam().getAvailableResource() - plannedRam.getOrDefault(host, 0L) < vm.getRam().getCapacity()){
+                continue;
+            }
+
+            final double utilizationAfter = (plannedDemand.get(host) + vmDemand(vm)) / host.getTotalMipsCapacity();
+            if(utilizationAfter > overloadThreshold){
+                continue;
+            }
+
+            final boolean active = !host.getVmList().isEmpty() || receiving.contains(host);
+            final double cost = migrationTime(vm, host) + riskWeight * utilizationAfter / overloadThreshold;
+            if(active && !bestActive || active == bestActive && cost < bestCost){
+                best = host;
+                bestCost = cost;
+                bestActive = active;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Estimates the time to migrate a VM, using the function {@link #setMigrationTime(ToDoubleBiFunction) set}.
+     *
+     * @param vm the VM to migrate
+     * @param target the destination Host
+     * @return the migration time (in seconds)
+     */
+    public double migrationTime(final Vm vm, final Host target) {
+        return migrationTime.applyAsDouble(vm, target);
+    }
+
+    /**
+     * Estimates the time to migrate a VM as the time to transfer its RAM once
+     * using the bandwidth share the Datacenter reserves for migration.
+     */
+    private double ramTransferTime(final Vm vm, final Host target) {
+        final double bw = Math.min(vm.getHost().getBw().getCapacity(), target.getBw().getCapacity());
+        return vm.getRam().getCapacity() * 8 / (bw * datacenter.getBandwidthPercentForMigration());
+    }
+
+    private static double vmDemand(final Vm vm) {
+        return vm.getCpuPercentUtilization() * vm.getTotalMipsCapacity();
+    }
+
+    private double utilization(final Host host) {
+        return plannedDemand.get(host) / host.getTotalMipsCapacity();
+    }
+
+    private void countMigration(final Host host) {
+        migrationsByHost.merge(host, 1, Integer::sum);
+    }
+
+    private boolean canMigrate(final Host host) {
+        return migrationsByHost.getOrDefault(host, 0) < maxMigrationsPerHost;
+    }
+
+    /**
+     * Sets the time (in seconds) between evaluations of the Hosts.
+     * @param evaluationInterval the interval to set
+     * @return this planner
+     */
+    public ConsolidationPlanner setEvaluationInterval(final double evaluationInterval) {
+        if(evaluationInterval <= 0){
+            throw new IllegalArgumentException("Evaluation interval must be positive: " + evaluationInterval);
+        }
+
+        this.evaluationInterval = evaluationInterval;
+        return this;
+    }
+
+    /**
+     * Sets the CPU utilization (from 0 to 1) below which a Host is drained.
+     * @param underloadThreshold the threshold to set
+     * @return this planner
+     */
+    public ConsolidationPlanner setUnderloadThreshold(final double underloadThreshold) {
+        if(underloadThreshold < 0 || underloadThreshold >= overloadThreshold){
+            throw new IllegalArgumentException("Underload threshold must be in the interval [0, overload threshold): " + underloadThreshold);
+        }
+
+        this.underloadThreshold = underloadThreshold;
+        return this;
+    }
+
+    /**
+     * Sets the CPU utilization (from 0 to 1) above which a Host is relieved
+     * and that no destination may exceed after a migration.
+     * @param overloadThreshold the threshold to set
+     * @return this planner
+     */
+    public ConsolidationPlanner setOverloadThreshold(final double overloadThreshold) {
+        if(overloadThreshold <= underloadThreshold || overloadThreshold > 1){
+            throw new IllegalArgumentException("Overload threshold must be in the interval (underload threshold, 1]: " + overloadThreshold);
+        }
+
+        this.overloadThreshold = overloadThreshold;
+        return this;
+    }
+
+    /**
+     * Sets how many seconds of migration time a destination overload risk of 1 (at the overload threshold) is worth.
+     * @param riskWeight the weight to set
+     * @return this planner
+     */
+    public ConsolidationPlanner setRiskWeight(final double riskWeight) {
+        if(riskWeight < 0){
+            throw new IllegalArgumentException("Risk weight must not be negative: " + riskWeight);
+        }
+
+        this.riskWeight = riskWeight;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of migrations running from or to each Host at the same time.
+     * @param maxMigrationsPerHost the maximum to set
+     * @return this planner
+     */
+    public ConsolidationPlanner setMaxMigrationsPerHost(final int maxMigrationsPerHost) {
+        if(maxMigrationsPerHost <= 0){
+            throw new IllegalArgumentException("Max migrations per Host must be positive: " + maxMigrationsPerHost);
+        }
+
+        this.maxMigrationsPerHost = maxMigrationsPerHost;
+        return this;
+    }
+
+    /**
+     * Sets the function estimating the time (in seconds) to migrate a VM to a Host,
+     * which is the time to transfer the VM RAM once by default.
+     * @param migrationTime the function to set
+     * @return this planner
+     */
+    public ConsolidationPlanner setMigrationTime(final ToDoubleBiFunction<Vm, Host> migrationTime) {
+        this.migrationTime = migrationTime;
+        return this;
+    }
+
+    /**
+     * @return the number of migrations requested so far
+     */
+    public int getRequestedMigrations() {
+        return requestedMigrations;
+    }
+}
@@ -0,0 +1,53 @@
+package org.cloudsimplus.examples.autoscaling;
+
+/**
+ * The lower and upper CPU utilization thresholds and the scaling factor
+ * of a vertical CPU scaling policy.
+ *
+ * @see VerticalVmCpuScalingExample
+ * @see ThresholdSearch
+ */
+public final class CpuScalingParameters {
+    private final double lowerThreshold;
+    private final double upperThreshold;
+    private final double scalingFactor;
+
+    /**
+     * Creates the parameters of a vertical CPU scaling policy.
+     *
+     * @param lowerThreshold the CPU utilization (from 0 to 1) below which a VM is underloaded
+     * @param upperThreshold the CPU utilization (from 0 to 1) above which a VM is overloaded
+     * @param scalingFactor the percentage (from 0 to 1) of the allocated PEs to scale at each step
+     */
+    public CpuScalingParameters(final double lowerThreshold, final double upperThreshold, final double scalingFactor) {
+        if(lowerThreshold < 0 || upperThreshold > 1 || lowerThreshold >= upperThreshold){
+            throw new IllegalArgumentException(
+                String.format("Thresholds must satisfy 0 <= lower < upper <= 1: %.4f/%.4f", lowerThreshold, upperThreshold));
+        }
+
+        if(scalingFactor <= 0 || scalingFactor > 1){
+            throw new IllegalArgumentException("Scaling factor must be in the interval (0, 1]: " + scalingFactor);
+        }
+
+        this.lowerThreshold = lowerThreshold;
+        this.upperThreshold = upperThreshold;
+        this.scalingFactor = scalingFactor;
+    }
+
+    public double getLowerThreshold() {
+        return lowerThreshold;
+    }
+
+    public double getUpperThreshold() {
+        return upperThreshold;
+    }
+
+    public double getScalingFactor() {
+        return scalingFactor;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("lower %.4f upper %.4f scaling factor %.4f", lowerThreshold, upperThreshold, scalingFactor);
+    }
+}
@@ -5,7 +5,6 @@ import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
 import org.cloudbus.cloudsim.brokers.DatacenterBroker;
 import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
-import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
 import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
@@ -17,44 +16,55 @@ import org.cloudbus.cloudsim.resources.PeSimple;
 import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerSpaceShared;
 import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.util.TraceReaderAbstract;
-import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
-import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
-import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
-import org.cloudsimplus.builders.tables.TextTableColumn;
 import org.cloudsimplus.listeners.HostEventInfo;
 import org.cloudsimplus.traces.google.GoogleMachineEventsTraceReader;
-import org.cloudsimplus.traces.google.GoogleTaskUsageTraceReader;
 import org.cloudsimplus.traces.google.MachineEvent;
 import org.cloudsimplus.traces.google.MachineEventType;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public class GoogleMachineEventsExample1 {
+public class GoogleMachineEventsExample1 implements AutoscalingScenario {
     private static final String TRACE_FILENAME = "workload/google-traces/machine-events-sample-1.csv";
+    private static final String TASK_USAGE_FILENAME = "workload/google-traces/task_usage_predicted.csv";
     private static final int HOST_BW = 10;
     private static final long HOST_STORAGE = 100000;
     private static final double HOST_MIPS = 1000;
 
     private static final int CLOUDLET_LENGTH = 100000;
     private static final int DATACENTERS_NUMBER = 2;
-    private List<DatacenterBroker> brokers;
     private final CloudSim simulation;
     private DatacenterBroker broker0;
     private List<Datacenter> datacenters;
+    private final String taskUsageFileName;
+    private TaskUsageCloudletFeeder taskUsageFeeder;
+    private CloudletResultsSink results;
+    private final CloudletTemplate cloudletTemplate = CloudletTemplate.full();
 
     public static void main(String[] args) {
         new GoogleMachineEventsExample1();
     }
 
     public GoogleMachineEventsExample1() {
+        this(TASK_USAGE_FILENAME);
+        start();
+        printSimulationResults();
+        close();
+    }
 
+    /**
+     * Builds the simulation scenario, without starting the simulation.
+     *
+     * @param taskUsageFileName the task usage trace to create Cloudlets from
+     */
+    public GoogleMachineEventsExample1(final String taskUsageFileName) {
+        this.taskUsageFileName = taskUsageFileName;
         simulation = new CloudSim();
         createDatacenters();
 
@@ -68,29 +78,65 @@ public class GoogleMachineEventsExample1 {
         /* Sets a listener method that will be called every time a new Host becomes available during simulation runtime
         * for the second Datacenter*/
         datacenters.get(1).addOnHostAvailableListener(this::onHostAvailableListener);
+    }
 
-        simulation.start();
+    @Override
+    public CloudSim getSimulation() {
+        return simulation;
+    }
 
-        final List<Cloudlet> finishedCloudlets = broker0.getCloudletFinishedList();
-        new CloudletsTableBuilder(finishedCloudlets)
-                .addColumn(5, new TextTableColumn("Host Startup", "Time"), this::getHostStartupTime)
-                .build();
+    @Override
+    public DatacenterBroker getBroker() {
+        return broker0;
     }
-    private void readTaskUsageTraceFile() {
-        final String fileName = "workload/google-traces/task_usage_predicted.csv";
-        GoogleTaskUsageTraceReader.getInstances(brokers, fileName);
-        
-      //System.out.printf("%d Cloudlets processed from the %s trace file.%s", processedCloudlets.size(), fileName, System.lineSeparator());
-        //System.out.println();
-        final Set<Cloudlet> processedCloudlets = process();
-        
+
+    /**
+     * {@inheritDoc}
+     * The results of the Cloudlets finished along the simulation are recorded into a new file,
+     * which is flushed when it finishes and deleted by {@link #close()}.
+     */
+    @Override
+    public void start() {
+        results = CloudletResultsSink.ofTempFile(getClass().getSimpleName(), broker0);
+        try {
+            simulation.start();
+        } finally {
+            results.close();
+        }
     }
-   
 
-	private double getHostStartupTime(final Cloudlet cloudlet) {
-        return cloudlet.getVm().getHost().getStartTime();
+    /**
+     * {@inheritDoc}
+     * The Cloudlet results file is deleted.
+     */
+    @Override
+    public void close() {
+        if(results != null) {
+            results.delete();
+        }
     }
 
+    @Override
+    public void printSimulationResults() {
+        System.out.printf("%d Cloudlets submitted from the %s trace file.%n%n", taskUsageFeeder.getSubmittedCloudlets(), taskUsageFileName);
+        CloudletResults.print(results.getFile(), CloudletResults.Group.VM, System.out);
+        System.out.printf("%nHosts startup time%n");
+        for (Datacenter datacenter : datacenters) {
+            for (Host host : datacenter.getHostList()) {
+                System.out.printf("\t%s: %.2f%n", host, host.getStartTime());
+            }
+        }
+    }
+    /**
+     * Streams the task usage trace, submitting a Cloudlet for each row to {@link #broker0}
+     * only when the simulation time approaches the row's start time.
+     */
+    private void readTaskUsageTraceFile() {
+        taskUsageFeeder = new TaskUsageCloudletFeeder(
+            simulation, broker0, TaskUsageTrace.open(taskUsageFileName), this::createCloudlet);
+    }
+   
+
     private void onHostAvailableListener(HostEventInfo info) {
         final Vm vm = createVm(info.getHost());
         broker0.submitVm(vm);
@@ -164,15 +210,19 @@ public class GoogleMachineEventsExample1 {
         broker0.submitCloudletList(list);
     }
 
+    /**
+     * Creates a Cloudlet that executes the CPU usage of a trace row,
+     * that is, its CPU rate along its measurement period.
+     * The Cloudlet is mapped to a VM by the broker.
+     */
+    private Cloudlet createCloudlet(final TaskUsageRow row) {
+        final long length = Math.max(1, (long)(row.getDuration() * row.getCpuRate() * HOST_MIPS));
+        //the memory usage is specific to each row, while the other settings are shared
+        return cloudletTemplate.create(length, 1)
+            .setUtilizationModelRam(new UtilizationModelDynamic(row.getMemoryUsage()));
+    }
+
     private Cloudlet createCloudlet(Vm vm) {
-        UtilizationModel utilization = new UtilizationModelFull();
-        return new CloudletSimple(CLOUDLET_LENGTH, vm.getNumberOfPes())
-            .setFileSize(1024)
-            .setOutputSize(1024)
-            .setUtilizationModel(utilization)
-            .setVm(vm);
-    }
-    private Set<Cloudlet> process() {
-		return null;
-	}
+        return cloudletTemplate.create(CLOUDLET_LENGTH, vm.getNumberOfPes()).setVm(vm);
+    }
 }
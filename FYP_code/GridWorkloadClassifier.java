@@ -0,0 +1,210 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import java.util.function.Supplier;
+
+/**
+ * Classifies VM workloads from Grid Workloads Archive traces into clusters,
+ * using a {@link MiniBatchKMeans} updated incrementally while the traces are read,
+ * so that VMs can be created with a {@link VmFlavor} right-sized for each cluster.
+ * This is the streaming counterpart of the {@code K_Means_Grid_Workload} notebook,
+ * which clusters the whole trace in memory.
+ *
+ * <p>Samples are clustered by CPU usage, memory usage and network throughput,
+ * the resources a flavor must provide. Since these values span several orders of magnitude,
+ * the logarithm of each one is clustered. Otherwise, the largest values would define the clusters alone.</p>
+ *
+ * <p>The {@link #main(String[])} method clusters the given trace files and prints the centroids
+ * and the flavor for each cluster.</p>
+ *
+ * @see GridWorkloadTrace
+ */
+public final class GridWorkloadClassifier {
+    public static final int DEFAULT_CLUSTERS = 4;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private static final int CPU = 0;
+    private static final int MEMORY = 1;
+    private static final int NETWORK = 2;
+    private static final int FEATURES = 3;
+
+    private final MiniBatchKMeans kmeans;
+    private final double[] sample = new double[FEATURES];
+    private final double[] centroid = new double[FEATURES];
+
+    public static void main(String[] args) {
+        if(args.length == 0){
+            System.out.println("Usage: GridWorkloadClassifier <trace.csv>...");
+            return;
+        }
+
+        final GridWorkloadClassifier classifier = new GridWorkloadClassifier(DEFAULT_CLUSTERS, DEFAULT_BATCH_SIZE, ScenarioType.DEFAULT_SEED);
+        for (String fileName : args) {
+            classifier.train(fileName);
+        }
+
+        System.out.printf("%d samples classified into %d clusters%n", classifier.kmeans.getSamples(), classifier.getClusters());
+        for (int i = 0; i < classifier.getClusters(); i++) {
+            System.out.printf(
+                "Cluster %d: %6d samples, CPU %10.2f MHz, memory %12.2f KB, network %10.2f KB/s -> %s%n",
+                i, classifier.getCount(i), classifier.getCpuUsage(i), classifier.getMemoryUsage(i),
+                classifier.getNetworkThroughput(i), classifier.getFlavor(i, 1000, 1.2, null));
+        }
+    }
+
+    /**
+     * Creates a classifier.
+     *
+     * @param clusters the number of workload clusters
+     * @param batchSize the number of samples buffered before updating the clusters
+     * @param seed the seed for initializing the clusters
+     */
+    public GridWorkloadClassifier(final int clusters, final int batchSize, final long seed) {
+        this.kmeans = new MiniBatchKMeans(clusters, FEATURES, batchSize, seed);
+    }
+
+    /**
+     * Reads a whole trace file, updating the clusters with every row.
+     * @param fileName the path of the trace file
+     * @return this classifier
+     */
+    public GridWorkloadClassifier train(final String fileName) {
+        try(GridWorkloadTrace trace = GridWorkloadTrace.open(fileName)) {
+            while (trace.next()) {
+                add(trace);
+            }
+        }
+
+        kmeans.flush();
+        return this;
+    }
+
+    /**
+     * Updates the clusters with the current row of a trace.
+     * @param trace the trace positioned at the row to add
+     * @return the cluster the row was assigned to or -1 if the clusters were not initialized yet
+     */
+    public int add(final GridWorkloadTrace trace) {
+        return kmeans.add(toSample(trace));
+    }
+
+    /**
+     * Classifies the current row of a trace without changing the clusters.
+     * @param trace the trace positioned at the row to classify
+     * @return the cluster of the row
+     */
+    public int classify(final GridWorkloadTrace trace) {
+        return kmeans.classify(toSample(trace));
+    }
+
+    private double[] toSample(final GridWorkloadTrace trace) {
+        sample[CPU] = Math.log1p(trace.getCpuUsage());
+        sample[MEMORY] = Math.log1p(trace.getMemoryUsage());
+        sample[NETWORK] = Math.log1p(trace.getNetworkReceivedThroughput() + trace.getNetworkTransmittedThroughput());
+        return sample;
+    }
+
+    private double centroidValue(final int cluster, final int feature) {
+        return Math.expm1(kmeans.getCentroid(cluster, centroid)[feature]);
+    }
+
+    public int getClusters() {
+        return kmeans.getClusters();
+    }
+
+    /**
+     * @param cluster the cluster index
+     * @return the number of samples assigned to the cluster
+     */
+    public long getCount(final int cluster) {
+        return kmeans.getCount(cluster);
+    }
+
+    /**
+     * @param cluster the cluster index
+     * @return the CPU usage at the cluster centroid (in MHz)
+     */
+    public double getCpuUsage(final int cluster) {
+        return centroidValue(cluster, CPU);
+    }
+
+    /**
+     * @param cluster the cluster index
+     * @return the memory usage at the cluster centroid (in KB)
+     */
+    public double getMemoryUsage(final int cluster) {
+        return centroidValue(cluster, MEMORY);
+    }
+
+    /**
+     * @param cluster the cluster index
+     * @return the network throughput (received plus transmitted) at the cluster centroid (in KB/s)
+     */
+    public double getNetworkThroughput(final int cluster) {
+        return centroidValue(cluster, NETWORK);
+    }
+
+    /**
+     * Gets a VM flavor sized for the workload at a cluster centroid.
+     * Storage is not clustered, so it's taken from {@link VmFlavor#DEFAULT}.
+     *
+     * @param cluster the cluster index
+     * @param mips the MIPS capacity of each PE, considered equivalent to the MHz in the trace
+     * @param headroom the factor (at least 1) the centroid usage is multiplied by, to leave room for usage peaks
+     * @param max the maximum capacities of the flavor, such as the Host capacities, or null for no limit
+     * @return the flavor for the cluster
+     */
+    public VmFlavor getFlavor(final int cluster, final long mips, final double headroom, final VmFlavor max) {
+        if(headroom < 1){
+            throw new IllegalArgumentException("Headroom must be at least 1: " + headroom);
+        }
+
+        final int pes = (int) Math.max(1, Math.ceil(getCpuUsage(cluster) * headroom / mips));
+        final long ram = (long) Math.max(1, Math.ceil(getMemoryUsage(cluster) * headroom / 1024));
+        final long bw = (long) Math.max(1, Math.ceil(getNetworkThroughput(cluster) * headroom * 8 / 1000));
+        final VmFlavor flavor = new VmFlavor(pes, mips, ram, bw, VmFlavor.DEFAULT.getSize());
+        return max == null ? flavor : flavor.limitTo(max);
+    }
+
+    /**
+     * Gets a supplier of VM flavors following the mix of workloads in the trace:
+     * the flavor of each cluster is supplied proportionally to the number of samples in it.
+     * The clusters are interleaved using a smooth weighted round-robin, which is deterministic
+     * and spreads the flavors of a cluster evenly instead of supplying them all in a row.
+     *
+     * @param mips the MIPS capacity of each PE
+     * @param headroom the factor (at least 1) the centroid usage is multiplied by
+     * @param max the maximum capacities of the flavors, or null for no limit
+     * @return the flavor supplier, which must be used by a single simulation
+     * @see #getFlavor(int, long, double, VmFlavor)
+     */
+    public Supplier<VmFlavor> flavorSupplier(final long mips, final double headroom, final VmFlavor max) {
+        final int clusters = getClusters();
+        final VmFlavor[] flavors = new VmFlavor[clusters];
+        final long[] weights = new long[clusters];
+        long total = 0;
+        for (int i = 0; i < clusters; i++) {
+            flavors[i] = getFlavor(i, mips, headroom, max);
+            weights[i] = getCount(i);
+            total += weights[i];
+        }
+
+        if(total == 0){
+            throw new IllegalStateException("No samples were classified");
+        }
+
+        final long totalWeight = total;
+        final long[] current = new long[clusters];
+        return () -> {
+            int selected = 0;
+            for (int i = 0; i < clusters; i++) {
+                current[i] += weights[i];
+                if(current[i] > current[selected]){
+                    selected = i;
+                }
+            }
+
+            current[selected] -= totalWeight;
+            return flavors[selected];
+        };
+    }
+}
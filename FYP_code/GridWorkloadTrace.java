@@ -0,0 +1,220 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Reads a VM performance trace from the Grid Workloads Archive (GWA-T-12 Bitbrains),
+ * such as the {@code 1.csv} file clustered by the {@code K_Means_Grid_Workload} notebook,
+ * one row at a time.
+ *
+ * <p>Each line has the timestamp, CPU cores, CPU capacity provisioned (MHz), CPU usage (MHz),
+ * CPU usage (%), memory capacity provisioned (KB), memory usage (KB), disk read and write throughput (KB/s)
+ * and network received and transmitted throughput (KB/s), separated by {@code ;\t}.
+ * A header line and quotes around the values are ignored.
+ * The values of the current row are kept in a reused array, so reading doesn't allocate objects
+ * besides the line itself.</p>
+ *
+ * @see GridWorkloadClassifier
+ */
+public final class GridWorkloadTrace implements Closeable {
+    private static final int TIMESTAMP = 0;
+    private static final int CPU_CORES = 1;
+    private static final int CPU_CAPACITY = 2;
+    private static final int CPU_USAGE = 3;
+    private static final int CPU_USAGE_PERCENT = 4;
+    private static final int MEMORY_CAPACITY = 5;
+    private static final int MEMORY_USAGE = 6;
+    private static final int DISK_READ = 7;
+    private static final int DISK_WRITE = 8;
+    private static final int NETWORK_RECEIVED = 9;
+    private static final int NETWORK_TRANSMITTED = 10;
+    private static final int COLUMNS = 11;
+
+    private final String fileName;
+    private final BufferedReader reader;
+    private final double[] values = new double[COLUMNS];
+    private long lineNumber;
+
+    /**
+     * Opens a trace file.
+     * @param fileName the path of the trace file
+     * @return the opened trace
+     */
+    public static GridWorkloadTrace open(final String fileName) {
+        try {
+            return new GridWorkloadTrace(fileName, Files.newBufferedReader(Paths.get(fileName), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private GridWorkloadTrace(final String fileName, final BufferedReader reader) {
+        this.fileName = fileName;
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next row, whose values are then available through the getters.
+     * @return true if a row was read, false if the end of the trace was reached
+     */
+    public boolean next() {
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                if(line.trim().isEmpty()){
+                    continue;
+                }
+
+                if(parse(line)){
+                    return true;
+                }
+
+                if(lineNumber > 1){
+                    throw new IllegalStateException(String.format("Invalid line %d in %s: %s", lineNumber, fileName, line));
+                }
+            }
+
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses a line into {@link #values}.
+     * @return true if the line has all the columns, false if it's not a data line (such as the header)
+     */
+    private boolean parse(final String line) {
+        int column = 0;
+        int start = 0;
+        while (start <= line.length() && column < COLUMNS) {
+            int end = line.indexOf(';', start);
+            if(end < 0) {
+                end = line.length();
+            }
+
+            final double value = parseValue(line, start, end);
+            if(Double.isNaN(value)){
+                return false;
+            }
+
+            values[column++] = value;
+            start = end + 1;
+        }
+
+        return column == COLUMNS;
+    }
+
+    /**
+     * Parses a number between two positions of a line, ignoring blanks and quotes around it.
+     * @return the parsed number or NaN if there is no valid number
+     */
+    private static double parseValue(final String line, int start, int end) {
+        while (start < end && isIgnored(line.charAt(start))) {
+            start++;
+        }
+
+        while (end > start && isIgnored(line.charAt(end - 1))) {
+            end--;
+        }
+
+        try {
+            return start == end ? Double.NaN : Double.parseDouble(line.substring(start, end));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean isIgnored(final char c) {
+        return Character.isWhitespace(c) || c == '"' || c == '\'';
+    }
+
+    /**
+     * @return the timestamp of the row (in seconds)
+     */
+    public double getTimestamp() {
+        return values[TIMESTAMP];
+    }
+
+    public int getCpuCores() {
+        return (int) values[CPU_CORES];
+    }
+
+    /**
+     * @return the CPU capacity provisioned (in MHz)
+     */
+    public double getCpuCapacity() {
+        return values[CPU_CAPACITY];
+    }
+
+    /**
+     * @return the CPU usage (in MHz)
+     */
+    public double getCpuUsage() {
+        return values[CPU_USAGE];
+    }
+
+    /**
+     * @return the CPU usage percentage (from 0 to 100)
+     */
+    public double getCpuUsagePercent() {
+        return values[CPU_USAGE_PERCENT];
+    }
+
+    /**
+     * @return the memory capacity provisioned (in KB)
+     */
+    public double getMemoryCapacity() {
+        return values[MEMORY_CAPACITY];
+    }
+
+    /**
+     * @return the memory usage (in KB)
+     */
+    public double getMemoryUsage() {
+        return values[MEMORY_USAGE];
+    }
+
+    /**
+     * @return the disk read throughput (in KB/s)
+     */
+    public double getDiskReadThroughput() {
+        return values[DISK_READ];
+    }
+
+    /**
+     * @return the disk write throughput (in KB/s)
+     */
+    public double getDiskWriteThroughput() {
+        return values[DISK_WRITE];
+    }
+
+    /**
+     * @return the network received throughput (in KB/s)
+     */
+    public double getNetworkReceivedThroughput() {
+        return values[NETWORK_RECEIVED];
+    }
+
+    /**
+     * @return the network transmitted throughput (in KB/s)
+     */
+    public double getNetworkTransmittedThroughput() {
+        return values[NETWORK_TRANSMITTED];
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.cloudsimplus.examples.autoscaling;
+
+/**
+ * The overload policy of the horizontal scaling in the {@link LoadBalancerByHorizontalVmScalingExample}
+ * and the time VMs created on demand take to boot.
+ * VMs are scaled either independently, each one requesting a new VM when it's overloaded,
+ * or {@link #isCoordinated() coordinated} as a group by a {@link ScalingCoordinator}.
+ * Predictive policies forecast the utilization by its trend or {@link #withForecaster(SvrCpuPredictor) by an SVR model}.
+ *
+ * @see PredictiveOverloadPredicate
+ * @see ScalingCoordinator
+ * @see ScaleOutPolicyComparison
+ */
+public final class HorizontalScalingParameters {
+    /**
+     * The reactive policy the example has been using: a VM is overloaded when its
+     * current CPU utilization is above 70%, and new VMs boot instantly.
+     */
+    public static final HorizontalScalingParameters REACTIVE = new HorizontalScalingParameters(0.7, false, 0);
+
+    private final double overloadThreshold;
+    private final boolean predictive;
+    private final double vmBootDelay;
+    private final boolean coordinated;
+    private final double targetUtilization;
+    private final double cooldown;
+    private final SvrCpuPredictor forecaster;
+
+    /**
+     * Creates the parameters of a horizontal scaling policy where each VM is scaled independently.
+     *
+     * @param overloadThreshold the CPU utilization (from 0 to 1) above which a VM is overloaded
+     * @param predictive true to compare the threshold with the utilization forecast by a {@link PredictiveOverloadPredicate},
+     *                   false to compare it with the current utilization
+     * @param vmBootDelay the time (in seconds) VMs created on demand take to be available
+     */
+    public HorizontalScalingParameters(final double overloadThreshold, final boolean predictive, final double vmBootDelay) {
+        this(overloadThreshold, predictive, vmBootDelay, false, overloadThreshold, 0, null);
+    }
+
+    /**
+     * Creates the parameters of a horizontal scaling policy where VMs are scaled as a group by a {@link ScalingCoordinator}.
+     *
+     * @param overloadThreshold the aggregate CPU utilization (from 0 to 1) above which the group is overloaded
+     * @param predictive true to aggregate the utilization forecast by a {@link PredictiveOverloadPredicate},
+     *                   false to aggregate the current utilization
+     * @param vmBootDelay the time (in seconds) VMs created on demand take to be available
+     * @param targetUtilization the aggregate CPU utilization (from 0 to 1) a scale-out aims at,
+     *                          not higher than the overload threshold
+     * @param cooldown the time (in seconds) after a scale-out during which no VM is requested
+     */
+    public HorizontalScalingParameters(
+        final double overloadThreshold, final boolean predictive, final double vmBootDelay,
+        final double targetUtilization, final double cooldown)
+    {
+        this(overloadThreshold, predictive, vmBootDelay, true, targetUtilization, cooldown, null);
+    }
+
+    private HorizontalScalingParameters(
+        final double overloadThreshold, final boolean predictive, final double vmBootDelay,
+        final boolean coordinated, final double targetUtilization, final double cooldown,
+        final SvrCpuPredictor forecaster)
+    {
+        if(overloadThreshold <= 0 || overloadThreshold > 1){
+            throw new IllegalArgumentException("Overload threshold must be in the interval (0, 1]: " + overloadThreshold);
+        }
+
+        if(vmBootDelay < 0){
+            throw new IllegalArgumentException("VM boot delay must not be negative: " + vmBootDelay);
+        }
+
+        if(targetUtilization <= 0 || targetUtilization > overloadThreshold || cooldown < 0){
+            throw new IllegalArgumentException(
+                "Target utilization must be in the interval (0, overload threshold] and cooldown must not be negative");
+        }
+
+        this.overloadThreshold = overloadThreshold;
+        this.predictive = predictive;
+        this.vmBootDelay = vmBootDelay;
+        this.coordinated = coordinated;
+        this.targetUtilization = targetUtilization;
+        this.cooldown = cooldown;
+        this.forecaster = forecaster;
+    }
+
+    /**
+     * Creates predictive parameters equal to these ones, but where the utilization is forecast
+     * by an autoregressive SVR model instead of its trend.
+     * The model horizon should cover the VM boot delay and the scheduling interval.
+     *
+     * @param forecaster the model to forecast the utilization with
+     * @return the new parameters
+     * @see PredictiveOverloadPredicate#PredictiveOverloadPredicate(double, SvrCpuPredictor, double)
+     */
+    public HorizontalScalingParameters withForecaster(final SvrCpuPredictor forecaster) {
+        if(forecaster.getLags() == 0){
+            throw new IllegalArgumentException("The SVR model must be autoregressive");
+        }
+
+        return new HorizontalScalingParameters(
+            overloadThreshold, true, vmBootDelay, coordinated, targetUtilization, cooldown, forecaster);
+    }
+
+    public double getOverloadThreshold() {
+        return overloadThreshold;
+    }
+
+    public boolean isPredictive() {
+        return predictive;
+    }
+
+    public double getVmBootDelay() {
+        return vmBootDelay;
+    }
+
+    /**
+     * @return the SVR model predictive policies forecast the utilization with, or null to forecast it by its trend
+     */
+    public SvrCpuPredictor getForecaster() {
+        return forecaster;
+    }
+
+    /**
+     * @return true if VMs are scaled as a group by a {@link ScalingCoordinator}, false if each VM is scaled independently
+     */
+    public boolean isCoordinated() {
+        return coordinated;
+    }
+
+    /**
+     * @return the aggregate CPU utilization a coordinated scale-out aims at
+     */
+    public double getTargetUtilization() {
+        return targetUtilization;
+    }
+
+    /**
+     * @return the time (in seconds) after a coordinated scale-out during which no VM is requested
+     */
+    public double getCooldown() {
+        return cooldown;
+    }
+
+    @Override
+    public String toString() {
+        final String policy = String.format(
+            "%s threshold %.2f boot delay %.1f", predictive ? (forecaster == null ? "predictive" : "predictive SVR") : "reactive",
+            overloadThreshold, vmBootDelay);
+        return coordinated ?
+            String.format("%s coordinated target %.2f cooldown %.1f", policy, targetUtilization, cooldown) :
+            policy;
+    }
+}
@@ -0,0 +1,311 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletExecution;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelAbstract;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.listeners.EventInfo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Simulates the physical memory of Hosts whose RAM is overcommitted, which CloudSim Plus doesn't model:
+ * Hosts are created with their {@link MemoryOvercommitParameters#getAllocatableRam() allocatable RAM},
+ * while this manager keeps track of how much of the RAM allocated to VMs is actually resident in the physical RAM.
+ *
+ * <p>At every clock tick, for each VM:</p>
+ * <ul>
+ *     <li>the RAM the VM uses is the sum of the RAM its running Cloudlets request,
+ *     which may be above the RAM allocated to the VM;</li>
+ *     <li>if ballooning is enabled, a balloon inflates inside the VM to reclaim the RAM the VM is not using,
+ *     besides a {@link MemoryOvercommitParameters#getBalloonReserve() reserve}.
+ *     It inflates at the {@link MemoryOvercommitParameters#getBalloonRate() balloon rate}, but deflates at once
+ *     when the VM needs its RAM back. Without ballooning, all the RAM allocated to a VM is backed by the Host;</li>
+ *     <li>when the RAM backed for all VMs of a Host exceeds its physical RAM, the excess is swapped out,
+ *     taking pages from each VM in proportion to the RAM backed for it, regardless of they being used or not.</li>
+ * </ul>
+ *
+ * <p>The fraction of the RAM a VM uses that is not resident, either swapped out by the Host or above the RAM allocated
+ * to the VM, makes its Cloudlets run slower: such a fraction of their memory accesses takes
+ * {@link MemoryOvercommitParameters#getSwapPenalty() swap penalty} times longer.
+ * The slowdown is applied by {@link #applySwapPenalty(Cloudlet) wrapping} the CPU utilization model of Cloudlets.</p>
+ *
+ * <p>The manager also measures the Host packing density (the RAM allocated to VMs relative to the physical RAM),
+ * the RAM swapped out and reclaimed by balloons, and the Cloudlets slowdown.</p>
+ */
+public final class HostMemoryManager {
+    private final Simulation simulation;
+    private final List<Host> hosts;
+    private final MemoryOvercommitParameters parameters;
+
+    /**
+     * Per-VM state, indexed by VM id.
+     */
+    private double[] usedRam = new double[8];
+    private double[] balloons = new double[8];
+    private double[] progressFactors = new double[8];
+    private double[] runningTime = new double[8];
+    private double[] progressTime = new double[8];
+
+    private double lastTime;
+    private double elapsedTime;
+    private double densityTime;
+    private double maxDensity;
+    private double swappedMbSeconds;
+    private double maxSwapped;
+    private double reclaimedMbSeconds;
+    private double maxReclaimed;
+
+    /**
+     * Creates a manager and registers it to update the memory state of the Hosts at every clock tick.
+     *
+     * @param simulation the simulation the Hosts belong to
+     * @param hosts the Hosts to manage, which must be created with the
+     *              {@link MemoryOvercommitParameters#getAllocatableRam() allocatable RAM} as their RAM capacity
+     * @param parameters the memory management parameters
+     */
+    public HostMemoryManager(final Simulation simulation, final List<Host> hosts, final MemoryOvercommitParameters parameters) {
+        this.simulation = simulation;
+        this.hosts = hosts;
+        this.parameters = parameters;
+        Arrays.fill(progressFactors, 1);
+        simulation.addOnClockTickListener(this::onClockTick);
+    }
+
+    private void onClockTick(final EventInfo info) {
+        final double time = info.getTime();
+        final double elapsed = time - lastTime;
+        lastTime = time;
+        if(elapsed > 0) {
+            elapsedTime += elapsed;
+        }
+
+        for (Host host : hosts) {
+            updateHost(host, elapsed);
+        }
+    }
+
+    private void updateHost(final Host host, final double elapsed) {
+        final double physicalRam = parameters.getPhysicalRam();
+        double allocated = 0;
+        double backed = 0;
+        double reclaimed = 0;
+        for (Vm vm : host.getVmList()) {
+            final int id = index(vm);
+            final double capacity = vm.getRam().getCapacity();
+            allocated += capacity;
+            usedRam[id] = getUsedRam(vm);
+            updateBalloon(id, capacity, usedRam[id], elapsed);
+            backed += capacity - balloons[id];
+            reclaimed += balloons[id];
+        }
+
+        final double swapped = Math.max(0, backed - physicalRam);
+        for (Vm vm : host.getVmList()) {
+            final int id = index(vm);
+            final double capacity = vm.getRam().getCapacity();
+            if(elapsed > 0 && !vm.getCloudletScheduler().getCloudletExecList().isEmpty()) {
+                runningTime[id] += elapsed;
+                progressTime[id] += progressFactors[id] * elapsed;
+            }
+
+            final double vmBacked = capacity - balloons[id];
+            final double vmSwapped = backed == 0 ? 0 : swapped * vmBacked / backed;
+            progressFactors[id] = progressFactor(usedRam[id], capacity, vmBacked, vmSwapped);
+        }
+
+        if(elapsed > 0) {
+            densityTime += allocated / physicalRam * elapsed;
+            swappedMbSeconds += swapped * elapsed;
+            reclaimedMbSeconds += reclaimed * elapsed;
+        }
+
+        maxDensity = Math.max(maxDensity, allocated / physicalRam);
+        maxSwapped = Math.max(maxSwapped, swapped);
+        maxReclaimed = Math.max(maxReclaimed, reclaimed);
+    }
+
+    /**
+     * Inflates the balloon of a VM towards its idle RAM, or deflates it if the VM needs its RAM back.
+     */
+    private void updateBalloon(final int id, final double capacity, final double used, final double elapsed) {
+        if(!parameters.isBallooning()){
+            return;
+        }
+
+        final double target = Math.max(0, capacity - Math.min(capacity, used * (1 + parameters.getBalloonReserve())));
+        balloons[id] = target < balloons[id] ?
+            target :
+            Math.min(target, balloons[id] + parameters.getBalloonRate() * Math.max(0, elapsed));
+    }
+
+    /**
+     * Gets the fraction of the speed a VM's Cloudlets run at, given how much of the RAM they use is not resident.
+     *
+     * @param used the RAM the VM uses
+     * @param capacity the RAM allocated to the VM
+     * @param backed the RAM backed by the Host for the VM
+     * @param swapped the RAM of the VM swapped out by the Host
+     * @return the progress factor, from 0 (exclusive) to 1
+     */
+    private double progressFactor(final double used, final double capacity, final double backed, final double swapped) {
+        if(used <= 0){
+            return 1;
+        }
+
+        //Host swapping picks pages regardless of they being used, and RAM beyond the VM capacity is never resident
+        final double swappedUsed = backed == 0 ? 0 : Math.min(used, capacity) * swapped / backed;
+        final double missing = Math.min(1, (swappedUsed + Math.max(0, used - capacity)) / used);
+        return 1 / (1 - missing + missing * parameters.getSwapPenalty());
+    }
+
+    /**
+     * Gets the RAM the running Cloudlets of a VM request.
+     * @param vm the VM to get the used RAM of
+     * @return the used RAM (in MB)
+     */
+    private static double getUsedRam(final Vm vm) {
+        final double ram = vm.getRam().getCapacity();
+        double used = 0;
+        for (CloudletExecution execution : vm.getCloudletScheduler().getCloudletExecList()) {
+            final UtilizationModel model = execution.getCloudlet().getUtilizationModelRam();
+            final double utilization = model.getUtilization();
+            used += model.getUnit() == UtilizationModel.Unit.ABSOLUTE ? utilization : utilization * ram;
+        }
+
+        return used;
+    }
+
+    private int index(final Vm vm) {
+        final int id = (int) vm.getId();
+        if(id >= balloons.length){
+            final int capacity = Math.max(id + 1, balloons.length * 2);
+            final int previous = progressFactors.length;
+            usedRam = Arrays.copyOf(usedRam, capacity);
+            balloons = Arrays.copyOf(balloons, capacity);
+            progressFactors = Arrays.copyOf(progressFactors, capacity);
+            Arrays.fill(progressFactors, previous, capacity, 1);
+            runningTime = Arrays.copyOf(runningTime, capacity);
+            progressTime = Arrays.copyOf(progressTime, capacity);
+        }
+
+        return id;
+    }
+
+    /**
+     * Makes a Cloudlet run slower while the RAM its VM uses is not resident,
+     * by wrapping its CPU utilization model.
+     * Since the wrapper depends on the Cloudlet VM, a wrapper is created for each Cloudlet.
+     *
+     * @param cloudlet the Cloudlet to apply the penalty to
+     * @return the given Cloudlet
+     */
+    public Cloudlet applySwapPenalty(final Cloudlet cloudlet) {
+        return cloudlet.setUtilizationModelCpu(new SwapPenaltyModel(cloudlet, cloudlet.getUtilizationModelCpu()));
+    }
+
+    /**
+     * Gets the fraction of the speed the Cloudlets of a VM currently run at.
+     * @param vm the VM to get the progress factor of
+     * @return the progress factor, from 0 (exclusive) to 1
+     */
+    public double getProgressFactor(final Vm vm) {
+        final long id = vm.getId();
+        return id < 0 || id >= progressFactors.length ? 1 : progressFactors[(int) id];
+    }
+
+    /**
+     * Gets how many times longer the Cloudlets of a VM took to run, due to RAM not being resident.
+     * @param vm the VM to get the slowdown of
+     * @return the slowdown, where 1 means no slowdown
+     */
+    public double getSlowdown(final Vm vm) {
+        final long id = vm.getId();
+        return id < 0 || id >= progressTime.length || progressTime[(int) id] == 0 ? 1 : runningTime[(int) id] / progressTime[(int) id];
+    }
+
+    /**
+     * @return the mean RAM allocated to the VMs of a Host relative to its physical RAM,
+     *         along the time and among the Hosts
+     */
+    public double getMeanDensity() {
+        return elapsedTime == 0 ? 0 : densityTime / elapsedTime / hosts.size();
+    }
+
+    /**
+     * @return the largest RAM allocated to the VMs of a Host relative to its physical RAM
+     */
+    public double getMaxDensity() {
+        return maxDensity;
+    }
+
+    /**
+     * @return the RAM (in MB) swapped out by Hosts multiplied by the time it was swapped out
+     */
+    public double getSwappedMbSeconds() {
+        return swappedMbSeconds;
+    }
+
+    /**
+     * @return the largest RAM (in MB) swapped out by a Host at once
+     */
+    public double getMaxSwapped() {
+        return maxSwapped;
+    }
+
+    /**
+     * @return the RAM (in MB) reclaimed by balloons multiplied by the time it was reclaimed
+     */
+    public double getReclaimedMbSeconds() {
+        return reclaimedMbSeconds;
+    }
+
+    /**
+     * @return the largest RAM (in MB) reclaimed by the balloons of the VMs of a Host at once
+     */
+    public double getMaxReclaimed() {
+        return maxReclaimed;
+    }
+
+    public MemoryOvercommitParameters getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Prints the packing density, swapping and ballooning of the Hosts and the slowdown of the given VMs.
+     * @param vms the VMs to print the slowdown of
+     */
+    public void printReport(final List<Vm> vms) {
+        System.out.printf("%nHOST MEMORY (%s)%n", parameters);
+        System.out.printf(
+            "Density (allocated/physical RAM): mean %.2f max %.2f | Swapped: max %.0f MB, %.0f MB*s | Reclaimed: max %.0f MB, %.0f MB*s%n",
+            getMeanDensity(), maxDensity, maxSwapped, swappedMbSeconds, maxReclaimed, reclaimedMbSeconds);
+        for (Vm vm : vms) {
+            System.out.printf("Vm %d: slowdown %.3f%n", vm.getId(), getSlowdown(vm));
+        }
+    }
+
+    /**
+     * A CPU utilization model that scales the one of a Cloudlet by the progress factor of the Cloudlet VM.
+     */
+    private final class SwapPenaltyModel extends UtilizationModelAbstract {
+        private final Cloudlet cloudlet;
+        private final UtilizationModel model;
+
+        SwapPenaltyModel(final Cloudlet cloudlet, final UtilizationModel model) {
+            super(model.getUnit());
+            this.cloudlet = cloudlet;
+            this.model = model;
+            setSimulation(simulation);
+        }
+
+        @Override
+        protected double getUtilizationInternal(final double time) {
+            return model.getUtilization(time) * getProgressFactor(cloudlet.getVm());
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of items identified by non-negative int indexes, each one with a double key,
+ * which keeps the heap position of every item. This way, besides getting the minimum in O(1),
+ * the key of any item can be changed and any item can be removed in O(log n),
+ * without searching the heap.
+ *
+ * <p>Items with equal keys are ordered by index, so the order is deterministic.
+ * Everything is stored in primitive arrays, which grow as larger indexes are added.</p>
+ */
+public final class IndexedMinHeap {
+    /**
+     * The items in heap order.
+     */
+    private int[] heap;
+
+    /**
+     * The position of each item inside the {@link #heap}, or -1 if the item is not in the heap.
+     */
+    private int[] positions;
+    private double[] keys;
+    private int size;
+
+    /**
+     * Creates a heap.
+     * @param initialCapacity the number of item indexes to allocate space for
+     */
+    public IndexedMinHeap(final int initialCapacity) {
+        final int capacity = Math.max(1, initialCapacity);
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Adds an item or, if it's already in the heap, changes its key.
+     *
+     * @param item the item index
+     * @param key the item key
+     */
+    public void put(final int item, final double key) {
+        if(item < 0){
+            throw new IllegalArgumentException("Item index must not be negative: " + item);
+        }
+
+        ensureCapacity(item + 1);
+        if(contains(item)){
+            update(item, key);
+            return;
+        }
+
+        keys[item] = key;
+        heap[size] = item;
+        positions[item] = size;
+        siftUp(size++);
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if(capacity <= positions.length){
+            return;
+        }
+
+        final int newCapacity = Math.max(capacity, positions.length * 2);
+        heap = Arrays.copyOf(heap, newCapacity);
+        keys = Arrays.copyOf(keys, newCapacity);
+        final int oldCapacity = positions.length;
+        positions = Arrays.copyOf(positions, newCapacity);
+        Arrays.fill(positions, oldCapacity, newCapacity, -1);
+    }
+
+    /**
+     * Changes the key of an item in the heap.
+     *
+     * @param item the item index
+     * @param key the new key
+     * @throws NoSuchElementException if the item is not in the heap
+     */
+    public void update(final int item, final double key) {
+        final int position = position(item);
+        final double oldKey = keys[item];
+        keys[item] = key;
+        if(key < oldKey){
+            siftUp(position);
+        } else {
+            siftDown(position);
+        }
+    }
+
+    /**
+     * Removes an item from the heap.
+     *
+     * @param item the item index
+     * @return true if the item was removed, false if it was not in the heap
+     */
+    public boolean remove(final int item) {
+        if(!contains(item)){
+            return false;
+        }
+
+        final int position = positions[item];
+        positions[item] = -1;
+        final int last = heap[--size];
+        if(position == size){
+            return true;
+        }
+
+        heap[position] = last;
+        positions[last] = position;
+        siftDown(position);
+        siftUp(positions[last]);
+        return true;
+    }
+
+    /**
+     * @return the index of the item with the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int peek() {
+        if(size == 0){
+            throw new NoSuchElementException("The heap is empty");
+        }
+
+        return heap[0];
+    }
+
+    /**
+     * @param item the item index
+     * @return true if the item is in the heap
+     */
+    public boolean contains(final int item) {
+        return item >= 0 && item < positions.length && positions[item] >= 0;
+    }
+
+    /**
+     * @param item the item index
+     * @return the key of the item
+     * @throws NoSuchElementException if the item is not in the heap
+     */
+    public double getKey(final int item) {
+        position(item);
+        return keys[item];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int position(final int item) {
+        if(!contains(item)){
+            throw new NoSuchElementException("Item not in the heap: " + item);
+        }
+
+        return positions[item];
+    }
+
+    private boolean less(final int a, final int b) {
+        return keys[a] < keys[b] || keys[a] == keys[b] && a < b;
+    }
+
+    private void siftUp(int position) {
+        final int item = heap[position];
+        while (position > 0) {
+            final int parent = (position - 1) >>> 1;
+            if(!less(item, heap[parent])){
+                break;
+            }
+
+            move(heap[parent], position);
+            position = parent;
+        }
+
+        move(item, position);
+    }
+
+    private void siftDown(int position) {
+        final int item = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if(child >= size){
+                break;
+            }
+
+            if(child + 1 < size && less(heap[child + 1], heap[child])){
+                child++;
+            }
+
+            if(!less(heap[child], item)){
+                break;
+            }
+
+            move(heap[child], position);
+            position = child;
+        }
+
+        move(item, position);
+    }
+
+    private void move(final int item, final int position) {
+        heap[position] = item;
+        positions[item] = position;
+    }
+}
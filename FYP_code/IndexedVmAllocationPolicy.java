@@ -0,0 +1,340 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicyAbstract;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.autoscaling.VerticalVmScaling;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * A VM allocation policy that keeps Hosts in an index of their free capacity,
+ * so that a Host for a VM is found without scanning the whole Host list,
+ * as the built-in policies do for each VM placement.
+ *
+ * <p>Hosts are identified by their position in the Host list. The index depends on the {@link Mode}:</p>
+ * <ul>
+ *     <li>{@link Mode#FIRST_FIT} and {@link Mode#NEXT_FIT} use a segment tree holding the maximum free PEs and RAM
+ *     of each range of Hosts. A search descends only into ranges that may have a Host with enough PEs and RAM.</li>
+ *     <li>{@link Mode#BEST_FIT} and {@link Mode#WORST_FIT} use a sorted set of Hosts ordered by whether they are
+ *     {@link Host#isActive() active} and then by free PEs. A search starts at the active Hosts
+ *     with just enough (best fit) or the most (worst fit) free PEs, and goes to the inactive Hosts
+ *     only if no active one is suitable.</li>
+ * </ul>
+ *
+ * <p>The indexes are just used to skip Hosts: every candidate is still checked by
+ * {@link Host#isSuitableForVm(Vm)} (which also considers bandwidth and storage) and ties are broken
+ * by the position in the Host list. That way, the selected Host is the same
+ * the linear scan of the equivalent built-in policy selects.
+ * Searches usually take O(log H) for H Hosts, degrading to a scan only when many Hosts
+ * have enough PEs and RAM but are not suitable for other reasons.</p>
+ *
+ * <p>The free capacity and the active state of a Host are updated in O(log H) when a VM is placed into
+ * or removed from it, or vertically scaled. The indexes are rebuilt if Hosts are added to the Datacenter.
+ * Any other change to the free capacity or the active state of a Host must be reported by {@link #refresh(Host)},
+ * otherwise the Host may be skipped or selected out of order.
+ * That is the case of resources reserved by {@link Host#addMigratingInVm(Vm)} for an incoming migration,
+ * which {@link PreCopyDatacenter} reports.</p>
+ *
+ * <p>{@link IndexedVmAllocationPolicyCheck} compares the placements of each mode
+ * with the ones of the equivalent linear scan on random workloads.</p>
+ */
+public final class IndexedVmAllocationPolicy extends VmAllocationPolicyAbstract {
+    /**
+     * How a Host is selected among the suitable ones.
+     */
+    public enum Mode {
+        /**
+         * The first suitable Host in the Host list.
+         */
+        FIRST_FIT,
+
+        /**
+         * The first suitable Host in the Host list, starting from the Host last selected and wrapping around.
+         * This is how {@link org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicyFirstFit} selects Hosts.
+         */
+        NEXT_FIT,
+
+        /**
+         * The suitable Host with the fewest free PEs, preferring active Hosts
+         * and breaking ties by the position in the Host list.
+         * This is how {@link org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicyBestFit} selects Hosts,
+         * which is the minimum of the suitable Hosts ordered by {@link Host#isActive()} (reversed)
+         * and then by {@link Host#getFreePesNumber()}.
+         */
+        BEST_FIT,
+
+        /**
+         * The suitable Host with the most free PEs, preferring active Hosts
+         * and breaking ties by the position in the Host list.
+         * This is how {@link org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple} selects Hosts,
+         * which is the maximum of the suitable Hosts ordered by {@link Host#isActive()}
+         * and then by {@link Host#getFreePesNumber()}.
+         */
+        WORST_FIT
+    }
+
+    private final Mode mode;
+    private List<Host> hosts;
+    private final Map<Host, Integer> positions = new HashMap<>();
+    private long[] freePes = new long[0];
+    private long[] freeRam = new long[0];
+    private boolean[] active = new boolean[0];
+
+    /**
+     * Segment tree with the maximum free PEs and RAM of each range of Hosts,
+     * where the node i has children 2i and 2i+1 and the leaves start at {@link #leaves}.
+     */
+    private long[] maxFreePes = new long[0];
+    private long[] maxFreeRam = new long[0];
+    private int leaves;
+
+    /**
+     * Host positions ordered by active state (inactive first), free PEs and then by position
+     * (reversed for {@link Mode#WORST_FIT}, so that descending iteration gives the most free PEs
+     * and the lowest position first).
+     */
+    private TreeSet<Integer> sortedHosts;
+
+    /**
+     * A position that isn't a Host, used to search {@link #sortedHosts} by an active state and a number of free PEs,
+     * which are taken from {@link #probeActive} and {@link #probeFreePes}.
+     * It's ordered before the Hosts with the same active state and free PEs.
+     */
+    private static final int PROBE = -1;
+    private boolean probeActive;
+    private long probeFreePes;
+    private int lastHost;
+
+    /**
+     * Creates a policy.
+     * @param mode how a Host is selected among the suitable ones
+     */
+    public IndexedVmAllocationPolicy(final Mode mode) {
+        super();
+        this.mode = mode;
+    }
+
+    @Override
+    protected Optional<Host> defaultFindHostForVm(final Vm vm) {
+        ensureIndexed();
+        if(hosts.isEmpty()){
+            return Optional.empty();
+        }
+
+        final int position;
+        switch (mode) {
+            case FIRST_FIT:
+                position = findFirst(vm, 0, hosts.size());
+            break;
+            case NEXT_FIT:
+                int found = findFirst(vm, lastHost, hosts.size());
+                if(found < 0){
+                    found = findFirst(vm, 0, lastHost);
+                }
+                position = found;
+                if(found >= 0) {
+                    lastHost = found;
+                }
+            break;
+            default:
+                position = findSorted(vm);
+        }
+
+        return position < 0 ? Optional.empty() : Optional.of(hosts.get(position));
+    }
+
+    @Override
+    public boolean allocateHostForVm(final Vm vm, final Host host) {
+        final boolean allocated = super.allocateHostForVm(vm, host);
+        refresh(host);
+        return allocated;
+    }
+
+    @Override
+    public void deallocateHostForVm(final Vm vm) {
+        final Host host = vm.getHost();
+        super.deallocateHostForVm(vm);
+        refresh(host);
+    }
+
+    @Override
+    public boolean scaleVmVertically(final VerticalVmScaling scaling) {
+        final boolean scaled = super.scaleVmVertically(scaling);
+        refresh(scaling.getVm().getHost());
+        return scaled;
+    }
+
+    /**
+     * Builds the indexes the first time they are used or after Hosts are added.
+     */
+    private void ensureIndexed() {
+        final List<Host> hostList = getHostList();
+        if(hostList == hosts && hostList.size() == positions.size()){
+            return;
+        }
+
+        hosts = hostList;
+        final int size = hosts.size();
+        positions.clear();
+        freePes = new long[size];
+        freeRam = new long[size];
+        active = new boolean[size];
+        leaves = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        maxFreePes = new long[2 * leaves];
+        maxFreeRam = new long[2 * leaves];
+        sortedHosts = mode == Mode.BEST_FIT || mode == Mode.WORST_FIT ? new TreeSet<>(this::compareHosts) : null;
+        lastHost = Math.min(lastHost, Math.max(0, size - 1));
+
+        for (int i = 0; i < size; i++) {
+            final Host host = hosts.get(i);
+            positions.put(host, i);
+            freePes[i] = host.getFreePesNumber();
+            freeRam[i] = host.getRam().getAvailableResource();
+            active[i] = host.isActive();
+            maxFreePes[leaves + i] = freePes[i];
+            maxFreeRam[leaves + i] = freeRam[i];
+            if(sortedHosts != null) {
+                sortedHosts.add(i);
+            }
+        }
+
+        for (int node = leaves - 1; node > 0; node--) {
+            pullUp(node);
+        }
+    }
+
+    private int compareHosts(final Integer a, final Integer b) {
+        final int byActive = Boolean.compare(activeOf(a), activeOf(b));
+        if(byActive != 0){
+            return byActive;
+        }
+
+        final int byPes = Long.compare(freePesOf(a), freePesOf(b));
+        if(byPes != 0){
+            return byPes;
+        }
+
+        if(a == PROBE || b == PROBE){
+            return a == PROBE ? (b == PROBE ? 0 : -1) : 1;
+        }
+
+        return mode == Mode.WORST_FIT ? Integer.compare(b, a) : Integer.compare(a, b);
+    }
+
+    private long freePesOf(final int position) {
+        return position == PROBE ? probeFreePes : freePes[position];
+    }
+
+    private boolean activeOf(final int position) {
+        return position == PROBE ? probeActive : active[position];
+    }
+
+    /**
+     * Updates the free capacity and the active state of a Host in the indexes.
+     * It's called by this policy when it places, removes or scales VMs,
+     * and must be called when the free capacity or the active state of a Host changes in any other way.
+     *
+     * @param host the Host whose free capacity or active state changed
+     */
+    public void refresh(final Host host) {
+        if(hosts == null || host == null || host == Host.NULL){
+            return;
+        }
+
+        final Integer position = positions.get(host);
+        if(position == null){
+            return;
+        }
+
+        final int i = position;
+        if(sortedHosts != null) {
+            sortedHosts.remove(i);
+        }
+
+        freePes[i] = host.getFreePesNumber();
+        freeRam[i] = host.getRam().getAvailableResource();
+        active[i] = host.isActive();
+        if(sortedHosts != null) {
+            sortedHosts.add(i);
+        }
+
+        int node = leaves + i;
+        maxFreePes[node] = freePes[i];
+        maxFreeRam[node] = freeRam[i];
+        for (node >>>= 1; node > 0; node >>>= 1) {
+            pullUp(node);
+        }
+    }
+
+    private void pullUp(final int node) {
+        maxFreePes[node] = Math.max(maxFreePes[2 * node], maxFreePes[2 * node + 1]);
+        maxFreeRam[node] = Math.max(maxFreeRam[2 * node], maxFreeRam[2 * node + 1]);
+    }
+
+    /**
+     * Finds the first suitable Host in a range of positions.
+     * @param start the first position to search
+     * @param end the position after the last one to search
+     * @return the Host position or -1 if there is no suitable Host
+     */
+    private int findFirst(final Vm vm, final int start, final int end) {
+        return findFirst(vm, 1, 0, leaves, start, end);
+    }
+
+    private int findFirst(final Vm vm, final int node, final int from, final int to, final int start, final int end) {
+        if(to <= start || from >= end ||
+           maxFreePes[node] < vm.getNumberOfPes() || maxFreeRam[node] < vm.getRam().getCapacity())
+        {
+            return -1;
+        }
+
+        if(node >= leaves){
+            return hosts.get(from).isSuitableForVm(vm) ? from : -1;
+        }
+
+        final int middle = (from + to) >>> 1;
+        final int left = findFirst(vm, 2 * node, from, middle, start, end);
+        return left >= 0 ? left : findFirst(vm, 2 * node + 1, middle, to, start, end);
+    }
+
+    /**
+     * Finds the suitable Host with the fewest (best fit) or the most (worst fit) free PEs,
+     * among the active Hosts or, if none of them is suitable, among the inactive ones.
+     * @return the Host position or -1 if there is no suitable Host
+     */
+    private int findSorted(final Vm vm) {
+        final int found = findSorted(vm, true);
+        return found < 0 ? findSorted(vm, false) : found;
+    }
+
+    private int findSorted(final Vm vm, final boolean activeHosts) {
+        probeActive = activeHosts;
+        probeFreePes = mode == Mode.BEST_FIT ? vm.getNumberOfPes() : Long.MAX_VALUE;
+        final Iterator<Integer> candidates =
+            mode == Mode.BEST_FIT ?
+                sortedHosts.tailSet(PROBE, false).iterator() :
+                sortedHosts.headSet(PROBE, false).descendingIterator();
+        while (candidates.hasNext()) {
+            final int i = candidates.next();
+            if(active[i] != activeHosts || freePes[i] < vm.getNumberOfPes()){
+                return -1;
+            }
+
+            if(freeRam[i] >= vm.getRam().getCapacity() && hosts.get(i).isSuitableForVm(vm)){
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+}
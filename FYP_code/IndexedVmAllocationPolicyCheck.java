@@ -0,0 +1,216 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import ch.qos.logback.classic.Level;
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicyBestFit;
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicyFirstFit;
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.ResourceProvisionerSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.vm.VmScheduler;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerSpaceShared;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Checks that an {@link IndexedVmAllocationPolicy} places VMs into the same Hosts as the linear scan
+ * of the equivalent policy, for random Hosts and random sequences of VM placements and removals:
+ * <ul>
+ *     <li>{@link IndexedVmAllocationPolicy.Mode#FIRST_FIT}: the first suitable Host in the list;</li>
+ *     <li>{@link IndexedVmAllocationPolicy.Mode#NEXT_FIT}: {@link VmAllocationPolicyFirstFit};</li>
+ *     <li>{@link IndexedVmAllocationPolicy.Mode#BEST_FIT}: {@link VmAllocationPolicyBestFit};</li>
+ *     <li>{@link IndexedVmAllocationPolicy.Mode#WORST_FIT}: {@link VmAllocationPolicySimple}.</li>
+ * </ul>
+ *
+ * <p>Hosts have few distinct sizes, so that many of them tie in free PEs and the tie-breaking is exercised.
+ * Some Hosts are created inactive, so that the preference for active Hosts is exercised too.
+ * Each mode is run with {@link VmSchedulerSpaceShared} and {@link VmSchedulerTimeShared} Hosts,
+ * on its own pair of Datacenters: one with the indexed policy and one with the reference policy,
+ * which receive equal VMs in the same order.</p>
+ *
+ * <p>The optional arguments of {@link #main(String[])} are the number of rounds (default 20),
+ * the number of Hosts (default 200), the number of operations per round (default 2000)
+ * and the base seed (default {@link ScenarioType#DEFAULT_SEED}), incremented at each round.
+ * It prints the first mismatches and exits with status 1 if any placement differs.</p>
+ */
+public final class IndexedVmAllocationPolicyCheck {
+    private static final int[] HOST_PES = {4, 8, 16};
+    private static final long[] HOST_RAM = {8192, 16384, 32768};
+    private static final int MAX_VM_PES = 6;
+    private static final long MAX_VM_RAM = 8192;
+    private static final int MAX_REPORTED_MISMATCHES = 10;
+
+    /**
+     * The fraction of operations that remove a placed VM instead of placing a new one.
+     */
+    private static final double REMOVAL_PROBABILITY = 0.3;
+
+    /**
+     * The fraction of Hosts created inactive, which the built-in policies select
+     * only when no active Host is suitable.
+     */
+    private static final double INACTIVE_PROBABILITY = 0.3;
+
+    private final int hosts;
+    private final int operations;
+    private long mismatches;
+    private long placements;
+
+    /**
+     * A Datacenter with its own simulation and broker, where VMs are placed directly through its policy.
+     */
+    private static final class Side {
+        private final VmAllocationPolicy policy;
+        private final List<Host> hostList;
+        private final DatacenterBroker broker;
+        private final List<Vm> placed = new ArrayList<>();
+
+        private Side(
+            final VmAllocationPolicy policy, final int hosts, final long seed, final Supplier<VmScheduler> scheduler)
+        {
+            this.policy = policy;
+            final CloudSim simulation = new CloudSim();
+            final Random random = new Random(seed);
+            hostList = new ArrayList<>(hosts);
+            for (int i = 0; i < hosts; i++) {
+                final Host host = createHost(
+                    HOST_PES[random.nextInt(HOST_PES.length)], HOST_RAM[random.nextInt(HOST_RAM.length)], scheduler.get());
+                hostList.add(host.setActive(random.nextDouble() >= INACTIVE_PROBABILITY));
+            }
+
+            new DatacenterSimple(simulation, hostList, policy);
+            broker = new DatacenterBrokerSimple(simulation);
+        }
+
+        /**
+         * Places a VM into the Host the policy finds.
+         * @return the position of the selected Host in the list, or -1 if no Host was found
+         */
+        private int place(final long id, final int pes, final long ram) {
+            final Vm vm = new VmSimple(id, 1000, pes).setRam(ram).setBw(100).setSize(1000);
+            vm.setBroker(broker);
+            final Optional<Host> host = policy.findHostForVm(vm);
+            if(!host.isPresent() || !policy.allocateHostForVm(vm, host.get())){
+                return -1;
+            }
+
+            placed.add(vm);
+            return hostList.indexOf(host.get());
+        }
+
+        private void remove(final int index) {
+            policy.deallocateHostForVm(placed.remove(index));
+        }
+    }
+
+    public static void main(String[] args) {
+        final int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        final int hosts = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        final int operations = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        final long baseSeed = args.length > 3 ? Long.parseLong(args[3]) : ScenarioType.DEFAULT_SEED;
+
+        Log.setLevel(Level.OFF);
+        final IndexedVmAllocationPolicyCheck check = new IndexedVmAllocationPolicyCheck(hosts, operations);
+        final List<Supplier<VmScheduler>> schedulers = new ArrayList<>();
+        schedulers.add(VmSchedulerSpaceShared::new);
+        schedulers.add(VmSchedulerTimeShared::new);
+        for (long seed = baseSeed; seed < baseSeed + rounds; seed++) {
+            for (Supplier<VmScheduler> scheduler : schedulers) {
+                check.run(IndexedVmAllocationPolicy.Mode.FIRST_FIT, seed, scheduler,
+                    () -> new VmAllocationPolicySimple(IndexedVmAllocationPolicyCheck::findFirstSuitableHost));
+                check.run(IndexedVmAllocationPolicy.Mode.NEXT_FIT, seed, scheduler, VmAllocationPolicyFirstFit::new);
+                check.run(IndexedVmAllocationPolicy.Mode.BEST_FIT, seed, scheduler, VmAllocationPolicyBestFit::new);
+                check.run(IndexedVmAllocationPolicy.Mode.WORST_FIT, seed, scheduler, VmAllocationPolicySimple::new);
+            }
+        }
+
+        System.out.printf("%d placements compared, %d mismatches%n", check.placements, check.mismatches);
+        if(check.mismatches > 0){
+            System.exit(1);
+        }
+    }
+
+    private IndexedVmAllocationPolicyCheck(final int hosts, final int operations) {
+        if(hosts <= 0 || operations <= 0){
+            throw new IllegalArgumentException("The number of Hosts and operations must be positive");
+        }
+
+        this.hosts = hosts;
+        this.operations = operations;
+    }
+
+    private static Optional<Host> findFirstSuitableHost(final VmAllocationPolicy policy, final Vm vm) {
+        for (Host host : policy.getHostList()) {
+            if(host.isSuitableForVm(vm)){
+                return Optional.of(host);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Runs a random sequence of placements and removals on an indexed policy and on its reference policy,
+     * comparing the Host selected for each VM.
+     */
+    private void run(
+        final IndexedVmAllocationPolicy.Mode mode, final long seed,
+        final Supplier<VmScheduler> scheduler, final Supplier<VmAllocationPolicy> reference)
+    {
+        final Side indexed = new Side(new IndexedVmAllocationPolicy(mode), hosts, seed, scheduler);
+        final Side expected = new Side(reference.get(), hosts, seed, scheduler);
+        final Random random = new Random(seed);
+        for (int i = 0; i < operations; i++) {
+            if(!expected.placed.isEmpty() && random.nextDouble() < REMOVAL_PROBABILITY){
+                final int index = random.nextInt(expected.placed.size());
+                expected.remove(index);
+                indexed.remove(index);
+                continue;
+            }
+
+            final int pes = 1 + random.nextInt(MAX_VM_PES);
+            final long ram = 512 * (1 + random.nextInt((int) (MAX_VM_RAM / 512)));
+            final int expectedHost = expected.place(i, pes, ram);
+            final int indexedHost = indexed.place(i, pes, ram);
+            placements++;
+            if(expectedHost != indexedHost){
+                if(++mismatches <= MAX_REPORTED_MISMATCHES){
+                    System.out.printf(
+                        "%s seed %d operation %d: VM with %d PEs and %d MB placed into Host %d instead of %d%n",
+                        mode, seed, i, pes, ram, indexedHost, expectedHost);
+                }
+
+                //The sides have diverged, so the rest of the sequence is not comparable
+                return;
+            }
+        }
+    }
+
+    private static Host createHost(final int pes, final long ram, final VmScheduler scheduler) {
+        final List<Pe> peList = new ArrayList<>(pes);
+        for (int i = 0; i < pes; i++) {
+            peList.add(new PeSimple(1000, new PeProvisionerSimple()));
+        }
+
+        return new HostSimple(ram, 100_000, 1_000_000, peList)
+            .setRamProvisioner(new ResourceProvisionerSimple())
+            .setBwProvisioner(new ResourceProvisionerSimple())
+            .setVmScheduler(scheduler);
+    }
+}
@@ -0,0 +1,150 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A {@link org.cloudbus.cloudsim.brokers.DatacenterBroker#setVmMapper(Function) VM mapper}
+ * that dispatches each Cloudlet to the least loaded running VM,
+ * instead of the broker's default mapping, which ignores the VM load.
+ *
+ * <p>The load of a VM is given by a {@link LoadMetric} computed from the Cloudlets dispatched to it
+ * which haven't finished yet. Running VMs are kept in an {@link IndexedMinHeap} ordered by load,
+ * which is updated when a Cloudlet is dispatched or finishes and when a VM is placed into or removed from a Host.
+ * This way, each dispatch takes O(log V) for V VMs, instead of scanning all VMs.
+ * Ties are broken by the lowest VM id.</p>
+ *
+ * <p>Each Cloudlet is counted in the load of a VM just once,
+ * even if the broker maps it again while waiting for its VM to be created.</p>
+ *
+ * <p>VMs must be {@link #addVm(Vm) added} to the mapper when created,
+ * including the ones created by horizontal scaling.
+ * VM ids are used as heap indexes, so they are expected to be sequential.</p>
+ */
+public final class LeastLoadedVmMapper implements Function<Cloudlet, Vm> {
+    /**
+     * How the load of a VM is measured.
+     */
+    public enum LoadMetric {
+        /**
+         * The whole length (in MI) of the unfinished Cloudlets dispatched to the VM, multiplied by their PEs
+         * and divided by the VM total MIPS capacity: the time the VM would need to execute such Cloudlets from the start.
+         * The progress of running Cloudlets is not subtracted, since that changes all the time for every VM
+         * and would require updating all VMs at every dispatch.
+         * Therefore, it's an upper bound of the remaining work,
+         * which overestimates the load of VMs whose Cloudlets have been running for longer.
+         */
+        OUTSTANDING_WORK,
+
+        /**
+         * The number of unfinished Cloudlets dispatched to the VM.
+         */
+        QUEUE_LENGTH
+    }
+
+    private final LoadMetric metric;
+    private final IndexedMinHeap heap = new IndexedMinHeap(64);
+
+    /**
+     * The added VMs, indexed by id.
+     */
+    private final List<Vm> vms = new ArrayList<>();
+    private double[] work = new double[64];
+    private int[] cloudlets = new int[64];
+
+    /**
+     * The ids of the Cloudlets already dispatched, which are not counted again if mapped once more.
+     */
+    private final BitSet dispatched = new BitSet();
+
+    /**
+     * Creates a mapper.
+     * @param metric how the load of VMs is measured
+     */
+    public LeastLoadedVmMapper(final LoadMetric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * Adds a VM to be considered for dispatching Cloudlets while it's placed into a Host.
+     * @param vm the VM to add
+     */
+    public void addVm(final Vm vm) {
+        final int id = (int) vm.getId();
+        while (vms.size() <= id) {
+            vms.add(Vm.NULL);
+        }
+
+        vms.set(id, vm);
+        if(id >= work.length){
+            work = Arrays.copyOf(work, Math.max(id + 1, work.length * 2));
+            cloudlets = Arrays.copyOf(cloudlets, work.length);
+        }
+
+        vm.addOnHostAllocationListener(info -> heap.put(id, load(id)));
+        vm.addOnHostDeallocationListener(info -> heap.remove(id));
+    }
+
+    /**
+     * Dispatches a Cloudlet to the least loaded running VM.
+     * A Cloudlet already bound to a VM is kept in it,
+     * and is added to the VM load only if it wasn't dispatched before.
+     *
+     * @param cloudlet the Cloudlet to dispatch
+     * @return the VM to run the Cloudlet or {@link Vm#NULL} if there is no running VM
+     */
+    @Override
+    public Vm apply(final Cloudlet cloudlet) {
+        final Vm vm;
+        if(cloudlet.getVm() != Vm.NULL){
+            vm = cloudlet.getVm();
+        } else if(heap.isEmpty()){
+            return Vm.NULL;
+        } else {
+            vm = vms.get(heap.peek());
+        }
+
+        final int id = (int) vm.getId();
+        if(id < vms.size() && vms.get(id) == vm && !dispatched.get((int) cloudlet.getId())){
+            dispatch(cloudlet, id);
+        }
+
+        return vm;
+    }
+
+    private void dispatch(final Cloudlet cloudlet, final int id) {
+        dispatched.set((int) cloudlet.getId());
+        final double length = cloudlet.getLength() * cloudlet.getNumberOfPes();
+        changeLoad(id, length, 1);
+        cloudlet.addOnFinishListener(info -> changeLoad(id, -length, -1));
+    }
+
+    private void changeLoad(final int id, final double length, final int count) {
+        work[id] += length;
+        cloudlets[id] += count;
+        if(heap.contains(id)){
+            heap.update(id, load(id));
+        }
+    }
+
+    private double load(final int id) {
+        return metric == LoadMetric.QUEUE_LENGTH ? cloudlets[id] : work[id] / vms.get(id).getTotalMipsCapacity();
+    }
+
+    /**
+     * @return the number of VMs currently available to receive Cloudlets
+     */
+    public int getRunningVms() {
+        return heap.size();
+    }
+
+    public LoadMetric getMetric() {
+        return metric;
+    }
+}
@@ -1,9 +1,9 @@
 package org.cloudsimplus.examples.autoscaling;
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
 import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
 import org.cloudbus.cloudsim.brokers.DatacenterBroker;
 import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
-import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.Simulation;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
@@ -18,31 +18,37 @@ import org.cloudbus.cloudsim.resources.Pe;
 import org.cloudbus.cloudsim.resources.PeSimple;
 import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
-import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
-import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
 import org.cloudbus.cloudsim.vms.Vm;
-import org.cloudbus.cloudsim.vms.VmSimple;
 import org.cloudsimplus.autoscaling.HorizontalVmScaling;
 import org.cloudsimplus.autoscaling.HorizontalVmScalingSimple;
-import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
-import org.cloudsimplus.listeners.EventInfo;
 import org.cloudsimplus.listeners.EventListener;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 
-import static java.util.Comparator.comparingDouble;
-public class LoadBalancerByHorizontalVmScalingExample 
+public class LoadBalancerByHorizontalVmScalingExample implements AutoscalingScenario
 {
     private static final int SCHEDULING_INTERVAL = 5;
     private static final int CLOUDLETS_CREATION_INTERVAL = SCHEDULING_INTERVAL * 2;
     private static final int HOSTS = 50;
     private static final int HOST_PES = 32;
+    private static final long HOST_MIPS = 1000;
+    private static final long HOST_RAM = 2048; // in Megabytes
+    private static final long HOST_STORAGE = 1000000; // in Megabytes
+    private static final long HOST_BW = 10000; //in Megabits/s
+    /**
+     * The largest VM that fits a Host, used to limit the flavors of classified workloads.
+     */
+    private static final VmFlavor MAX_VM_FLAVOR = new VmFlavor(HOST_PES, HOST_MIPS, HOST_RAM, HOST_BW, HOST_STORAGE);
     private static final int VMS = 4;
     private static final int CLOUDLETS = 6;
+    public static final ScenarioSize DEFAULT_SIZE = new ScenarioSize(HOSTS, VMS, CLOUDLETS);
+    private final int hosts;
+    private final int cloudlets;
     private final CloudSim simulation;
     private DatacenterBroker broker0;
     private List<Host> hostList;
@@ -52,74 +58,272 @@ public class LoadBalancerByHorizontalVmScalingExample
     private ContinuousDistribution rand;
     private int createdCloudlets;
     private int createsVms;
+    private final Supplier<VmFlavor> vmFlavors;
+    private final HorizontalScalingParameters scaling;
+    private final Predicate<Vm> overloadPredicate;
+    private final PredictiveOverloadPredicate predictivePredicate;
+    private final LeastLoadedVmMapper vmMapper;
+    private CloudletResultsSink results;
+    private final CloudletTemplate cloudletTemplate = CloudletTemplate.full();
+    /**
+     * Runs the example. If Grid Workloads Archive trace files are given as arguments,
+     * VMs are created with flavors right-sized for the workload clusters found in them.
+     *
+     * @param args optional trace files to classify
+     */
     public static void main(String[] args) 
     {
-        new LoadBalancerByHorizontalVmScalingExample();
+        if (args.length == 0) 
+        {
+            new LoadBalancerByHorizontalVmScalingExample();
+            return;
+        }
+        final GridWorkloadClassifier classifier = new GridWorkloadClassifier(
+            GridWorkloadClassifier.DEFAULT_CLUSTERS, GridWorkloadClassifier.DEFAULT_BATCH_SIZE, ScenarioType.DEFAULT_SEED);
+        for (String fileName : args) 
+        {
+            classifier.train(fileName);
+        }
+        final LoadBalancerByHorizontalVmScalingExample example = new LoadBalancerByHorizontalVmScalingExample(
+            DEFAULT_SIZE, ScenarioType.DEFAULT_SEED, classifier.flavorSupplier(HOST_MIPS, 1.2, MAX_VM_FLAVOR));
+        example.start();
+        example.printSimulationResults();
+        example.close();
     }
     public LoadBalancerByHorizontalVmScalingExample() 
     {   
-        final long seed = 1;
+        this(DEFAULT_SIZE);
+        start();
+        printSimulationResults();
+        close();
+    }
+    /**
+     * Builds the simulation scenario with a given size, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     */
+    public LoadBalancerByHorizontalVmScalingExample(final ScenarioSize size)
+    {
+        this(size, 1);
+    }
+    /**
+     * Builds the simulation scenario with a given size, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param seed the seed for randomly selecting Cloudlet lengths
+     */
+    public LoadBalancerByHorizontalVmScalingExample(final ScenarioSize size, final long seed)
+    {
+        this(size, seed, () -> VmFlavor.DEFAULT);
+    }
+    /**
+     * Builds the simulation scenario with a given size, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param seed the seed for randomly selecting Cloudlet lengths
+     * @param vmFlavors supplies the flavor of each VM created, including the ones created by horizontal scaling
+     * @see GridWorkloadClassifier#flavorSupplier(long, double, VmFlavor)
+     */
+    public LoadBalancerByHorizontalVmScalingExample(final ScenarioSize size, final long seed, final Supplier<VmFlavor> vmFlavors)
+    {
+        this(size, seed, vmFlavors, HorizontalScalingParameters.REACTIVE, CloudletBursts.DEFAULT);
+    }
+    /**
+     * Builds the simulation scenario with a given size and VM allocation policy, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param seed the seed for randomly selecting Cloudlet lengths
+     * @param allocationPolicy the policy to place VMs into Hosts
+     * @see ScenarioType#HORIZONTAL_LOAD_BALANCER_INDEXED
+     */
+    public LoadBalancerByHorizontalVmScalingExample(final ScenarioSize size, final long seed, final VmAllocationPolicy allocationPolicy)
+    {
+        this(size, seed, () -> VmFlavor.DEFAULT, HorizontalScalingParameters.REACTIVE,
+             ArrivalProcess.bursts(CloudletBursts.DEFAULT), Double.POSITIVE_INFINITY, null, allocationPolicy);
+    }
+    /**
+     * Builds the simulation scenario with a given size, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param seed the seed for randomly selecting Cloudlet lengths
+     * @param vmFlavors supplies the flavor of each VM created, including the ones created by horizontal scaling
+     * @param scaling the overload policy and the boot delay of VMs created by horizontal scaling
+     * @param bursts the Cloudlets to submit after the simulation starts
+     */
+    public LoadBalancerByHorizontalVmScalingExample(
+        final ScenarioSize size, final long seed, final Supplier<VmFlavor> vmFlavors,
+        final HorizontalScalingParameters scaling, final CloudletBursts bursts)
+    {
+        this(size, seed, vmFlavors, scaling, bursts, null);
+    }
+    /**
+     * Builds the simulation scenario with a given size, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param seed the seed for randomly selecting Cloudlet lengths
+     * @param vmFlavors supplies the flavor of each VM created, including the ones created by horizontal scaling
+     * @param scaling the overload policy and the boot delay of VMs created by horizontal scaling
+     * @param bursts the Cloudlets to submit after the simulation starts
+     * @param dispatchMetric the load metric to dispatch each Cloudlet to the least loaded VM,
+     *                       or null to use the broker's default mapping
+     */
+    public LoadBalancerByHorizontalVmScalingExample(
+        final ScenarioSize size, final long seed, final Supplier<VmFlavor> vmFlavors,
+        final HorizontalScalingParameters scaling, final CloudletBursts bursts,
+        final LeastLoadedVmMapper.LoadMetric dispatchMetric)
+    {
+        this(size, seed, vmFlavors, scaling, ArrivalProcess.bursts(bursts), Double.POSITIVE_INFINITY, dispatchMetric);
+    }
+    /**
+     * Builds the simulation scenario with a given size, without starting the simulation.
+     * Besides the Cloudlets created at the beginning, Cloudlets keep arriving according to an {@link ArrivalProcess},
+     * being created only when they are about to arrive.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param seed the seed for randomly selecting Cloudlet lengths
+     * @param vmFlavors supplies the flavor of each VM created, including the ones created by horizontal scaling
+     * @param scaling the overload policy and the boot delay of VMs created by horizontal scaling
+     * @param arrivals the arrival times of the Cloudlets submitted after the simulation starts
+     * @param arrivalsHorizon the time after which no more Cloudlets arrive
+     * @param dispatchMetric the load metric to dispatch each Cloudlet to the least loaded VM,
+     *                       or null to use the broker's default mapping
+     * @see StochasticCloudletGenerator
+     */
+    public LoadBalancerByHorizontalVmScalingExample(
+        final ScenarioSize size, final long seed, final Supplier<VmFlavor> vmFlavors,
+        final HorizontalScalingParameters scaling, final ArrivalProcess arrivals, final double arrivalsHorizon,
+        final LeastLoadedVmMapper.LoadMetric dispatchMetric)
+    {
+        this(size, seed, vmFlavors, scaling, arrivals, arrivalsHorizon, dispatchMetric, new VmAllocationPolicySimple());
+    }
+    /**
+     * Builds the simulation scenario with a given size, without starting the simulation.
+     * Besides the Cloudlets created at the beginning, Cloudlets keep arriving according to an {@link ArrivalProcess},
+     * being created only when they are about to arrive.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param seed the seed for randomly selecting Cloudlet lengths
+     * @param vmFlavors supplies the flavor of each VM created, including the ones created by horizontal scaling
+     * @param scaling the overload policy and the boot delay of VMs created by horizontal scaling
+     * @param arrivals the arrival times of the Cloudlets submitted after the simulation starts
+     * @param arrivalsHorizon the time after which no more Cloudlets arrive
+     * @param dispatchMetric the load metric to dispatch each Cloudlet to the least loaded VM,
+     *                       or null to use the broker's default mapping
+     * @param allocationPolicy the policy to place VMs into Hosts
+     * @see StochasticCloudletGenerator
+     */
+    public LoadBalancerByHorizontalVmScalingExample(
+        final ScenarioSize size, final long seed, final Supplier<VmFlavor> vmFlavors,
+        final HorizontalScalingParameters scaling, final ArrivalProcess arrivals, final double arrivalsHorizon,
+        final LeastLoadedVmMapper.LoadMetric dispatchMetric, final VmAllocationPolicy allocationPolicy)
+    {
+        this.vmMapper = dispatchMetric == null ? null : new LeastLoadedVmMapper(dispatchMetric);
+        this.vmFlavors = vmFlavors;
+        this.scaling = scaling;
+        /* A new VM is useful after it boots and the next time Cloudlets are processed,
+         * so utilization is forecast for such a horizon (or the one an SVR model was trained for). */
+        if (!scaling.isPredictive())
+        {
+            this.predictivePredicate = null;
+        }
+        else if (scaling.getForecaster() == null)
+        {
+            this.predictivePredicate = new PredictiveOverloadPredicate(
+                scaling.getOverloadThreshold(), scaling.getVmBootDelay() + SCHEDULING_INTERVAL);
+        }
+        else
+        {
+            this.predictivePredicate = new PredictiveOverloadPredicate(
+                scaling.getOverloadThreshold(), scaling.getForecaster(), SCHEDULING_INTERVAL);
+        }
+        this.overloadPredicate = scaling.isPredictive() ? predictivePredicate : this::isVmOverloaded;
         rand = new UniformDistr(0, CLOUDLET_LENGTHS.length, seed);
-        hostList = new ArrayList<>(HOSTS);
-        vmList = new ArrayList<>(VMS);
-        cloudletList = new ArrayList<>(CLOUDLETS);
+        hosts = size.getHosts();
+        cloudlets = size.getCloudlets();
+        hostList = new ArrayList<>(hosts);
+        vmList = new ArrayList<>(size.getVms());
+        cloudletList = new ArrayList<>(cloudlets);
 
         simulation = new CloudSim();
-        simulation.addOnClockTickListener(this::createNewCloudlets);
 
-        createDatacenter();
+        createDatacenter(allocationPolicy);
         broker0 = new DatacenterBrokerSimple(simulation);
         broker0.setVmDestructionDelayFunction(vm -> 10.0);
+        if (vmMapper != null) 
+        {
+            broker0.setVmMapper(vmMapper);
+        }
+        if (scaling.isCoordinated()) 
+        {
+            createScalingCoordinator();
+        }
 
-        vmList.addAll(createListOfScalableVms(VMS));
+        vmList.addAll(createListOfScalableVms(size.getVms()));
 
         createCloudletList();
         broker0.submitVmList(vmList);
         broker0.submitCloudletList(cloudletList);
-
-        simulation.start();
-
-        printSimulationResults();
+        new StochasticCloudletGenerator(simulation, broker0, arrivals, index -> createCloudlet(), Long.MAX_VALUE, arrivalsHorizon);
     }
-    private void printSimulationResults() 
+    @Override
+    public CloudSim getSimulation()
     {
-        List<Cloudlet> finishedCloudlets = broker0.getCloudletFinishedList();
-        Comparator<Cloudlet> sortByVmId = comparingDouble(c -> c.getVm().getId());
-        Comparator<Cloudlet> sortByStartTime = comparingDouble(c -> c.getExecStartTime());
-        finishedCloudlets.sort(sortByVmId.thenComparing(sortByStartTime));
-        new CloudletsTableBuilder(finishedCloudlets).build();
+        return simulation;
     }
-    private void createCloudletList() 
+    @Override
+    public DatacenterBroker getBroker()
+    {
+        return broker0;
+    }
+    /**
+     * {@inheritDoc}
+     * The results of the Cloudlets finished along the simulation are recorded into a new file,
+     * which is flushed when it finishes and deleted by {@link #close()}.
+     */
+    @Override
+    public void start()
     {
-        for (int i = 0; i < CLOUDLETS; i++) 
+        results = CloudletResultsSink.ofTempFile(getClass().getSimpleName(), broker0);
+        try
         {
-            cloudletList.add(createCloudlet());
+            simulation.start();
+        }
+        finally
+        {
+            results.close();
         }
     }
-    private void createNewCloudlets(EventInfo eventInfo) 
+    /**
+     * {@inheritDoc}
+     * The Cloudlet results file is deleted.
+     */
+    @Override
+    public void close()
     {
-        final long time = (long) eventInfo.getTime();
-        if (time==10) 
+        if(results != null)
         {
-            final int numberOfCloudlets = 4;
-            System.out.printf("\t#Creating %d Cloudlets at time %d.%n", numberOfCloudlets, time);
-            List<Cloudlet> newCloudlets = new ArrayList<>(numberOfCloudlets);
-            for (int i = 0; i < numberOfCloudlets; i++) 
-            {
-                Cloudlet cloudlet = createCloudlet();
-                cloudletList.add(cloudlet);
-                newCloudlets.add(cloudlet);
-            }
-            broker0.submitCloudletList(newCloudlets);
+            results.delete();
         }
     }
-    private void createDatacenter() 
+    @Override
+    public void printSimulationResults() 
     {
-        for (int i = 0; i < HOSTS; i++) 
+        CloudletResults.print(results.getFile(), CloudletResults.Group.VM, System.out);
+    }
+    private void createCloudletList() 
+    {
+        for (int i = 0; i < cloudlets; i++) 
+        {
+            cloudletList.add(createCloudlet());
+        }
+    }
+    private void createDatacenter(final VmAllocationPolicy allocationPolicy) 
+    {
+        for (int i = 0; i < hosts; i++) 
         {
             hostList.add(createHost());
         }
-        Datacenter dc0 = new DatacenterSimple(simulation, hostList, new VmAllocationPolicySimple());
+        Datacenter dc0 = new DatacenterSimple(simulation, hostList, allocationPolicy);
         dc0.setSchedulingInterval(SCHEDULING_INTERVAL);
     }
     private Host createHost() 
@@ -127,12 +331,9 @@ public class LoadBalancerByHorizontalVmScalingExample
         List<Pe> peList = new ArrayList<>(HOST_PES);
         for (int i = 0; i < HOST_PES; i++) 
         {
-            peList.add(new PeSimple(1000, new PeProvisionerSimple()));
+            peList.add(new PeSimple(HOST_MIPS, new PeProvisionerSimple()));
         }
-        final long ram = 2048; // in Megabytes
-        final long storage = 1000000; // in Megabytes
-        final long bw = 10000; //in Megabits/s
-        return new HostSimple(ram, bw, storage, peList).setRamProvisioner(new ResourceProvisionerSimple()).setBwProvisioner(new ResourceProvisionerSimple()).setVmScheduler(new VmSchedulerTimeShared());
+        return new HostSimple(HOST_RAM, HOST_BW, HOST_STORAGE, peList).setRamProvisioner(new ResourceProvisionerSimple()).setBwProvisioner(new ResourceProvisionerSimple()).setVmScheduler(new VmSchedulerTimeShared());
     }
     private List<Vm> createListOfScalableVms(final int numberOfVms) 
     {
@@ -140,7 +341,10 @@ public class LoadBalancerByHorizontalVmScalingExample
         for (int i = 0; i < numberOfVms; i++) 
         {
             Vm vm = createVm();
-            createHorizontalVmScaling(vm);
+            if (!scaling.isCoordinated()) 
+            {
+                createHorizontalVmScaling(vm);
+            }
             newList.add(vm);
         }
         return newList;
@@ -148,24 +352,52 @@ public class LoadBalancerByHorizontalVmScalingExample
     private void createHorizontalVmScaling(Vm vm) 
     {
         HorizontalVmScaling horizontalScaling = new HorizontalVmScalingSimple();
-        horizontalScaling.setVmSupplier(this::createVm).setOverloadPredicate(this::isVmOverloaded);
+        horizontalScaling.setVmSupplier(this::createVmOnDemand).setOverloadPredicate(overloadPredicate);
         vm.setHorizontalScaling(horizontalScaling);
     }
+    /**
+     * Creates a coordinator that scales out the VMs as a group, instead of each VM having its own horizontal scaling.
+     * Requested VMs that are not running after booting and a few scheduling intervals are assumed to have failed.
+     */
+    private void createScalingCoordinator() 
+    {
+        final ToDoubleFunction<Vm> demandEstimator =
+            scaling.isPredictive() ? predictivePredicate::forecast : Vm::getCpuPercentUtilization;
+        new ScalingCoordinator(broker0, this::createVmOnDemand, demandEstimator)
+            .setUpperThreshold(scaling.getOverloadThreshold())
+            .setTargetUtilization(scaling.getTargetUtilization())
+            .setCooldown(scaling.getCooldown())
+            .setCheckInterval(SCHEDULING_INTERVAL)
+            .setPendingTimeout(scaling.getVmBootDelay() + SCHEDULING_INTERVAL * 3);
+    }
     private boolean isVmOverloaded(Vm vm) 
     {
-        return vm.getCpuPercentUtilization() > 0.7;
+        return vm.getCpuPercentUtilization() > scaling.getOverloadThreshold();
+    }
+    /**
+     * Creates a VM requested by horizontal scaling, which is available just after the VM boot delay.
+     */
+    private Vm createVmOnDemand() 
+    {
+        final Vm vm = createVm();
+        vm.setSubmissionDelay(scaling.getVmBootDelay());
+        return vm;
     }
     private Vm createVm() 
     {
         final int id = createsVms++;
-        return new VmSimple(id, 1000, 2).setRam(512).setBw(1000).setSize(10000).setCloudletScheduler(new CloudletSchedulerTimeShared());
+        final Vm vm = vmFlavors.get().createVm(id).setCloudletScheduler(new CloudletSchedulerTimeShared());
+        if (vmMapper != null) 
+        {
+            vmMapper.addVm(vm);
+        }
+        return vm;
     }
     private Cloudlet createCloudlet() 
     {
         final int id = createdCloudlets++;
         //randomly selects a length for the cloudlet
         final long length = CLOUDLET_LENGTHS[(int) rand.sample()];
-        UtilizationModel utilization = new UtilizationModelFull();
-        return new CloudletSimple(id, length, 2).setFileSize(1024).setOutputSize(1024).setUtilizationModel(utilization);
+        return cloudletTemplate.create(id, length, 2);
     }
 }
\ No newline at end of file
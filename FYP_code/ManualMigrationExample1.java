@@ -6,28 +6,21 @@ import org.cloudbus.cloudsim.allocationpolicies.migration.VmAllocationPolicyMigr
 import org.cloudbus.cloudsim.brokers.DatacenterBroker;
 import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
-import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
-import org.cloudbus.cloudsim.datacenters.Datacenter;
-import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
 import org.cloudbus.cloudsim.hosts.Host;
 import org.cloudbus.cloudsim.hosts.HostSimple;
-import org.cloudbus.cloudsim.hosts.HostStateHistoryEntry;
 import org.cloudbus.cloudsim.resources.Pe;
 import org.cloudbus.cloudsim.resources.PeSimple;
 import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
 import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
-import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
-import org.cloudsimplus.builders.tables.HostHistoryTableBuilder;
-import org.cloudsimplus.listeners.EventInfo;
 import org.cloudsimplus.listeners.EventListener;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-public final class ManualMigrationExample1
+public final class ManualMigrationExample1 implements AutoscalingScenario
 {
     private static final int  SCHEDULING_INTERVAL = 1;
     private static final int  HOSTS = 5;
@@ -45,85 +38,139 @@ public final class ManualMigrationExample1
     private static final long   CLOUDLET_LENGHT = 20000;
     private static final long   CLOUDLET_FILESIZE = 300;
     private static final long   CLOUDLET_OUTPUTSIZE = 300;
+    private static final double MIGRATION_PLANNING_INTERVAL = 10;
+    private static final int    MAX_MIGRATIONS_PER_HOST = 1;
+    private static final double VM_WRITE_RATE = 0.01; //fraction of the used VM RAM written per second
+    private static final double STOP_COPY_SIZE = 50; //dirty RAM (MB) left for the stop-and-copy round
+    private static final int    MAX_PRECOPY_ROUNDS = 30;
+    public static final ScenarioSize DEFAULT_SIZE = new ScenarioSize(HOSTS, VMS, VMS); //one Cloudlet for each VM
 
     private final List<Vm> vmList = new ArrayList<>();
     private final DatacenterBrokerSimple broker;
-    private final Datacenter datacenter0;
+    private final PreCopyDatacenter datacenter0;
+    private final ScenarioSize size;
+    private final ConsolidationPlanner planner;
+    private CloudletResultsSink results;
+    private final CloudletTemplate cloudletTemplate;
 
     private CloudSim simulation;
     private List<Host> hostList;
-    private boolean migrationRequested;
+    private List<CompactHostHistory> hostHistories;
 
     public static void main(String[] args)
     {
         new ManualMigrationExample1();
     }
     public ManualMigrationExample1()
+    {
+        this(DEFAULT_SIZE);
+        start();
+        printSimulationResults();
+        close();
+        System.out.println(getClass().getSimpleName() + " finished!");
+    }
+    /**
+     * Builds the simulation scenario with a given size, without starting the simulation.
+     * Cloudlets are bound to the created VMs in turn.
+     * VMs are migrated by a {@link ConsolidationPlanner}, which relieves overloaded Hosts
+     * and drains underloaded ones. Migrations are pre-copy ones, whose duration
+     * depends on how fast VMs dirty their RAM.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     */
+    public ManualMigrationExample1(final ScenarioSize size)
     {
         System.out.println("Starting " + getClass().getSimpleName());
+        this.size = size;
+        final UtilizationModel full = new UtilizationModelFull();
+        cloudletTemplate = new CloudletTemplate(CLOUDLET_FILESIZE, CLOUDLET_OUTPUTSIZE, full, full, full);
         simulation = new CloudSim();
 
         this.datacenter0 = createDatacenter();
         broker = new DatacenterBrokerSimple(simulation);
         createAndSubmitVms(broker);
         createAndSubmitCloudlets(broker);
-        simulation.addOnClockTickListener(this::clockTickListener);
-
-        simulation.start();
-
-        final List<Cloudlet> finishedList = broker.getCloudletFinishedList();
-        finishedList.sort(
-            Comparator.comparingLong((Cloudlet c) -> c.getVm().getHost().getId())
-                      .thenComparingLong(c -> c.getVm().getId()));
-        new CloudletsTableBuilder(finishedList).build();
-        System.out.printf("%nHosts CPU usage History (when the allocated MIPS is lower than the requested, it is due to VM migration overhead)%n");
-
-        hostList.forEach(this::printHostHistory);
-        System.out.println(getClass().getSimpleName() + " finished!");
+        planner = new ConsolidationPlanner(datacenter0, hostList)
+            .setEvaluationInterval(MIGRATION_PLANNING_INTERVAL)
+            .setMaxMigrationsPerHost(MAX_MIGRATIONS_PER_HOST)
+            .setMigrationTime((vm, host) -> datacenter0.estimateMigration(vm, host).getDuration());
     }
-    private void clockTickListener(EventInfo info)
+    @Override
+    public CloudSim getSimulation()
     {
-        if(!migrationRequested && info.getTime() >= 10)
+        return simulation;
+    }
+    @Override
+    public DatacenterBroker getBroker()
+    {
+        return broker;
+    }
+    /**
+     * {@inheritDoc}
+     * The results of the Cloudlets finished along the simulation are recorded into a new file,
+     * which is flushed when it finishes and deleted by {@link #close()}.
+     */
+    @Override
+    public void start()
+    {
+        results = CloudletResultsSink.ofTempFile(getClass().getSimpleName(), broker);
+        try
+        {
+            simulation.start();
+        }
+        finally
+        {
+            results.close();
+        }
+    }
+    /**
+     * {@inheritDoc}
+     * The Cloudlet results file is deleted.
+     */
+    @Override
+    public void close()
+    {
+        if(results != null)
         {
-            Vm sourceVm = vmList.get(0);
-            Host targetHost = hostList.get(hostList.size() - 1);
-            System.out.printf("%n# Requesting the migration of %s to %s%n%n", sourceVm, targetHost);
-            datacenter0.requestVmMigration(sourceVm, targetHost);
-            this.migrationRequested = true;
+            results.delete();
         }
     }
-    private void printHostHistory(Host host) {
-        final boolean cpuUtilizationNotZero =
-            host.getStateHistory()
-                .stream()
-                .map(HostStateHistoryEntry::getPercentUsage)
-                .anyMatch(cpuUtilization -> cpuUtilization > 0);
+    @Override
+    public void printSimulationResults()
+    {
+        CloudletResults.print(results.getFile(), CloudletResults.Group.HOST, System.out);
+        System.out.printf("%nMigrations requested: %d%n", planner.getRequestedMigrations());
+        datacenter0.getMigrations().forEach(migration ->
+            System.out.printf("\t%.2f: %s from %s to %s: %s%n",
+                migration.getTime(), migration.getVm(), migration.getSource(), migration.getTarget(),
+                migration.getEstimate()));
+        System.out.printf("%nHosts CPU usage History (when the allocated MIPS is lower than the requested, it is due to VM migration overhead)%n");
 
-        if(cpuUtilizationNotZero) {
-            new HostHistoryTableBuilder(host).setTitle(host.toString()).build();
+        hostHistories.forEach(this::printHostHistory);
+    }
+    private void printHostHistory(CompactHostHistory history) {
+        final Host host = history.getHost();
+        if(history.isCpuUsed()) {
+            history.print(host.toString());
         } else System.out.printf("\t%s CPU was zero all the time%n", host);
     }
     public void createAndSubmitCloudlets(DatacenterBroker broker) {
-        final List<Cloudlet> list = new ArrayList<>(VMS);
-        for(Vm vm: vmList){
-            list.add(createCloudlet(vm, broker));
+        final List<Cloudlet> list = new ArrayList<>(size.getCloudlets());
+        for(int i = 0; i < size.getCloudlets(); i++){
+            list.add(createCloudlet(vmList.get(i % vmList.size()), broker));
         }
 
         broker.submitCloudletList(list);
     }
     public Cloudlet createCloudlet(Vm vm, DatacenterBroker broker) {
-        final Cloudlet cloudlet =
-            new CloudletSimple(CLOUDLET_LENGHT, (int)vm.getNumberOfPes())
-                .setFileSize(CLOUDLET_FILESIZE)
-                .setOutputSize(CLOUDLET_OUTPUTSIZE)
-                .setUtilizationModel(new UtilizationModelFull());
+        final Cloudlet cloudlet = cloudletTemplate.create(CLOUDLET_LENGHT, vm.getNumberOfPes());
         broker.bindCloudletToVm(cloudlet, vm);
 
         return cloudlet;
     }
     public void createAndSubmitVms(DatacenterBroker broker) {
-        final List<Vm> list = new ArrayList<>(VMS);
-        for(int i = 0; i < VMS; i++){
+        final List<Vm> list = new ArrayList<>(size.getVms());
+        for(int i = 0; i < size.getVms(); i++){
             list.add(createVm(VM_PES));
         }
 
@@ -137,16 +184,22 @@ public final class ManualMigrationExample1
           .setCloudletScheduler(new CloudletSchedulerTimeShared());
         return vm;
     }
-    private Datacenter createDatacenter() {
+    private PreCopyDatacenter createDatacenter() {
         this.hostList = new ArrayList<>();
-        for(int i = 0; i < HOSTS; i++)
+        this.hostHistories = new ArrayList<>();
+        for(int i = 0; i < size.getHosts(); i++)
         {
-            final int pes = HOST_INITIAL_PES + i;
-            hostList.add(createHost(pes, HOST_MIPS));
+            //larger fleets repeat the PEs pattern of the first HOSTS
+            final int pes = HOST_INITIAL_PES + i % HOSTS;
+            final Host host = createHost(pes, HOST_MIPS);
+            hostList.add(host);
+            hostHistories.add(new CompactHostHistory(host));
         }
         System.out.println();
 
-        Datacenter dc = new DatacenterSimple(simulation, hostList, new VmAllocationPolicyFirstFit());
+        final PreCopyMigrationModel migrationModel =
+            new PreCopyMigrationModel(VM_WRITE_RATE, STOP_COPY_SIZE, MAX_PRECOPY_ROUNDS);
+        PreCopyDatacenter dc = new PreCopyDatacenter(simulation, hostList, new VmAllocationPolicyFirstFit(), migrationModel);
         dc.setSchedulingInterval(SCHEDULING_INTERVAL);
         return dc;
     }
@@ -155,7 +208,6 @@ public final class ManualMigrationExample1
             List<Pe> peList = createPeList(numberOfPes, mipsByPe);
             Host host = new HostSimple(HOST_RAM, HOST_BW, HOST_STORAGE, peList);
             host.setVmScheduler(new VmSchedulerTimeShared());
-            host.enableStateHistory();
             return host;
     }
     public List<Pe> createPeList(int numberOfPEs, long mips)
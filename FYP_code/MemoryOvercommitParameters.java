@@ -0,0 +1,89 @@
+package org.cloudsimplus.examples.autoscaling;
+
+/**
+ * The host memory management mode of the {@link VerticalVmRamScalingExample}:
+ * how much the RAM of Hosts is overcommitted, whether idle VM memory is reclaimed by ballooning
+ * and how much slower Cloudlets run when the memory they use is not resident.
+ *
+ * @see HostMemoryManager
+ */
+public final class MemoryOvercommitParameters {
+    private final long physicalRam;
+    private final double overcommitRatio;
+    private final boolean ballooning;
+    private final double balloonReserve;
+    private final double balloonRate;
+    private final double swapPenalty;
+
+    /**
+     * Creates the parameters of a memory management mode.
+     *
+     * @param physicalRam the physical RAM (in MB) of each Host
+     * @param overcommitRatio how many times the physical RAM can be allocated to VMs (at least 1)
+     * @param ballooning true to reclaim the RAM VMs are not using, false to back all the RAM allocated to VMs
+     * @param balloonReserve the fraction (from 0 to 1) of the RAM a VM is using that is kept free
+     *                       inside the VM when reclaiming its idle RAM
+     * @param balloonRate how much RAM (in MB/s) can be reclaimed from a VM
+     * @param swapPenalty how many times slower a Cloudlet runs while all the memory it uses is swapped out (at least 1)
+     */
+    public MemoryOvercommitParameters(
+        final long physicalRam, final double overcommitRatio, final boolean ballooning,
+        final double balloonReserve, final double balloonRate, final double swapPenalty)
+    {
+        if(physicalRam <= 0 || overcommitRatio < 1){
+            throw new IllegalArgumentException("Physical RAM must be positive and overcommit ratio must be at least 1");
+        }
+
+        if(balloonReserve < 0 || balloonReserve > 1 || balloonRate <= 0){
+            throw new IllegalArgumentException("Balloon reserve must be in the interval [0, 1] and balloon rate must be positive");
+        }
+
+        if(swapPenalty < 1){
+            throw new IllegalArgumentException("Swap penalty must be at least 1: " + swapPenalty);
+        }
+
+        this.physicalRam = physicalRam;
+        this.overcommitRatio = overcommitRatio;
+        this.ballooning = ballooning;
+        this.balloonReserve = balloonReserve;
+        this.balloonRate = balloonRate;
+        this.swapPenalty = swapPenalty;
+    }
+
+    public long getPhysicalRam() {
+        return physicalRam;
+    }
+
+    public double getOvercommitRatio() {
+        return overcommitRatio;
+    }
+
+    /**
+     * @return the RAM (in MB) of each Host that can be allocated to VMs
+     */
+    public long getAllocatableRam() {
+        return (long)(physicalRam * overcommitRatio);
+    }
+
+    public boolean isBallooning() {
+        return ballooning;
+    }
+
+    public double getBalloonReserve() {
+        return balloonReserve;
+    }
+
+    public double getBalloonRate() {
+        return balloonRate;
+    }
+
+    public double getSwapPenalty() {
+        return swapPenalty;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("physical RAM %d MB overcommit %.2f ballooning %s swap penalty %.1f",
+            physicalRam, overcommitRatio, ballooning ? "on" : "off", swapPenalty);
+    }
+}
@@ -0,0 +1,245 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import java.util.Random;
+
+/**
+ * A streaming k-means clustering, which updates the clusters with small batches of samples
+ * as they are read, instead of keeping the whole dataset in memory
+ * (the mini-batch k-means proposed by D. Sculley, "Web-scale k-means clustering", WWW 2010).
+ *
+ * <p>Samples are buffered until a batch is full. The first batch initializes the centroids
+ * using k-means++ seeding. Then, each sample in a batch is assigned to its nearest centroid,
+ * which is moved towards the sample by a learning rate of 1 / (number of samples assigned to it so far).
+ * This way, centroids converge to the mean of their samples as more samples are read.</p>
+ *
+ * <p>Centroids and buffers are preallocated, so adding and classifying samples don't allocate objects.</p>
+ */
+public final class MiniBatchKMeans {
+    private final int clusters;
+    private final int dimensions;
+    private final int batchSize;
+    private final Random random;
+
+    /**
+     * The centroids, each one with {@link #dimensions} values, stored one after another.
+     */
+    private final double[] centroids;
+    private final long[] counts;
+    private final double[] batch;
+    private final int[] assignments;
+    private int batchLength;
+    private boolean initialized;
+    private long samples;
+
+    /**
+     * Creates a clustering.
+     *
+     * @param clusters the number of clusters (k)
+     * @param dimensions the number of values of each sample
+     * @param batchSize the number of samples buffered before updating the centroids, which must be at least the number of clusters
+     * @param seed the seed for the k-means++ initialization
+     */
+    public MiniBatchKMeans(final int clusters, final int dimensions, final int batchSize, final long seed) {
+        if(clusters <= 0 || dimensions <= 0 || batchSize < clusters){
+            throw new IllegalArgumentException("Clusters and dimensions must be positive and the batch size must be at least the number of clusters");
+        }
+
+        this.clusters = clusters;
+        this.dimensions = dimensions;
+        this.batchSize = batchSize;
+        this.random = new Random(seed);
+        this.centroids = new double[clusters * dimensions];
+        this.counts = new long[clusters];
+        this.batch = new double[batchSize * dimensions];
+        this.assignments = new int[batchSize];
+    }
+
+    /**
+     * Adds a sample, updating the centroids if the batch gets full.
+     *
+     * @param sample the sample values (it's copied, so it can be reused by the caller)
+     * @return the cluster the sample was assigned to or -1 if the centroids were not initialized yet
+     */
+    public int add(final double[] sample) {
+        checkDimensions(sample);
+        System.arraycopy(sample, 0, batch, batchLength * dimensions, dimensions);
+        batchLength++;
+        samples++;
+        final int cluster = initialized ? classify(sample) : -1;
+        if(batchLength == batchSize){
+            flush();
+        }
+
+        return cluster;
+    }
+
+    /**
+     * Updates the centroids with the samples buffered so far, even if the batch is not full.
+     * Call it after the last sample is added.
+     *
+     * @throws IllegalStateException if the centroids are not initialized and there are fewer buffered samples than clusters
+     */
+    public void flush() {
+        if(batchLength == 0){
+            return;
+        }
+
+        if(!initialized){
+            if(batchLength < clusters){
+                throw new IllegalStateException(
+                    String.format("At least %d samples are required to initialize the centroids, but just %d were added", clusters, batchLength));
+            }
+
+            initializeCentroids();
+            initialized = true;
+        }
+
+        for (int i = 0; i < batchLength; i++) {
+            assignments[i] = nearest(batch, i * dimensions);
+        }
+
+        for (int i = 0; i < batchLength; i++) {
+            final int cluster = assignments[i];
+            final double learningRate = 1.0 / ++counts[cluster];
+            final int centroid = cluster * dimensions;
+            final int sample = i * dimensions;
+            for (int d = 0; d < dimensions; d++) {
+                centroids[centroid + d] += learningRate * (batch[sample + d] - centroids[centroid + d]);
+            }
+        }
+
+        batchLength = 0;
+    }
+
+    /**
+     * Chooses the initial centroids among the buffered samples using k-means++:
+     * the first one is chosen uniformly and each next one with probability
+     * proportional to its squared distance to the nearest chosen centroid.
+     */
+    private void initializeCentroids() {
+        final double[] distances = new double[batchLength];
+        int chosen = random.nextInt(batchLength);
+        System.arraycopy(batch, chosen * dimensions, centroids, 0, dimensions);
+        for (int i = 0; i < batchLength; i++) {
+            distances[i] = squaredDistance(batch, i * dimensions, 0);
+        }
+
+        for (int c = 1; c < clusters; c++) {
+            double total = 0;
+            for (double distance : distances) {
+                total += distance;
+            }
+
+            // All remaining samples equal some centroid: pick any of them
+            chosen = total == 0 ? random.nextInt(batchLength) : batchLength - 1;
+            double target = random.nextDouble() * total;
+            for (int i = 0; total > 0 && i < batchLength; i++) {
+                target -= distances[i];
+                if(target < 0){
+                    chosen = i;
+                    break;
+                }
+            }
+
+            System.arraycopy(batch, chosen * dimensions, centroids, c * dimensions, dimensions);
+            for (int i = 0; i < batchLength; i++) {
+                distances[i] = Math.min(distances[i], squaredDistance(batch, i * dimensions, c * dimensions));
+            }
+        }
+    }
+
+    /**
+     * Finds the cluster whose centroid is the nearest to a sample, without changing the centroids.
+     *
+     * @param sample the sample values
+     * @return the index of the nearest cluster
+     * @throws IllegalStateException if the centroids were not initialized yet
+     */
+    public int classify(final double[] sample) {
+        checkDimensions(sample);
+        if(!initialized){
+            throw new IllegalStateException("The centroids were not initialized yet");
+        }
+
+        return nearest(sample, 0);
+    }
+
+    private int nearest(final double[] values, final int offset) {
+        int nearest = 0;
+        double minDistance = Double.POSITIVE_INFINITY;
+        for (int c = 0; c < clusters; c++) {
+            double distance = 0;
+            final int centroid = c * dimensions;
+            for (int d = 0; d < dimensions && distance < minDistance; d++) {
+                final double diff = values[offset + d] - centroids[centroid + d];
+                distance += diff * diff;
+            }
+
+            if(distance < minDistance){
+                minDistance = distance;
+                nearest = c;
+            }
+        }
+
+        return nearest;
+    }
+
+    private double squaredDistance(final double[] values, final int offset, final int centroid) {
+        double distance = 0;
+        for (int d = 0; d < dimensions; d++) {
+            final double diff = values[offset + d] - centroids[centroid + d];
+            distance += diff * diff;
+        }
+
+        return distance;
+    }
+
+    private void checkDimensions(final double[] sample) {
+        if(sample.length != dimensions){
+            throw new IllegalArgumentException(String.format("Expected %d values but %d were given", dimensions, sample.length));
+        }
+    }
+
+    /**
+     * Copies the centroid of a cluster.
+     *
+     * @param cluster the cluster index
+     * @param centroid the array to copy the centroid values to
+     * @return the given array
+     */
+    public double[] getCentroid(final int cluster, final double[] centroid) {
+        checkDimensions(centroid);
+        System.arraycopy(centroids, cluster * dimensions, centroid, 0, dimensions);
+        return centroid;
+    }
+
+    /**
+     * @param cluster the cluster index
+     * @return the number of samples used to update the centroid of the cluster
+     */
+    public long getCount(final int cluster) {
+        return counts[cluster];
+    }
+
+    public int getClusters() {
+        return clusters;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * @return the number of samples added so far
+     */
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return true if the centroids were initialized, so that samples can be classified
+     */
+    public boolean isInitialized() {
+        return initialized;
+    }
+}
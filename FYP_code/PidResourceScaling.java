@@ -0,0 +1,318 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.autoscaling.VerticalVmScaling;
+import org.cloudsimplus.autoscaling.resources.ResourceScaling;
+import org.cloudsimplus.listeners.VmHostEventInfo;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A {@link ResourceScaling} that works as a PID controller tracking a target utilization,
+ * instead of scaling a fixed fraction of the allocated resource at each step.
+ *
+ * <p>The error is the distance between the VM utilization and the target, relative to the target.
+ * The amount to scale is the allocated resource multiplied by the sum of:</p>
+ * <ul>
+ *     <li>the proportional term: the error times {@code kp}.
+ *     With {@code kp = 1}, it's the amount that would bring the utilization to the target;</li>
+ *     <li>the integral term: the error integrated along the time times {@code ki},
+ *     which corrects a utilization that stays away from the target;</li>
+ *     <li>the derivative term: the error rate of change (per second) times {@code kd},
+ *     which anticipates a utilization that keeps rising or falling.</li>
+ * </ul>
+ *
+ * <p>The scaling policy still decides when to scale, by its thresholds, and the direction to scale.
+ * If the controller output points to the other direction, nothing is scaled.
+ * The output is limited to the {@link #setMaxStepFactor(double) max step},
+ * and the integral is not accumulated while such a limit is reached (anti-windup),
+ * besides being limited to the {@link #setIntegralLimit(double) integral limit}.</p>
+ *
+ * <p>The utilization is sampled after every processing update of the VM,
+ * which is also used to build a settling report: how long the utilization takes to return
+ * and stay inside a band around the target after leaving it, how much it overshoots the target,
+ * and how many resizes were requested.</p>
+ *
+ * <p>Since the controller keeps the state of a single VM, a new instance must be created for each VM.</p>
+ */
+public final class PidResourceScaling implements ResourceScaling {
+    public static final double DEFAULT_KP = 1;
+    public static final double DEFAULT_KI = 0.05;
+    public static final double DEFAULT_KD = 0.5;
+
+    private final Vm vm;
+    private final ToDoubleFunction<Vm> utilizationFunction;
+    private final double targetUtilization;
+    private double kp = DEFAULT_KP;
+    private double ki = DEFAULT_KI;
+    private double kd = DEFAULT_KD;
+    private double maxStepFactor = 1;
+    private double integralLimit = 2;
+    private double settlingBand = 0.1;
+    private double settlingHold = 10;
+
+    private double lastTime = Double.NaN;
+    private double lastError;
+    private double integral;
+    private double derivative;
+    private boolean saturated;
+    private int lastDirection;
+
+    private int resizes;
+    private int directionChanges;
+    private boolean settled = true;
+    private double disturbanceStartTime;
+    private double enteredBandTime = Double.NaN;
+    private int disturbanceSign;
+    private int disturbances;
+    private int settledDisturbances;
+    private double settlingTimeSum;
+    private double maxSettlingTime;
+    private double maxOvershoot;
+
+    /**
+     * Creates a controller and registers it to sample the utilization of a VM after every processing update.
+     *
+     * @param vm the VM whose resource is scaled
+     * @param utilizationFunction gives the utilization (from 0 to 1) of the scaled resource, such as {@link Vm#getCpuPercentUtilization()}
+     * @param targetUtilization the utilization (from 0 to 1) to keep the VM at,
+     *                          which must be between the scaling policy thresholds
+     */
+    public PidResourceScaling(final Vm vm, final ToDoubleFunction<Vm> utilizationFunction, final double targetUtilization) {
+        if(targetUtilization <= 0 || targetUtilization > 1){
+            throw new IllegalArgumentException("Target utilization must be in the interval (0, 1]: " + targetUtilization);
+        }
+
+        this.vm = vm;
+        this.utilizationFunction = utilizationFunction;
+        this.targetUtilization = targetUtilization;
+        vm.addOnUpdateProcessingListener(this::onUpdateProcessing);
+    }
+
+    private void onUpdateProcessing(final VmHostEventInfo info) {
+        final double time = info.getTime();
+        if(time == lastTime){
+            return;
+        }
+
+        final double utilization = utilizationFunction.applyAsDouble(vm);
+        final double error = (utilization - targetUtilization) / targetUtilization;
+        if(!Double.isNaN(lastTime)){
+            final double elapsed = time - lastTime;
+            derivative = (error - lastError) / elapsed;
+            //Anti-windup: stops integrating an error that would push the output further beyond its limit
+            if(!(saturated && Math.signum(error) == Math.signum(integral))){
+                integral = Math.max(-integralLimit, Math.min(integral + error * elapsed, integralLimit));
+            }
+        }
+
+        lastTime = time;
+        lastError = error;
+        updateSettling(time, utilization);
+    }
+
+    private void updateSettling(final double time, final double utilization) {
+        final double distance = utilization - targetUtilization;
+        final boolean inBand = Math.abs(distance) <= settlingBand;
+        if(settled){
+            if(!inBand){
+                settled = false;
+                disturbances++;
+                disturbanceStartTime = time;
+                disturbanceSign = (int)Math.signum(distance);
+                enteredBandTime = Double.NaN;
+            }
+
+            return;
+        }
+
+        maxOvershoot = Math.max(maxOvershoot, -disturbanceSign * distance);
+        if(!inBand){
+            enteredBandTime = Double.NaN;
+            return;
+        }
+
+        if(Double.isNaN(enteredBandTime)){
+            enteredBandTime = time;
+        }
+
+        if(time - enteredBandTime >= settlingHold){
+            settled = true;
+            settledDisturbances++;
+            final double settlingTime = enteredBandTime - disturbanceStartTime;
+            settlingTimeSum += settlingTime;
+            maxSettlingTime = Math.max(maxSettlingTime, settlingTime);
+        }
+    }
+
+    @Override
+    public double getResourceAmountToScale(final VerticalVmScaling vmScaling) {
+        final double allocated = vmScaling.getAllocatedResource();
+        final double output = kp * lastError + ki * integral + kd * derivative;
+        final double maxStep = maxStepFactor * allocated;
+        saturated = Math.abs(output) * allocated >= maxStep;
+
+        //The scaling policy thresholds define the direction, which the output must agree with
+        final int direction = vmScaling.isVmUnderloaded() ? -1 : 1;
+        if(Math.signum(output) != direction){
+            return 0;
+        }
+
+        final double limit = direction < 0 ? Math.min(maxStep, allocated - 1) : maxStep;
+        final double amount = Math.min(Math.ceil(Math.abs(output) * allocated), Math.floor(limit));
+        if(amount <= 0){
+            return 0;
+        }
+
+        resizes++;
+        if(lastDirection != 0 && direction != lastDirection){
+            directionChanges++;
+        }
+
+        lastDirection = direction;
+        return amount;
+    }
+
+    /**
+     * Sets the gains of the proportional, integral and derivative terms.
+     *
+     * @param kp the proportional gain
+     * @param ki the integral gain (per second)
+     * @param kd the derivative gain (in seconds)
+     * @return this controller
+     */
+    public PidResourceScaling setGains(final double kp, final double ki, final double kd) {
+        if(kp < 0 || ki < 0 || kd < 0){
+            throw new IllegalArgumentException("Gains cannot be negative");
+        }
+
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+        return this;
+    }
+
+    /**
+     * Sets the largest amount scaled at once, as a fraction of the allocated resource.
+     * @param maxStepFactor the factor to set, where 1 allows doubling the resource
+     * @return this controller
+     */
+    public PidResourceScaling setMaxStepFactor(final double maxStepFactor) {
+        if(maxStepFactor <= 0){
+            throw new IllegalArgumentException("Max step factor must be positive");
+        }
+
+        this.maxStepFactor = maxStepFactor;
+        return this;
+    }
+
+    /**
+     * Sets the largest absolute value of the integrated error (in seconds), avoiding it to grow without bounds
+     * while the resource can't follow the demand.
+     * @param integralLimit the limit to set
+     * @return this controller
+     */
+    public PidResourceScaling setIntegralLimit(final double integralLimit) {
+        if(integralLimit < 0){
+            throw new IllegalArgumentException("Integral limit cannot be negative");
+        }
+
+        this.integralLimit = integralLimit;
+        return this;
+    }
+
+    /**
+     * Sets the distance from the target utilization inside which the utilization is considered settled,
+     * such as half the distance between the scaling thresholds.
+     * @param settlingBand the band to set (from 0 to 1)
+     * @return this controller
+     */
+    public PidResourceScaling setSettlingBand(final double settlingBand) {
+        if(settlingBand < 0){
+            throw new IllegalArgumentException("Settling band cannot be negative");
+        }
+
+        this.settlingBand = settlingBand;
+        return this;
+    }
+
+    /**
+     * Sets how long (in seconds) the utilization must stay inside the settling band to be considered settled.
+     * @param settlingHold the time to set
+     * @return this controller
+     */
+    public PidResourceScaling setSettlingHold(final double settlingHold) {
+        if(settlingHold < 0){
+            throw new IllegalArgumentException("Settling hold cannot be negative");
+        }
+
+        this.settlingHold = settlingHold;
+        return this;
+    }
+
+    /**
+     * @return the number of resizes requested
+     */
+    public int getResizes() {
+        return resizes;
+    }
+
+    /**
+     * @return the number of times a resize was requested in the opposite direction of the previous one
+     */
+    public int getDirectionChanges() {
+        return directionChanges;
+    }
+
+    /**
+     * @return the number of times the utilization left the settling band
+     */
+    public int getDisturbances() {
+        return disturbances;
+    }
+
+    /**
+     * @return the number of times the utilization returned to the settling band and stayed there
+     */
+    public int getSettledDisturbances() {
+        return settledDisturbances;
+    }
+
+    /**
+     * @return the mean time (in seconds) from leaving the settling band to returning to it for good
+     */
+    public double getMeanSettlingTime() {
+        return settledDisturbances == 0 ? 0 : settlingTimeSum / settledDisturbances;
+    }
+
+    public double getMaxSettlingTime() {
+        return maxSettlingTime;
+    }
+
+    /**
+     * @return the largest distance (from 0 to 1) the utilization went beyond the target,
+     *         on the opposite side of where it was when leaving the settling band
+     */
+    public double getMaxOvershoot() {
+        return maxOvershoot;
+    }
+
+    public Vm getVm() {
+        return vm;
+    }
+
+    public double getTargetUtilization() {
+        return targetUtilization;
+    }
+
+    /**
+     * Prints the settling report of the controlled VM.
+     */
+    public void printSettlingReport() {
+        System.out.printf(
+            "Vm %d: target %.0f%% resizes %d (%d direction changes) disturbances %d (%d settled) " +
+            "mean settling %.1fs max settling %.1fs max overshoot %.1f%%%s%n",
+            vm.getId(), targetUtilization * 100, resizes, directionChanges, disturbances, settledDisturbances,
+            getMeanSettlingTime(), maxSettlingTime, maxOvershoot * 100, settled ? "" : " (not settled at the end)");
+    }
+}
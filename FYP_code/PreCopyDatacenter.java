@@ -0,0 +1,145 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A Datacenter whose VM migrations finish after the duration given by a {@link PreCopyMigrationModel},
+ * instead of the time to transfer the VM RAM once.
+ * The estimate of every requested migration is kept, so that write-heavy VMs can be identified
+ * after the simulation.
+ */
+public final class PreCopyDatacenter extends DatacenterSimple {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreCopyDatacenter.class.getSimpleName());
+
+    private final PreCopyMigrationModel migrationModel;
+    private final List<Migration> migrations = new ArrayList<>();
+
+    /**
+     * A requested migration and its estimate.
+     */
+    public static final class Migration {
+        private final double time;
+        private final Vm vm;
+        private final Host source;
+        private final Host target;
+        private final PreCopyMigrationModel.Estimate estimate;
+
+        private Migration(
+            final double time, final Vm vm, final Host source, final Host target,
+            final PreCopyMigrationModel.Estimate estimate)
+        {
+            this.time = time;
+            this.vm = vm;
+            this.source = source;
+            this.target = target;
+            this.estimate = estimate;
+        }
+
+        /**
+         * @return the time the migration was requested
+         */
+        public double getTime() {
+            return time;
+        }
+
+        public Vm getVm() {
+            return vm;
+        }
+
+        public Host getSource() {
+            return source;
+        }
+
+        public Host getTarget() {
+            return target;
+        }
+
+        public PreCopyMigrationModel.Estimate getEstimate() {
+            return estimate;
+        }
+    }
+
+    /**
+     * Creates a Datacenter.
+     *
+     * @param simulation the simulation the Datacenter belongs to
+     * @param hostList the Hosts of the Datacenter
+     * @param vmAllocationPolicy the policy to place VMs into Hosts
+     * @param migrationModel the model estimating VM migrations
+     */
+    public PreCopyDatacenter(
+        final Simulation simulation, final List<? extends Host> hostList,
+        final VmAllocationPolicy vmAllocationPolicy, final PreCopyMigrationModel migrationModel)
+    {
+        super(simulation, hostList, vmAllocationPolicy);
+        this.migrationModel = migrationModel;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The VM is placed into the target Host after the duration of a pre-copy migration.
+     * If no target Host is given, it's selected by the VM allocation policy.
+     */
+    @Override
+    public void requestVmMigration(final Vm sourceVm, final Host targetHost) {
+        final Host target =
+            targetHost == Host.NULL ? getVmAllocationPolicy().findHostForVm(sourceVm).orElse(Host.NULL) : targetHost;
+        final Host source = sourceVm.getHost();
+        if(target == Host.NULL || source == Host.NULL){
+            //the superclass reports the migration that cannot be performed
+            super.requestVmMigration(sourceVm, target);
+            return;
+        }
+
+        final PreCopyMigrationModel.Estimate estimate = estimateMigration(sourceVm, target);
+        if(!target.addMigratingInVm(sourceVm)){
+            LOGGER.warn(
+                "{}: {}: Not enough resources in {} to migrate {} into it.",
+                getSimulation().clockStr(), getName(), target, sourceVm);
+            return;
+        }
+
+        if(getVmAllocationPolicy() instanceof IndexedVmAllocationPolicy){
+            //The target resources were reserved without going through the policy, whose index must be updated
+            ((IndexedVmAllocationPolicy) getVmAllocationPolicy()).refresh(target);
+        }
+
+        source.addVmMigratingOut(sourceVm);
+        migrations.add(new Migration(getSimulation().clock(), sourceVm, source, target, estimate));
+        send(this, estimate.getDuration(), CloudSimTags.VM_MIGRATE, new AbstractMap.SimpleEntry<>(sourceVm, target));
+    }
+
+    /**
+     * Estimates the migration of a VM to a Host if it's requested now.
+     *
+     * @param vm the VM to migrate, which must be placed into a Host
+     * @param target the Host to migrate the VM to
+     * @return the migration estimate
+     */
+    public PreCopyMigrationModel.Estimate estimateMigration(final Vm vm, final Host target) {
+        return migrationModel.estimate(vm, target, getBandwidthPercentForMigration(), getSimulation().clock());
+    }
+
+    /**
+     * @return the estimate of every requested migration, in the order they were requested
+     */
+    public List<Migration> getMigrations() {
+        return Collections.unmodifiableList(migrations);
+    }
+
+    public PreCopyMigrationModel getMigrationModel() {
+        return migrationModel;
+    }
+}
@@ -0,0 +1,207 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletExecution;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.vms.Vm;
+
+/**
+ * Estimates a pre-copy live migration of a VM, instead of the time to transfer its RAM once,
+ * which is how CloudSim Plus computes the migration time.
+ *
+ * <p>The first round transfers the whole VM RAM while the VM keeps running.
+ * Each next round transfers the pages dirtied during the previous one.
+ * Rounds stop when the dirty pages fit the {@code stopCopySize}, when the maximum number of rounds is reached
+ * or when pages are dirtied as fast as they are transferred (so that rounds don't shrink anymore).
+ * Then the VM is paused and the remaining dirty pages are transferred: that is the downtime.</p>
+ *
+ * <p>The dirty rate of a VM is its used RAM, given by the RAM {@link UtilizationModel} of its running Cloudlets,
+ * multiplied by a write rate: the fraction of the used RAM written per second.
+ * Write-heavy VMs need more rounds, transfer more data and have longer downtimes,
+ * up to never converging if they dirty pages faster than the bandwidth.</p>
+ *
+ * @see PreCopyDatacenter
+ */
+public final class PreCopyMigrationModel {
+    private final double writeRate;
+    private final double stopCopySize;
+    private final int maxRounds;
+
+    /**
+     * The outcome of a pre-copy migration.
+     */
+    public static final class Estimate {
+        private final int rounds;
+        private final double transferred;
+        private final double downtime;
+        private final double duration;
+        private final boolean converged;
+
+        private Estimate(
+            final int rounds, final double transferred, final double downtime,
+            final double duration, final boolean converged)
+        {
+            this.rounds = rounds;
+            this.transferred = transferred;
+            this.downtime = downtime;
+            this.duration = duration;
+            this.converged = converged;
+        }
+
+        /**
+         * @return the number of pre-copy rounds, not including the stop-and-copy one
+         */
+        public int getRounds() {
+            return rounds;
+        }
+
+        /**
+         * @return the total data transferred (in MB), including the stop-and-copy round
+         */
+        public double getTransferred() {
+            return transferred;
+        }
+
+        /**
+         * @return the time (in seconds) the VM is paused for the stop-and-copy round
+         */
+        public double getDowntime() {
+            return downtime;
+        }
+
+        /**
+         * @return the time (in seconds) from the migration request to the VM running in the target Host
+         */
+        public double getDuration() {
+            return duration;
+        }
+
+        /**
+         * @return true if the dirty pages fit the stop-and-copy size before the rounds stopped,
+         *         false if the VM was paused with more dirty pages than that
+         */
+        public boolean isConverged() {
+            return converged;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%d rounds, %.2f MB transferred, %.3f s downtime, %.2f s duration%s",
+                rounds, transferred, downtime, duration, converged ? "" : " (not converged)");
+        }
+    }
+
+    /**
+     * Creates a pre-copy migration model.
+     *
+     * @param writeRate the fraction (from 0 to 1) of the used RAM of a VM written per second
+     * @param stopCopySize the dirty pages (in MB) that may be left for the stop-and-copy round
+     * @param maxRounds the maximum number of pre-copy rounds
+     */
+    public PreCopyMigrationModel(final double writeRate, final double stopCopySize, final int maxRounds) {
+        if(writeRate < 0 || writeRate > 1){
+            throw new IllegalArgumentException("Write rate must be in the interval [0, 1]: " + writeRate);
+        }
+
+        if(stopCopySize < 0){
+            throw new IllegalArgumentException("Stop-and-copy size must not be negative: " + stopCopySize);
+        }
+
+        if(maxRounds <= 0){
+            throw new IllegalArgumentException("Max rounds must be positive: " + maxRounds);
+        }
+
+        this.writeRate = writeRate;
+        this.stopCopySize = stopCopySize;
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Estimates the migration of a VM at a given time.
+     *
+     * @param vm the VM to migrate, which must be placed into a Host
+     * @param target the Host to migrate the VM to
+     * @param bandwidthPercent the percentage (from 0 to 1) of the Hosts bandwidth used for migration
+     * @param time the time the migration starts
+     * @return the migration estimate
+     */
+    public Estimate estimate(final Vm vm, final Host target, final double bandwidthPercent, final double time) {
+        final double bw = Math.min(vm.getHost().getBw().getCapacity(), target.getBw().getCapacity());
+        //Bandwidth is in Mb/s, while RAM is in MB
+        return estimate(vm.getRam().getCapacity(), getDirtyRate(vm, time), bw * bandwidthPercent / 8);
+    }
+
+    /**
+     * Estimates the migration of a VM RAM.
+     *
+     * @param ram the VM RAM (in MB)
+     * @param dirtyRate the RAM dirtied per second (in MB/s)
+     * @param bandwidth the bandwidth used for migration (in MB/s)
+     * @return the migration estimate
+     */
+    public Estimate estimate(final double ram, final double dirtyRate, final double bandwidth) {
+        if(bandwidth <= 0){
+            throw new IllegalArgumentException("Bandwidth must be positive: " + bandwidth);
+        }
+
+        double toSend = ram;
+        double transferred = 0;
+        double duration = 0;
+        int rounds = 0;
+        while (rounds < maxRounds && (rounds == 0 || toSend > stopCopySize)) {
+            final double roundTime = toSend / bandwidth;
+            final double dirtied = Math.min(ram, dirtyRate * roundTime);
+            transferred += toSend;
+            duration += roundTime;
+            rounds++;
+            //Further rounds would transfer at least as much as this one
+            final boolean shrinking = dirtied < toSend;
+            toSend = dirtied;
+            if(!shrinking){
+                break;
+            }
+        }
+
+        final double downtime = toSend / bandwidth;
+        return new Estimate(rounds, transferred + toSend, downtime, duration + downtime, toSend <= stopCopySize);
+    }
+
+    /**
+     * Gets the RAM a VM dirties per second at a given time.
+     *
+     * @param vm the VM to get the dirty rate of
+     * @param time the time to get the dirty rate at
+     * @return the dirty rate (in MB/s)
+     */
+    public double getDirtyRate(final Vm vm, final double time) {
+        final double ram = vm.getRam().getCapacity();
+        double used = 0;
+        for (CloudletExecution execution : vm.getCloudletScheduler().getCloudletExecList()) {
+            final Cloudlet cloudlet = execution.getCloudlet();
+            final UtilizationModel model = cloudlet.getUtilizationModelRam();
+            final double utilization = model.getUtilization(time);
+            used += model.getUnit() == UtilizationModel.Unit.ABSOLUTE ? utilization : utilization * ram;
+        }
+
+        return Math.min(ram, used) * writeRate;
+    }
+
+    public double getWriteRate() {
+        return writeRate;
+    }
+
+    public double getStopCopySize() {
+        return stopCopySize;
+    }
+
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("write rate %.4f stop-and-copy %.2f MB max rounds %d", writeRate, stopCopySize, maxRounds);
+    }
+}
@@ -0,0 +1,210 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletExecution;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * An overload predicate for {@link org.cloudsimplus.autoscaling.HorizontalVmScaling} that
+ * forecasts the VM CPU utilization some seconds ahead, instead of checking the current one.
+ * If the horizon is the time a new VM takes to be ready, new VMs are requested
+ * when an overload is expected to happen by the time they boot, not after it has already happened.
+ *
+ * <p>The forecast is the largest of:</p>
+ * <ul>
+ *     <li>the current utilization extrapolated by its trend: the least-squares slope
+ *     of the samples collected each time the predicate is tested, over a window.
+ *     If an autoregressive {@link SvrCpuPredictor} is given, the utilization it predicts
+ *     from such samples is used instead;</li>
+ *     <li>the backlog demand: the length the running and waiting Cloudlets still have to execute,
+ *     as a fraction of what the VM can execute in the horizon.
+ *     Values above 1 mean the VM can't finish its current work within the horizon.</li>
+ * </ul>
+ *
+ * <p>Since the predicate keeps the history of each VM, a new instance must be used for each simulation.
+ * The SVR model can be shared.</p>
+ */
+public final class PredictiveOverloadPredicate implements Predicate<Vm> {
+    public static final int DEFAULT_WINDOW = 6;
+
+    private final double threshold;
+    private final double horizon;
+    private final int window;
+    private final SvrCpuPredictor forecaster;
+
+    /**
+     * Buffer for the features given to the {@link #forecaster}, reused at every forecast.
+     */
+    private final double[] lagFeatures;
+
+    /**
+     * The CPU utilization history of each VM, indexed by VM id.
+     */
+    private final List<BoundedUtilizationHistory> histories = new ArrayList<>();
+
+    /**
+     * Creates a predicate that uses the {@link #DEFAULT_WINDOW}.
+     *
+     * @param threshold the forecast CPU utilization (from 0 to 1) above which a VM is overloaded
+     * @param horizon how many seconds ahead utilization is forecast
+     */
+    public PredictiveOverloadPredicate(final double threshold, final double horizon) {
+        this(threshold, horizon, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Creates a predicate.
+     *
+     * @param threshold the forecast CPU utilization (from 0 to 1) above which a VM is overloaded
+     * @param horizon how many seconds ahead utilization is forecast
+     * @param window the number of recent samples used to compute the utilization trend
+     */
+    public PredictiveOverloadPredicate(final double threshold, final double horizon, final int window) {
+        this(threshold, horizon, window, null);
+    }
+
+    /**
+     * Creates a predicate that forecasts the utilization with an autoregressive SVR model,
+     * {@link SvrCpuPredictor#getHorizon() its horizon} seconds ahead.
+     * The window keeps enough samples to cover the model lags.
+     *
+     * @param threshold the forecast CPU utilization (from 0 to 1) above which a VM is overloaded
+     * @param forecaster the model to predict the utilization with
+     * @param samplingInterval the time (in seconds) between the tests of the predicate, such as the scheduling interval,
+     *                         which can't be longer than the {@link SvrCpuPredictor#getInterval() interval} the model was trained with
+     */
+    public PredictiveOverloadPredicate(final double threshold, final SvrCpuPredictor forecaster, final double samplingInterval) {
+        this(threshold, forecaster.getHorizon(), windowFor(forecaster, samplingInterval), forecaster);
+    }
+
+    private PredictiveOverloadPredicate(final double threshold, final double horizon, final int window, final SvrCpuPredictor forecaster) {
+        if(threshold <= 0 || threshold > 1 || horizon <= 0 || window < 2){
+            throw new IllegalArgumentException("Threshold must be in (0, 1], horizon must be positive and window at least 2");
+        }
+
+        this.threshold = threshold;
+        this.horizon = horizon;
+        this.window = window;
+        this.forecaster = forecaster;
+        this.lagFeatures = forecaster == null ? null : new double[forecaster.getLags()];
+    }
+
+    /**
+     * Computes the number of samples collected every sampling interval that covers the lags of a model.
+     */
+    private static int windowFor(final SvrCpuPredictor forecaster, final double samplingInterval) {
+        if(forecaster.getLags() == 0){
+            throw new IllegalArgumentException("The SVR model must be autoregressive");
+        }
+
+        if(samplingInterval <= 0 || samplingInterval > forecaster.getInterval()){
+            throw new IllegalArgumentException(String.format(
+                "Sampling interval must be positive and not longer than the model interval %.1f: %.1f",
+                forecaster.getInterval(), samplingInterval));
+        }
+
+        return Math.max(2, (int) Math.ceil((forecaster.getLags() - 1) * forecaster.getInterval() / samplingInterval) + 1);
+    }
+
+    @Override
+    public boolean test(final Vm vm) {
+        return forecast(vm) > threshold;
+    }
+
+    /**
+     * Records the current VM CPU utilization and forecasts it {@link #getHorizon() horizon} seconds ahead.
+     * @param vm the VM to forecast the utilization of
+     * @return the forecast CPU utilization (from 0 to 1, or above 1 if the backlog exceeds the VM capacity)
+     */
+    public double forecast(final Vm vm) {
+        final double time = vm.getSimulation().clock();
+        final double utilization = vm.getCpuPercentUtilization();
+        final BoundedUtilizationHistory history = history(vm);
+        if(history.size() == 0 || time > history.getTime(history.size() - 1)){
+            history.add(time, utilization);
+        }
+
+        final double predicted = forecaster == null ?
+            Math.min(1, utilization + trend(history) * horizon) :
+            forecaster.predictAhead(history, lagFeatures);
+        return Math.max(predicted, backlogDemand(vm));
+    }
+
+    private BoundedUtilizationHistory history(final Vm vm) {
+        final int id = (int) vm.getId();
+        while (histories.size() <= id) {
+            histories.add(new BoundedUtilizationHistory(window));
+        }
+
+        return histories.get(id);
+    }
+
+    /**
+     * Computes the least-squares slope of the utilization over time.
+     * @return the utilization change per second, or 0 if there are less than 2 samples
+     */
+    private static double trend(final BoundedUtilizationHistory history) {
+        final int n = history.size();
+        if(n < 2){
+            return 0;
+        }
+
+        double meanTime = 0;
+        double meanUtilization = 0;
+        for (int i = 0; i < n; i++) {
+            meanTime += history.getTime(i);
+            meanUtilization += history.getUtilization(i);
+        }
+        meanTime /= n;
+        meanUtilization /= n;
+
+        double covariance = 0;
+        double timeVariance = 0;
+        for (int i = 0; i < n; i++) {
+            final double dt = history.getTime(i) - meanTime;
+            covariance += dt * (history.getUtilization(i) - meanUtilization);
+            timeVariance += dt * dt;
+        }
+
+        return timeVariance == 0 ? 0 : covariance / timeVariance;
+    }
+
+    /**
+     * Computes the length the VM Cloudlets still have to execute,
+     * as a fraction of the length the VM can execute within the horizon.
+     */
+    private double backlogDemand(final Vm vm) {
+        final double remainingLength =
+            remainingLength(vm.getCloudletScheduler().getCloudletExecList()) +
+            remainingLength(vm.getCloudletScheduler().getCloudletWaitingList());
+        return remainingLength / (vm.getTotalMipsCapacity() * horizon);
+    }
+
+    private static double remainingLength(final List<CloudletExecution> list) {
+        double length = 0;
+        for (CloudletExecution cle : list) {
+            final Cloudlet cloudlet = cle.getCloudlet();
+            length += (cloudlet.getLength() - cloudlet.getFinishedLengthSoFar()) * cloudlet.getNumberOfPes();
+        }
+
+        return length;
+    }
+
+    /**
+     * @return the forecast CPU utilization (from 0 to 1) above which a VM is overloaded
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @return how many seconds ahead utilization is forecast
+     */
+    public double getHorizon() {
+        return horizon;
+    }
+}
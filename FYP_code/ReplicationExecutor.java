@@ -0,0 +1,506 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudsimplus.util.Log;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+/**
+ * Runs independent replications of {@link AutoscalingScenario}s concurrently, one per thread.
+ * Each replication has its own {@link org.cloudbus.cloudsim.core.CloudSim} instance and seed,
+ * and everything it prints is written to its own file inside an output directory.
+ *
+ * <p>Seeds are derived from a base seed and the replication number,
+ * and the summary is sorted by scenario name and replication number.
+ * This way, the results don't depend on the number of threads or on the order runs finish.</p>
+ *
+ * <p>Scenarios that ignore the seed would give the same results for every replication,
+ * so they can't be replicated more than once (see {@link ScenarioType#isSeeded()}).</p>
+ *
+ * <p>The {@link #main(String[])} method replicates the scenarios run by the {@code test} class,
+ * running the ones that ignore the seed just once.
+ * Its optional arguments are the number of replications (default 1), the number of threads
+ * (default: available processors) and the output directory (default: {@code replications}).</p>
+ */
+public final class ReplicationExecutor {
+    /**
+     * Header of the CSV summary written by {@link #printSummary(List, PrintStream)}.
+     */
+    public static final String HEADER =
+        "scenario,replication,seed,wall_clock_ms,simulated_time,finished_cloudlets,created_vms,mean_wait_time,mean_exec_time";
+
+    private final int threads;
+    private final Path outputDir;
+
+    /**
+     * A replication to run: a named scenario built from a seed.
+     */
+    public static final class Replication {
+        private final String name;
+        private final int number;
+        private final long seed;
+        private final LongFunction<AutoscalingScenario> factory;
+
+        /**
+         * Creates a replication.
+         * @param name the scenario name
+         * @param number the replication number, used to identify it among replications of the same scenario
+         * @param seed the seed to build the scenario with
+         * @param factory a function that builds the scenario from the seed
+         */
+        public Replication(final String name, final int number, final long seed, final LongFunction<AutoscalingScenario> factory) {
+            this.name = name;
+            this.number = number;
+            this.seed = seed;
+            this.factory = factory;
+        }
+
+        /**
+         * Creates replications of a scenario, the first one using the base seed and the next ones
+         * incrementing it.
+         *
+         * @param name the scenario name
+         * @param replications the number of replications
+         * @param baseSeed the seed of the first replication
+         * @param factory a function that builds the scenario from a seed
+         * @return the list of replications
+         */
+        public static List<Replication> of(
+            final String name, final int replications,
+            final long baseSeed, final LongFunction<AutoscalingScenario> factory)
+        {
+            final List<Replication> list = new ArrayList<>(replications);
+            for (int i = 0; i < replications; i++) {
+                list.add(new Replication(name, i, baseSeed + i, factory));
+            }
+
+            return list;
+        }
+
+        /**
+         * Creates replications of a scenario type with its default size, the first one using the base seed
+         * and the next ones incrementing it.
+         *
+         * @param name the scenario name
+         * @param type the type of scenario to build
+         * @param replications the number of replications, which must be 1 if the scenario ignores the seed
+         * @param baseSeed the seed of the first replication
+         * @return the list of replications
+         * @throws IllegalArgumentException if more than one replication of a scenario that ignores the seed is requested
+         */
+        public static List<Replication> of(
+            final String name, final ScenarioType type, final int replications, final long baseSeed)
+        {
+            if(replications > 1 && !type.isSeeded()){
+                throw new IllegalArgumentException(
+                    type + " ignores the seed, so its " + replications + " replications would be identical");
+            }
+
+            return of(name, replications, baseSeed, seed -> type.create(type.getDefaultSize(), seed));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+    }
+
+    /**
+     * The measurements of a finished replication.
+     */
+    public static final class Result {
+        private final Replication replication;
+        private final double wallClockMs;
+        private final double simulatedTime;
+        private final int finishedCloudlets;
+        private final int createdVms;
+        private final double meanWaitTime;
+        private final double meanExecTime;
+
+        private Result(final Replication replication, final AutoscalingScenario scenario, final double wallClockMs) {
+            this.replication = replication;
+            this.wallClockMs = wallClockMs;
+            this.simulatedTime = scenario.getSimulation().clock();
+            final List<Cloudlet> finished = scenario.getBroker().getCloudletFinishedList();
+            this.finishedCloudlets = finished.size();
+            this.createdVms = scenario.getBroker().getVmCreatedList().size();
+            this.meanWaitTime = finished.stream().mapToDouble(Cloudlet::getWaitingTime).average().orElse(0);
+            this.meanExecTime = finished.stream().mapToDouble(Cloudlet::getActualCpuTime).average().orElse(0);
+        }
+
+        public Replication getReplication() {
+            return replication;
+        }
+
+        public double getWallClockMs() {
+            return wallClockMs;
+        }
+
+        public double getSimulatedTime() {
+            return simulatedTime;
+        }
+
+        public int getFinishedCloudlets() {
+            return finishedCloudlets;
+        }
+
+        public int getCreatedVms() {
+            return createdVms;
+        }
+
+        public double getMeanWaitTime() {
+            return meanWaitTime;
+        }
+
+        public double getMeanExecTime() {
+            return meanExecTime;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                Locale.ROOT, "%s,%d,%d,%.3f,%.2f,%d,%d,%.4f,%.4f",
+                replication.name, replication.number, replication.seed, wallClockMs, simulatedTime,
+                finishedCloudlets, createdVms, meanWaitTime, meanExecTime);
+        }
+    }
+
+    /**
+     * A print stream that forwards every call to a different print stream for each thread,
+     * enabling concurrent simulations to print to separate files.
+     * Threads with no stream set print to a default one.
+     *
+     * <p>All methods are overridden, so that the lock of this stream is never taken
+     * and threads only synchronize on their own stream.</p>
+     */
+    private static final class ThreadPrintStream extends PrintStream {
+        private final PrintStream defaultStream;
+        private final ThreadLocal<PrintStream> streams = new ThreadLocal<>();
+
+        private ThreadPrintStream(final PrintStream defaultStream) {
+            super(defaultStream);
+            this.defaultStream = defaultStream;
+        }
+
+        private PrintStream current() {
+            final PrintStream stream = streams.get();
+            return stream == null ? defaultStream : stream;
+        }
+
+        @Override
+        public void write(final int b) {
+            current().write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            current().write(b, off, len);
+        }
+
+        @Override
+        public void write(final byte[] b) throws IOException {
+            current().write(b);
+        }
+
+        @Override
+        public void flush() {
+            current().flush();
+        }
+
+        @Override
+        public void close() {
+            current().flush();
+        }
+
+        @Override
+        public boolean checkError() {
+            return current().checkError();
+        }
+
+        @Override
+        public void print(final boolean b) {
+            current().print(b);
+        }
+
+        @Override
+        public void print(final char c) {
+            current().print(c);
+        }
+
+        @Override
+        public void print(final int i) {
+            current().print(i);
+        }
+
+        @Override
+        public void print(final long l) {
+            current().print(l);
+        }
+
+        @Override
+        public void print(final float f) {
+            current().print(f);
+        }
+
+        @Override
+        public void print(final double d) {
+            current().print(d);
+        }
+
+        @Override
+        public void print(final char[] s) {
+            current().print(s);
+        }
+
+        @Override
+        public void print(final String s) {
+            current().print(s);
+        }
+
+        @Override
+        public void print(final Object obj) {
+            current().print(obj);
+        }
+
+        @Override
+        public void println() {
+            current().println();
+        }
+
+        @Override
+        public void println(final boolean x) {
+            current().println(x);
+        }
+
+        @Override
+        public void println(final char x) {
+            current().println(x);
+        }
+
+        @Override
+        public void println(final int x) {
+            current().println(x);
+        }
+
+        @Override
+        public void println(final long x) {
+            current().println(x);
+        }
+
+        @Override
+        public void println(final float x) {
+            current().println(x);
+        }
+
+        @Override
+        public void println(final double x) {
+            current().println(x);
+        }
+
+        @Override
+        public void println(final char[] x) {
+            current().println(x);
+        }
+
+        @Override
+        public void println(final String x) {
+            current().println(x);
+        }
+
+        @Override
+        public void println(final Object x) {
+            current().println(x);
+        }
+
+        @Override
+        public PrintStream printf(final String format, final Object... args) {
+            current().printf(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream printf(final Locale l, final String format, final Object... args) {
+            current().printf(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(final String format, final Object... args) {
+            current().format(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(final Locale l, final String format, final Object... args) {
+            current().format(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(final CharSequence csq) {
+            current().append(csq);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(final CharSequence csq, final int start, final int end) {
+            current().append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(final char c) {
+            current().append(c);
+            return this;
+        }
+    }
+
+    public static void main(String[] args) {
+        final int replications = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        final int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final Path outputDir = Paths.get(args.length > 2 ? args[2] : "replications");
+
+        final List<Replication> list = new ArrayList<>();
+        list.addAll(replicate("LoadBalancerByHorizontalVmScalingExample", ScenarioType.HORIZONTAL_LOAD_BALANCER, replications));
+        list.addAll(replicate("VerticalVmCpuScalingDynamicThreshold", ScenarioType.VERTICAL_CPU_DYNAMIC_THRESHOLD, replications));
+        list.addAll(replicate("ManualMigrationExample1", ScenarioType.MANUAL_MIGRATION, replications));
+        //The trace is replayed as is, so the scenario is the same for every seed
+        list.add(new Replication("GoogleMachineEventsExample1", 0, ScenarioType.DEFAULT_SEED,
+            seed -> new GoogleMachineEventsExample1("workload/google-traces/task_usage_predicted.csv")));
+
+        final List<Result> results = new ReplicationExecutor(threads, outputDir).run(list);
+        printSummary(results, System.out);
+    }
+
+    /**
+     * Creates the replications of a scenario type, or a single one if it ignores the seed.
+     */
+    private static List<Replication> replicate(final String name, final ScenarioType type, final int replications) {
+        return Replication.of(name, type, type.isSeeded() ? replications : 1, ScenarioType.DEFAULT_SEED);
+    }
+
+    /**
+     * Creates an executor.
+     * @param threads the maximum number of replications to run concurrently
+     * @param outputDir the directory where the output of each replication is written to
+     */
+    public ReplicationExecutor(final int threads, final Path outputDir) {
+        if(threads <= 0){
+            throw new IllegalArgumentException("The number of threads must be positive");
+        }
+
+        this.threads = threads;
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * Runs replications concurrently, waiting for all of them to finish.
+     * The output of each one is written to a {@code <name>-<number>.txt} file.
+     * Simulation logs are disabled while running, since they can't be separated by replication.
+     * The log level and the standard output are restored when this method returns.
+     *
+     * @param replications the replications to run
+     * @return the results sorted by scenario name and replication number
+     */
+    public List<Result> run(final List<Replication> replications) {
+        try {
+            Files.createDirectories(outputDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final Level logLevel = ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).getLevel();
+        final PrintStream stdout = System.out;
+        final ThreadPrintStream threadOutput = new ThreadPrintStream(stdout);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Log.setLevel(Level.OFF);
+        System.setOut(threadOutput);
+        try {
+            final List<Future<Result>> futures = new ArrayList<>(replications.size());
+            for (Replication replication : replications) {
+                futures.add(executor.submit(() -> run(replication, threadOutput)));
+            }
+
+            final List<Result> results = new ArrayList<>(futures.size());
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+
+            results.sort(
+                Comparator.comparing((Result r) -> r.replication.name)
+                          .thenComparingInt(r -> r.replication.number));
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for replications", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A replication failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            System.setOut(stdout);
+            Log.setLevel(logLevel);
+        }
+    }
+
+    private Result run(final Replication replication, final ThreadPrintStream threadOutput) throws IOException {
+        final Path file = outputDir.resolve(String.format("%s-%d.txt", replication.name, replication.number));
+        try(PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            threadOutput.streams.set(out);
+            final Result result;
+            try {
+                final long start = System.nanoTime();
+                try(AutoscalingScenario scenario = replication.factory.apply(replication.seed)) {
+                    scenario.start();
+                    final double wallClockMs = (System.nanoTime() - start) / 1e6;
+                    scenario.printSimulationResults();
+                    result = new Result(replication, scenario, wallClockMs);
+                }
+            } finally {
+                threadOutput.streams.remove();
+                out.flush();
+            }
+
+            //PrintStream swallows IOExceptions, so they are only known by checking it
+            if(out.checkError()){
+                throw new IOException("Could not write the output of the replication to " + file);
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Prints the results as a CSV table.
+     * @param results the results to print
+     * @param out where to print the results
+     */
+    public static void printSummary(final List<Result> results, final PrintStream out) {
+        out.println(HEADER);
+        results.forEach(out::println);
+    }
+}
@@ -0,0 +1,99 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import ch.qos.logback.classic.Level;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudsimplus.util.Log;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares the reactive and the {@link PredictiveOverloadPredicate predictive} horizontal scale-out
+ * of the {@link LoadBalancerByHorizontalVmScalingExample} under bursty Cloudlet arrivals,
+ * when VMs created on demand take some time to boot.
+ * Each policy is run with VMs scaled independently and {@link ScalingCoordinator coordinated} as a group.
+ *
+ * <p>Since the example uses a time-shared Cloudlet scheduler, Cloudlets start as soon as they arrive
+ * and wait for CPU while sharing PEs with other Cloudlets, instead of waiting in a queue.
+ * Therefore, the wait time of a Cloudlet is measured as its response time (from arrival to finish)
+ * minus the time it would take to execute alone in its VM.</p>
+ *
+ * <p>The optional arguments of {@link #main(String[])} are the number of replications (default 5),
+ * the VM boot delay (default 20 seconds), the number of bursts (default 8),
+ * the interval between bursts (default 15 seconds), the Cloudlets per burst (default 12)
+ * and an autoregressive SVR model file exported by the {@code Implementation_SVRT} notebook.
+ * If the model is given, the predictive policy forecasting the utilization by the model is compared too.
+ * The results are printed as CSV, one line per policy and replication.</p>
+ */
+public final class ScaleOutPolicyComparison {
+    public static final String HEADER =
+        "policy,seed,finished_cloudlets,created_vms,mean_wait_time,p95_wait_time,p95_response_time";
+
+    public static void main(String[] args) {
+        final int replications = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        final double bootDelay = args.length > 1 ? Double.parseDouble(args[1]) : 20;
+        final int burstCount = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        final double interval = args.length > 3 ? Double.parseDouble(args[3]) : 15;
+        final int cloudletsPerBurst = args.length > 4 ? Integer.parseInt(args[4]) : 12;
+        final SvrCpuPredictor forecaster = args.length > 5 ? SvrCpuPredictor.load(Paths.get(args[5])) : null;
+
+        final CloudletBursts bursts = new CloudletBursts(10, interval, burstCount, cloudletsPerBurst);
+        final HorizontalScalingParameters reactive = new HorizontalScalingParameters(0.7, false, bootDelay);
+        final HorizontalScalingParameters predictive = new HorizontalScalingParameters(0.7, true, bootDelay);
+        final double cooldown = bootDelay + 10;
+        final HorizontalScalingParameters coordinatedReactive = new HorizontalScalingParameters(0.7, false, bootDelay, 0.5, cooldown);
+        final HorizontalScalingParameters coordinatedPredictive = new HorizontalScalingParameters(0.7, true, bootDelay, 0.5, cooldown);
+
+        Log.setLevel(Level.OFF);
+        System.out.println(HEADER);
+        for (long seed = ScenarioType.DEFAULT_SEED; seed < ScenarioType.DEFAULT_SEED + replications; seed++) {
+            System.out.println(run("reactive", seed, reactive, bursts));
+            System.out.println(run("predictive", seed, predictive, bursts));
+            if(forecaster != null){
+                System.out.println(run("predictive-svr", seed, predictive.withForecaster(forecaster), bursts));
+            }
+            System.out.println(run("coordinated-reactive", seed, coordinatedReactive, bursts));
+            System.out.println(run("coordinated-predictive", seed, coordinatedPredictive, bursts));
+        }
+    }
+
+    private static String run(final String policy, final long seed, final HorizontalScalingParameters scaling, final CloudletBursts bursts) {
+        try(LoadBalancerByHorizontalVmScalingExample scenario = new LoadBalancerByHorizontalVmScalingExample(
+            LoadBalancerByHorizontalVmScalingExample.DEFAULT_SIZE, seed, () -> VmFlavor.DEFAULT, scaling, bursts))
+        {
+            scenario.start();
+            final List<Cloudlet> finished = scenario.getBroker().getCloudletFinishedList();
+            final double[] waitTimes = new double[finished.size()];
+            final double[] responseTimes = new double[finished.size()];
+            for (int i = 0; i < waitTimes.length; i++) {
+                final Cloudlet cloudlet = finished.get(i);
+                responseTimes[i] = cloudlet.getFinishTime() - cloudlet.getLastDatacenterArrivalTime();
+                waitTimes[i] = Math.max(0, responseTimes[i] - cloudlet.getLength() / cloudlet.getVm().getMips());
+            }
+
+            return String.format(
+                Locale.ROOT, "%s,%d,%d,%d,%.4f,%.4f,%.4f",
+                policy, seed, finished.size(), scenario.getBroker().getVmCreatedList().size(),
+                Arrays.stream(waitTimes).average().orElse(0), percentile(waitTimes, 0.95), percentile(responseTimes, 0.95));
+        }
+    }
+
+    /**
+     * Computes a percentile using the nearest-rank method.
+     *
+     * @param values the values to compute the percentile of (they are sorted in place)
+     * @param percentile the percentile (from 0 to 1)
+     * @return the smallest value greater than or equal to the given percentage of values, or 0 if there are no values
+     */
+    static double percentile(final double[] values, final double percentile) {
+        if(values.length == 0){
+            return 0;
+        }
+
+        Arrays.sort(values);
+        final int rank = (int) Math.ceil(percentile * values.length);
+        return values[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,229 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import ch.qos.logback.classic.Level;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudsimplus.util.Log;
+
+import java.io.FileNotFoundException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Runs {@link AutoscalingScenario}s over geometrically growing numbers of Hosts and VMs,
+ * recording the wall-clock time, processed events per second and peak heap usage of each run.
+ * It enables finding where a simulation stops scaling linearly.
+ *
+ * <p>Results are written as a CSV table (one row per run) to the standard output
+ * or to the file given by the {@code --output} argument.
+ * All the arguments are optional:</p>
+ * <pre>
+ * --scenarios=VERTICAL_CPU_SCALING,HORIZONTAL_LOAD_BALANCER  (default: all {@link ScenarioType}s)
+ * --hosts=10:100000       first and last number of Hosts
+ * --vms=1:50000           first and last number of VMs
+ * --factor=10             growth factor between two consecutive sizes
+ * --cloudlets-per-vm=2    number of Cloudlets created for each VM
+ * --output=sweep.csv      file to write the table to
+ * </pre>
+ *
+ * <p>Sizes which aren't an exact power of the factor are clamped to the last value,
+ * so {@code --vms=1:50000} runs 1, 10, 100, 1000, 10000 and 50000 VMs.
+ * Simulation logs and the scenarios' own output are discarded during the runs.</p>
+ */
+public final class ScaleSweepRunner {
+    /**
+     * Header of the CSV table written by the runner.
+     */
+    public static final String HEADER =
+        "scenario,hosts,vms,cloudlets,setup_ms,simulation_ms,events,events_per_sec,peak_heap_mb,simulated_time";
+
+    private final List<ScenarioType> scenarios;
+    private final long[] hostsSizes;
+    private final long[] vmsSizes;
+    private final int cloudletsPerVm;
+
+    /**
+     * A counter incremented by the event processing listener of the running simulation.
+     */
+    private long processedEvents;
+
+    public static void main(String[] args) throws FileNotFoundException {
+        List<ScenarioType> scenarios = Arrays.asList(ScenarioType.values());
+        long[] hosts = {10, 100_000};
+        long[] vms = {1, 50_000};
+        int factor = 10;
+        int cloudletsPerVm = 2;
+        String output = null;
+
+        for (String arg : args) {
+            final String[] pair = arg.split("=", 2);
+            if(pair.length != 2){
+                throw new IllegalArgumentException("Arguments must be in the format --name=value: " + arg);
+            }
+
+            switch (pair[0]) {
+                case "--scenarios":
+                    scenarios = Arrays.stream(pair[1].split(",")).map(ScenarioType::valueOf).collect(Collectors.toList());
+                    break;
+                case "--hosts": hosts = parseRange(pair[1]); break;
+                case "--vms": vms = parseRange(pair[1]); break;
+                case "--factor": factor = Integer.parseInt(pair[1]); break;
+                case "--cloudlets-per-vm": cloudletsPerVm = Integer.parseInt(pair[1]); break;
+                case "--output": output = pair[1]; break;
+                default: throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        final ScaleSweepRunner runner =
+            new ScaleSweepRunner(scenarios, geometricSeries(hosts, factor), geometricSeries(vms, factor), cloudletsPerVm);
+        if(output == null){
+            runner.run(System.out);
+            return;
+        }
+
+        try(PrintStream out = new PrintStream(output)) {
+            runner.run(out);
+        }
+    }
+
+    /**
+     * Creates a runner that executes every scenario for every combination of the given numbers of Hosts and VMs.
+     *
+     * @param scenarios the scenarios to run
+     * @param hostsSizes the numbers of Hosts to run each scenario with
+     * @param vmsSizes the numbers of VMs to run each scenario with
+     * @param cloudletsPerVm the number of Cloudlets to create for each VM
+     */
+    public ScaleSweepRunner(
+        final List<ScenarioType> scenarios, final long[] hostsSizes,
+        final long[] vmsSizes, final int cloudletsPerVm)
+    {
+        if(cloudletsPerVm <= 0){
+            throw new IllegalArgumentException("Cloudlets per VM must be positive");
+        }
+
+        this.scenarios = new ArrayList<>(scenarios);
+        this.hostsSizes = hostsSizes.clone();
+        this.vmsSizes = vmsSizes.clone();
+        this.cloudletsPerVm = cloudletsPerVm;
+    }
+
+    /**
+     * Runs the whole sweep, printing the table header and one row as soon as each run finishes,
+     * so that partial results are kept if a large run exhausts the heap.
+     *
+     * @param out where to print the CSV table
+     */
+    public void run(final PrintStream out) {
+        out.println(HEADER);
+        out.flush();
+
+        Log.setLevel(Level.OFF);
+        final PrintStream stdout = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(final int b) {
+                //discards the scenarios output
+            }
+        }));
+
+        try {
+            for (ScenarioType type : scenarios) {
+                for (long hosts : hostsSizes) {
+                    for (long vms : vmsSizes) {
+                        final ScenarioSize size = new ScenarioSize((int) hosts, (int) vms, (int) vms * cloudletsPerVm);
+                        out.println(run(type, size));
+                        out.flush();
+                    }
+                }
+            }
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+
+    /**
+     * Runs a single scenario.
+     *
+     * @param type the scenario to run
+     * @param size the scenario size
+     * @return a CSV row with the measurements of the run
+     */
+    private String run(final ScenarioType type, final ScenarioSize size) {
+        final List<MemoryPoolMXBean> heapPools = getHeapPools();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        final long setupStart = System.nanoTime();
+        final CloudSim simulation;
+        final long simulationStart;
+        final long simulationEnd;
+        try(AutoscalingScenario scenario = type.create(size)) {
+            simulation = scenario.getSimulation();
+            processedEvents = 0;
+            simulation.addOnEventProcessingListener(evt -> processedEvents++);
+            simulationStart = System.nanoTime();
+            scenario.start();
+            simulationEnd = System.nanoTime();
+        }
+
+        final long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        final double simulationSecs = (simulationEnd - simulationStart) / 1e9;
+        return String.format(
+            Locale.ROOT, "%s,%d,%d,%d,%.3f,%.3f,%d,%.1f,%.1f,%.2f",
+            type, size.getHosts(), size.getVms(), size.getCloudlets(),
+            (simulationStart - setupStart) / 1e6, simulationSecs * 1000,
+            processedEvents, processedEvents / simulationSecs,
+            peakHeap / (1024.0 * 1024.0), simulation.clock());
+    }
+
+    private static List<MemoryPoolMXBean> getHeapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans()
+                                .stream()
+                                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parses a range in the format {@code first:last}.
+     * @param range the range to parse
+     * @return a two-positions array with the first and last values
+     */
+    private static long[] parseRange(final String range) {
+        final String[] values = range.split(":");
+        if(values.length != 2){
+            throw new IllegalArgumentException("Ranges must be in the format first:last: " + range);
+        }
+
+        return new long[]{Long.parseLong(values[0]), Long.parseLong(values[1])};
+    }
+
+    /**
+     * Generates the values from a range, each one being the previous multiplied by a factor.
+     *
+     * @param range a two-positions array with the first and last values
+     * @param factor the growth factor
+     * @return the series values, the last one being always the last value of the range
+     */
+    public static long[] geometricSeries(final long[] range, final int factor) {
+        if(range[0] <= 0 || range[1] < range[0] || factor <= 1){
+            throw new IllegalArgumentException(
+                String.format("Invalid geometric series from %d to %d with factor %d", range[0], range[1], factor));
+        }
+
+        final List<Long> series = new ArrayList<>();
+        for (long value = range[0]; value < range[1]; value *= factor) {
+            series.add(value);
+        }
+        series.add(range[1]);
+
+        return series.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,248 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.listeners.EventInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Scales out the group of VMs running in a broker as a whole, instead of each VM
+ * requesting its own new VM through a {@link org.cloudsimplus.autoscaling.HorizontalVmScaling}.
+ * With per-VM scaling, every overloaded VM requests a new VM at every scheduling interval,
+ * until the new ones are running. That creates far more VMs than required,
+ * mainly when the interval is small or VMs take time to boot.
+ *
+ * <p>At every {@link #setCheckInterval(double) check interval}, the coordinator computes the
+ * aggregate CPU demand of the group: the demand of each running VM (given by a demand estimator,
+ * such as its current or {@link PredictiveOverloadPredicate#forecast(Vm) forecast} utilization)
+ * weighted by its PEs, divided by the PEs of the running VMs plus the VMs requested but not yet running.
+ * If it's above the {@link #setUpperThreshold(double) upper threshold}, a single batch of VMs is requested,
+ * sized to bring the aggregate utilization down to the {@link #setTargetUtilization(double) target}.</p>
+ *
+ * <p>The gap between the upper threshold and the target is a hysteresis band:
+ * after scaling out, demand must grow by such a margin before more VMs are requested.
+ * In addition, no VM is requested during a {@link #setCooldown(double) cooldown} after a scale-out,
+ * giving time for the new VMs to boot and take load.
+ * Scale-in is left to the broker, which destroys idle VMs.</p>
+ */
+public final class ScalingCoordinator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScalingCoordinator.class.getSimpleName());
+
+    private final DatacenterBroker broker;
+    private final Supplier<Vm> vmSupplier;
+    private final ToDoubleFunction<Vm> demandEstimator;
+
+    private double upperThreshold = 0.7;
+    private double targetUtilization = 0.5;
+    private double cooldown = 30;
+    private double checkInterval = 5;
+    private double pendingTimeout = 60;
+    private int maxBatchSize = Integer.MAX_VALUE;
+
+    /**
+     * VMs requested but not running yet.
+     */
+    private final List<PendingVm> pendingVms = new ArrayList<>();
+    private double lastScaleOutTime = Double.NEGATIVE_INFINITY;
+    private double lastCheckTime = Double.NEGATIVE_INFINITY;
+    private int scaleOuts;
+    private int requestedVms;
+
+    /**
+     * Creates a coordinator and registers it to be checked as the simulation clock advances.
+     *
+     * @param broker the broker whose running VMs are the group to scale
+     * @param vmSupplier creates each new VM to be requested
+     * @param demandEstimator gives the CPU demand (from 0 to 1, or above 1 if there is more work than capacity) of a VM
+     */
+    public ScalingCoordinator(final DatacenterBroker broker, final Supplier<Vm> vmSupplier, final ToDoubleFunction<Vm> demandEstimator) {
+        this.broker = broker;
+        this.vmSupplier = vmSupplier;
+        this.demandEstimator = demandEstimator;
+        broker.getSimulation().addOnClockTickListener(this::onClockTick);
+    }
+
+    private void onClockTick(final EventInfo info) {
+        final double time = info.getTime();
+        if(time - lastCheckTime < checkInterval){
+            return;
+        }
+
+        lastCheckTime = time;
+        check(time);
+    }
+
+    private void check(final double time) {
+        removeStartedPendingVms(time);
+
+        double demandPes = 0;
+        double runningPes = 0;
+        for (Vm vm : broker.getVmExecList()) {
+            demandPes += demandEstimator.applyAsDouble(vm) * vm.getNumberOfPes();
+            runningPes += vm.getNumberOfPes();
+        }
+
+        double pendingPes = 0;
+        for (PendingVm pending : pendingVms) {
+            pendingPes += pending.vm.getNumberOfPes();
+        }
+
+        final double capacityPes = runningPes + pendingPes;
+        if(capacityPes == 0 || demandPes / capacityPes <= upperThreshold || time - lastScaleOutTime < cooldown){
+            return;
+        }
+
+        final double deficitPes = demandPes / targetUtilization - capacityPes;
+        final List<Vm> batch = new ArrayList<>();
+        for (double addedPes = 0; addedPes < deficitPes && batch.size() < maxBatchSize; ) {
+            final Vm vm = vmSupplier.get();
+            batch.add(vm);
+            addedPes += vm.getNumberOfPes();
+        }
+
+        if(batch.isEmpty()){
+            return;
+        }
+
+        if(LOGGER.isDebugEnabled()) {
+            LOGGER.debug(String.format(
+                "%.2f: Group utilization %.2f above %.2f. Requesting %d VMs at once",
+                time, demandPes / capacityPes, upperThreshold, batch.size()));
+        }
+
+        for (Vm vm : batch) {
+            pendingVms.add(new PendingVm(vm, time));
+        }
+        broker.submitVmList(batch);
+        lastScaleOutTime = time;
+        scaleOuts++;
+        requestedVms += batch.size();
+    }
+
+    /**
+     * Removes from the pending VMs the ones already running or that have timed out.
+     */
+    private void removeStartedPendingVms(final double time) {
+        pendingVms.removeIf(pending -> pending.vm.isCreated() || time - pending.requestTime > pendingTimeout);
+    }
+
+    /**
+     * A VM requested but not running yet and the time it was requested.
+     */
+    private static final class PendingVm {
+        private final Vm vm;
+        private final double requestTime;
+
+        private PendingVm(final Vm vm, final double requestTime) {
+            this.vm = vm;
+            this.requestTime = requestTime;
+        }
+    }
+
+    /**
+     * Sets the aggregate CPU utilization (from 0 to 1) above which the group is scaled out.
+     * @param upperThreshold the threshold to set
+     * @return this coordinator
+     */
+    public ScalingCoordinator setUpperThreshold(final double upperThreshold) {
+        if(upperThreshold <= 0 || upperThreshold > 1){
+            throw new IllegalArgumentException("Upper threshold must be in the interval (0, 1]: " + upperThreshold);
+        }
+
+        this.upperThreshold = upperThreshold;
+        return this;
+    }
+
+    /**
+     * Sets the aggregate CPU utilization (from 0 to 1) a scale-out aims at,
+     * which must not be higher than the upper threshold.
+     * @param targetUtilization the target utilization to set
+     * @return this coordinator
+     */
+    public ScalingCoordinator setTargetUtilization(final double targetUtilization) {
+        if(targetUtilization <= 0 || targetUtilization > upperThreshold){
+            throw new IllegalArgumentException("Target utilization must be in the interval (0, upper threshold]: " + targetUtilization);
+        }
+
+        this.targetUtilization = targetUtilization;
+        return this;
+    }
+
+    /**
+     * Sets the time (in seconds) after a scale-out during which no VM is requested.
+     * @param cooldown the cooldown to set
+     * @return this coordinator
+     */
+    public ScalingCoordinator setCooldown(final double cooldown) {
+        if(cooldown < 0){
+            throw new IllegalArgumentException("Cooldown must not be negative: " + cooldown);
+        }
+
+        this.cooldown = cooldown;
+        return this;
+    }
+
+    /**
+     * Sets the minimum time (in seconds) between checks of the group utilization,
+     * usually the Datacenter scheduling interval.
+     * @param checkInterval the interval to set
+     * @return this coordinator
+     */
+    public ScalingCoordinator setCheckInterval(final double checkInterval) {
+        if(checkInterval < 0){
+            throw new IllegalArgumentException("Check interval must not be negative: " + checkInterval);
+        }
+
+        this.checkInterval = checkInterval;
+        return this;
+    }
+
+    /**
+     * Sets the time (in seconds) after which a requested VM that is not running yet,
+     * including its boot delay, is assumed to have failed and stops counting as capacity.
+     * @param pendingTimeout the timeout to set
+     * @return this coordinator
+     */
+    public ScalingCoordinator setPendingTimeout(final double pendingTimeout) {
+        if(pendingTimeout <= 0){
+            throw new IllegalArgumentException("Pending timeout must be positive: " + pendingTimeout);
+        }
+
+        this.pendingTimeout = pendingTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of VMs requested in a single scale-out.
+     * @param maxBatchSize the maximum batch size to set
+     * @return this coordinator
+     */
+    public ScalingCoordinator setMaxBatchSize(final int maxBatchSize) {
+        if(maxBatchSize <= 0){
+            throw new IllegalArgumentException("Max batch size must be positive: " + maxBatchSize);
+        }
+
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * @return the number of batches of VMs requested so far
+     */
+    public int getScaleOuts() {
+        return scaleOuts;
+    }
+
+    /**
+     * @return the total number of VMs requested so far
+     */
+    public int getRequestedVms() {
+        return requestedVms;
+    }
+}
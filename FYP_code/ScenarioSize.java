@@ -0,0 +1,49 @@
+package org.cloudsimplus.examples.autoscaling;
+
+/**
+ * The number of Hosts, VMs and Cloudlets an {@link AutoscalingScenario} is built with.
+ * It enables the same scenario to be executed at different scales,
+ * instead of relying only on its hard-coded constants.
+ *
+ * @see ScenarioType#getDefaultSize()
+ */
+public final class ScenarioSize {
+    private final int hosts;
+    private final int vms;
+    private final int cloudlets;
+
+    /**
+     * Creates a ScenarioSize.
+     *
+     * @param hosts number of Hosts to create
+     * @param vms number of VMs to initially submit
+     * @param cloudlets number of Cloudlets to initially submit
+     */
+    public ScenarioSize(final int hosts, final int vms, final int cloudlets) {
+        if(hosts <= 0 || vms <= 0 || cloudlets <= 0){
+            throw new IllegalArgumentException(
+                String.format("Hosts, VMs and Cloudlets must be positive: %d/%d/%d", hosts, vms, cloudlets));
+        }
+
+        this.hosts = hosts;
+        this.vms = vms;
+        this.cloudlets = cloudlets;
+    }
+
+    public int getHosts() {
+        return hosts;
+    }
+
+    public int getVms() {
+        return vms;
+    }
+
+    public int getCloudlets() {
+        return cloudlets;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d hosts/%d VMs/%d cloudlets", hosts, vms, cloudlets);
+    }
+}
@@ -0,0 +1,95 @@
+package org.cloudsimplus.examples.autoscaling;
+
+/**
+ * The {@link AutoscalingScenario}s that can be built at a given {@link ScenarioSize}.
+ */
+public enum ScenarioType {
+    VERTICAL_CPU_SCALING(VerticalVmCpuScalingExample.DEFAULT_SIZE, (size, seed) -> new VerticalVmCpuScalingExample(size)),
+    VERTICAL_CPU_ADAPTIVE_INTERVAL(
+        VerticalVmCpuScalingExample.DEFAULT_SIZE,
+        (size, seed) -> new VerticalVmCpuScalingExample(size, VerticalVmCpuScalingExample.DEFAULT_SCALING, true)),
+    VERTICAL_CPU_FEEDBACK_SCALING(
+        VerticalVmCpuScalingExample.DEFAULT_SIZE,
+        (size, seed) -> new VerticalVmCpuScalingExample(size, VerticalVmCpuScalingExample.DEFAULT_SCALING, false, true)),
+    VERTICAL_CPU_DYNAMIC_THRESHOLD(VerticalVmCpuScalingDynamicThreshold.DEFAULT_SIZE, (size, seed) -> new VerticalVmCpuScalingDynamicThreshold(size)),
+    VERTICAL_RAM_SCALING(VerticalVmRamScalingExample.DEFAULT_SIZE, (size, seed) -> new VerticalVmRamScalingExample(size)),
+    VERTICAL_RAM_OVERCOMMIT(
+        VerticalVmRamScalingExample.OVERCOMMIT_SIZE,
+        (size, seed) -> new VerticalVmRamScalingExample(size, VerticalVmRamScalingExample.DEFAULT_OVERCOMMIT)),
+    HORIZONTAL_LOAD_BALANCER(LoadBalancerByHorizontalVmScalingExample.DEFAULT_SIZE, true, LoadBalancerByHorizontalVmScalingExample::new),
+    /**
+     * The {@link #HORIZONTAL_LOAD_BALANCER} with VMs placed by an {@link IndexedVmAllocationPolicy},
+     * which doesn't scan all Hosts for each VM created by horizontal scaling.
+     */
+    HORIZONTAL_LOAD_BALANCER_INDEXED(
+        LoadBalancerByHorizontalVmScalingExample.DEFAULT_SIZE, true,
+        (size, seed) -> new LoadBalancerByHorizontalVmScalingExample(
+            size, seed, new IndexedVmAllocationPolicy(IndexedVmAllocationPolicy.Mode.WORST_FIT))),
+    MANUAL_MIGRATION(ManualMigrationExample1.DEFAULT_SIZE, (size, seed) -> new ManualMigrationExample1(size));
+
+    /**
+     * The seed used when none is given, which reproduces the original examples.
+     */
+    public static final long DEFAULT_SEED = 1;
+
+    /**
+     * Builds a scenario. Scenarios that have no random behaviour ignore the seed.
+     */
+    private interface Factory {
+        AutoscalingScenario create(ScenarioSize size, long seed);
+    }
+
+    private final ScenarioSize defaultSize;
+    private final boolean seeded;
+    private final Factory factory;
+
+    /**
+     * Creates a scenario type whose scenarios ignore the seed.
+     */
+    ScenarioType(final ScenarioSize defaultSize, final Factory factory) {
+        this(defaultSize, false, factory);
+    }
+
+    ScenarioType(final ScenarioSize defaultSize, final boolean seeded, final Factory factory) {
+        this.defaultSize = defaultSize;
+        this.seeded = seeded;
+        this.factory = factory;
+    }
+
+    /**
+     * Gets the size defined by the constants of the scenario class.
+     * @return the scenario default size
+     */
+    public ScenarioSize getDefaultSize() {
+        return defaultSize;
+    }
+
+    /**
+     * Checks if the scenarios depend on the seed they are built with.
+     * Scenarios that don't are the same for every seed, therefore replicating them with different seeds
+     * just repeats the same simulation.
+     * @return true if the seed changes the scenario, false if it's ignored
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Builds a new scenario with the {@link #DEFAULT_SEED}, without starting its simulation.
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @return the built scenario
+     */
+    public AutoscalingScenario create(final ScenarioSize size) {
+        return create(size, DEFAULT_SEED);
+    }
+
+    /**
+     * Builds a new scenario, without starting its simulation.
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param seed the seed for the pseudo-random number generators used by the scenario
+     * @return the built scenario
+     */
+    public AutoscalingScenario create(final ScenarioSize size, final long seed) {
+        return factory.create(size, seed);
+    }
+}
@@ -0,0 +1,117 @@
+package org.cloudsimplus.examples.autoscaling;
+
+/**
+ * Mean and standard deviation of the last N values added,
+ * maintained incrementally so that adding a value and querying the statistics are O(1).
+ *
+ * <p>Values are kept in a primitive ring buffer together with their running sum and sum of squares.
+ * To avoid accumulating floating point errors along long simulations,
+ * such sums are recomputed from the buffer once every N additions (amortized O(1)).</p>
+ */
+public final class SlidingWindowStatistics {
+    private final double[] values;
+    private int next;
+    private int count;
+    private double sum;
+    private double sumOfSquares;
+    private int additionsSinceRecompute;
+
+    /**
+     * Creates a sliding window.
+     * @param capacity the number of most recent values the statistics are computed from
+     */
+    public SlidingWindowStatistics(final int capacity) {
+        if(capacity <= 0){
+            throw new IllegalArgumentException("Window capacity must be positive");
+        }
+
+        values = new double[capacity];
+    }
+
+    /**
+     * Adds a value to the window, removing the oldest one if the window is full.
+     * @param value the value to add
+     */
+    public void add(final double value) {
+        if(count == values.length){
+            final double oldest = values[next];
+            sum -= oldest;
+            sumOfSquares -= oldest * oldest;
+        } else count++;
+
+        values[next] = value;
+        next = (next + 1) % values.length;
+        sum += value;
+        sumOfSquares += value * value;
+
+        if(++additionsSinceRecompute == values.length){
+            recomputeSums();
+        }
+    }
+
+    private void recomputeSums() {
+        sum = 0;
+        sumOfSquares = 0;
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+            sumOfSquares += values[i] * values[i];
+        }
+        additionsSinceRecompute = 0;
+    }
+
+    /**
+     * @return the number of values currently in the window
+     */
+    public int size() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return values.length;
+    }
+
+    /**
+     * @return the mean of the values in the window or zero if it's empty
+     */
+    public double getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * @return the population variance of the values in the window or zero if it's empty
+     */
+    public double getVariance() {
+        if(count == 0){
+            return 0;
+        }
+
+        final double mean = getMean();
+        //Rounding errors may make the result slightly negative when all values are equal
+        return Math.max(0, sumOfSquares / count - mean * mean);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Gets a value in the window by its age.
+     * @param index the value index, where 0 is the oldest value and {@link #size()}-1 the most recent one
+     * @return the value at the given index
+     */
+    public double get(final int index) {
+        if(index < 0 || index >= count){
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + count);
+        }
+
+        return values[(next - count + index + values.length) % values.length];
+    }
+
+    /**
+     * Gets the most recently added value.
+     * @return the last value or zero if the window is empty
+     */
+    public double getLast() {
+        return count == 0 ? 0 : values[(next - 1 + values.length) % values.length];
+    }
+}
@@ -0,0 +1,165 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudsimplus.listeners.EventInfo;
+
+import java.util.function.LongFunction;
+
+/**
+ * Creates Cloudlets from an {@link ArrivalProcess} and submits them to a broker
+ * only when the simulation time gets close to their arrival times,
+ * instead of creating the whole workload before the simulation starts.
+ * The generator just keeps arrival times, so the number of Cloudlets
+ * created at any time is bounded by the ones arriving inside the look-ahead window,
+ * whatever the length of the simulated period.
+ * The broker still keeps the Cloudlets it has received, as usual.
+ *
+ * <p>Each Cloudlet is submitted with a delay that makes it arrive at its arrival time
+ * (or immediately if the arrival is late).
+ * At least one future arrival is always kept scheduled until the process ends,
+ * which ensures the simulation doesn't finish before the whole workload is generated.</p>
+ *
+ * @see TaskUsageCloudletFeeder
+ */
+public final class StochasticCloudletGenerator {
+    private final ArrivalProcess arrivals;
+    private final DatacenterBroker broker;
+    private final LongFunction<Cloudlet> cloudletFactory;
+    private final long maxCloudlets;
+    private final double horizon;
+    private final double lookAhead;
+    private double nextArrivalTime;
+    private double lastSubmittedTime = Double.NEGATIVE_INFINITY;
+    private long submittedCloudlets;
+
+    /**
+     * A circular queue with the arrival times of submitted Cloudlets that may not have arrived yet,
+     * in increasing order.
+     */
+    private double[] pendingTimes = new double[8];
+    private int pendingHead;
+    private int pendingSize;
+
+    /**
+     * Creates a generator with no look-ahead,
+     * that starts submitting Cloudlets when the simulation starts.
+     *
+     * @param simulation the simulation to submit Cloudlets to
+     * @param broker the broker to submit Cloudlets to
+     * @param arrivals the process defining the arrival times, starting at the current simulation time
+     * @param cloudletFactory a function that creates a Cloudlet given its arrival index (starting at 0)
+     * @param maxCloudlets the maximum number of Cloudlets to create
+     * @param horizon the time after which no Cloudlet arrives
+     */
+    public StochasticCloudletGenerator(
+        final Simulation simulation, final DatacenterBroker broker, final ArrivalProcess arrivals,
+        final LongFunction<Cloudlet> cloudletFactory, final long maxCloudlets, final double horizon)
+    {
+        this(simulation, broker, arrivals, cloudletFactory, maxCloudlets, horizon, 0);
+    }
+
+    /**
+     * Creates a generator that starts submitting Cloudlets when the simulation starts.
+     *
+     * @param simulation the simulation to submit Cloudlets to
+     * @param broker the broker to submit Cloudlets to
+     * @param arrivals the process defining the arrival times, starting at the current simulation time
+     * @param cloudletFactory a function that creates a Cloudlet given its arrival index (starting at 0)
+     * @param maxCloudlets the maximum number of Cloudlets to create
+     * @param horizon the time after which no Cloudlet arrives
+     * @param lookAhead how many seconds ahead of the current time Cloudlets are submitted
+     */
+    public StochasticCloudletGenerator(
+        final Simulation simulation, final DatacenterBroker broker, final ArrivalProcess arrivals,
+        final LongFunction<Cloudlet> cloudletFactory, final long maxCloudlets, final double horizon,
+        final double lookAhead)
+    {
+        if(maxCloudlets < 0 || lookAhead < 0){
+            throw new IllegalArgumentException("Maximum number of Cloudlets and look-ahead cannot be negative");
+        }
+
+        this.arrivals = arrivals;
+        this.broker = broker;
+        this.cloudletFactory = cloudletFactory;
+        this.maxCloudlets = maxCloudlets;
+        this.horizon = horizon;
+        this.lookAhead = lookAhead;
+        this.nextArrivalTime = maxCloudlets == 0 ? Double.POSITIVE_INFINITY : arrivals.next(simulation.clock());
+        submitDueCloudlets(simulation.clock());
+        simulation.addOnClockTickListener(this::onClockTick);
+    }
+
+    private void onClockTick(final EventInfo info) {
+        submitDueCloudlets(info.getTime());
+    }
+
+    /**
+     * Submits Cloudlets for all arrivals inside the look-ahead window,
+     * or for the next arrival if there is no arrival scheduled after the current time.
+     * @param time the current simulation time
+     */
+    private void submitDueCloudlets(final double time) {
+        removeArrived(time);
+        while (hasNext() && (nextArrivalTime <= time + lookAhead || lastSubmittedTime <= time)) {
+            final Cloudlet cloudlet = cloudletFactory.apply(submittedCloudlets);
+            cloudlet.setSubmissionDelay(Math.max(0, nextArrivalTime - time));
+            broker.submitCloudlet(cloudlet);
+            lastSubmittedTime = nextArrivalTime;
+            addPending(nextArrivalTime);
+            nextArrivalTime = ++submittedCloudlets < maxCloudlets ? arrivals.next(nextArrivalTime) : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private void addPending(final double arrivalTime) {
+        if(pendingSize == pendingTimes.length){
+            final double[] times = new double[pendingTimes.length * 2];
+            for (int i = 0; i < pendingSize; i++) {
+                times[i] = pendingTimes[(pendingHead + i) % pendingTimes.length];
+            }
+            pendingTimes = times;
+            pendingHead = 0;
+        }
+
+        pendingTimes[(pendingHead + pendingSize++) % pendingTimes.length] = arrivalTime;
+    }
+
+    private void removeArrived(final double time) {
+        while (pendingSize > 0 && pendingTimes[pendingHead] <= time) {
+            pendingHead = (pendingHead + 1) % pendingTimes.length;
+            pendingSize--;
+        }
+    }
+
+    /**
+     * @return true if there are Cloudlets still to be submitted
+     */
+    public boolean hasNext() {
+        return nextArrivalTime != Double.POSITIVE_INFINITY && nextArrivalTime <= horizon;
+    }
+
+    /**
+     * Gets the time of the next arrival, which can be given to
+     * {@link AdaptiveSchedulingInterval#setNextArrivalTime(java.util.function.DoubleUnaryOperator)}.
+     *
+     * @param time the current simulation time
+     * @return the arrival time of the first Cloudlet submitted or to be submitted after the given time,
+     *         or {@link Double#POSITIVE_INFINITY} if there is none
+     */
+    public double getNextArrivalTime(final double time) {
+        removeArrived(time);
+        if(pendingSize > 0){
+            return pendingTimes[pendingHead];
+        }
+
+        return hasNext() ? nextArrivalTime : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return the number of Cloudlets submitted so far
+     */
+    public long getSubmittedCloudlets() {
+        return submittedCloudlets;
+    }
+}
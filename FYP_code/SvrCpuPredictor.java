@@ -0,0 +1,290 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Predicts CPU utilization inside the simulation using a Support Vector Regression (SVR)
+ * model with RBF kernel trained by scikit-learn, as in the {@code Implementation_SVRT} notebook.
+ * The notebook's {@code export_svr} function writes the trained support vectors and coefficients
+ * to a text file, which is {@link #load(Path) loaded} here.
+ * This way, predictions don't need to be computed offline and replayed from a trace.
+ *
+ * <p>The prediction for a feature vector x is
+ * {@code sum(coef[i] * exp(-gamma * ||x - sv[i]||^2)) + intercept},
+ * the same computed by scikit-learn's {@code SVR.predict}.
+ * Support vectors are stored in a single flat array and no object is allocated per prediction.
+ * If features are standardized, the support vectors are stored unstandardized instead,
+ * since {@code ((x - mean) / std - sv)^2 = (x - (mean + std * sv))^2 / std^2}.
+ * That way, x is used as given and each squared difference is just multiplied by a precomputed weight.</p>
+ *
+ * <p>Models trained on the last {@link #getLags() lags} utilization samples of a VM
+ * (autoregressive models) can also {@link #predictAhead(BoundedUtilizationHistory, double[]) predict}
+ * the VM utilization {@link #getHorizon() horizon} seconds ahead directly from its history.
+ * Such models are trained on the utilization series of each task, sampled every {@link #getInterval() interval}
+ * seconds, and the VM history is sampled with the same spacing,
+ * whatever the times its samples were collected at.</p>
+ *
+ * <p>The model file has one {@code key value...} entry per line, where lines starting with # are ignored:</p>
+ * <pre>
+ * gamma 0.0123                  the RBF kernel coefficient (scikit-learn's SVR._gamma)
+ * intercept 0.05
+ * features 19
+ * lags 10                       (optional) number of past samples used as features
+ * interval 5                    (required with lags) the time in seconds between the past samples
+ * horizon 25                    (required with lags) how many seconds ahead the model predicts
+ * scale_mean m1 ... mn          (optional) the mean and standard deviation each feature
+ * scale_std s1 ... sn           (optional) is standardized with before prediction
+ * sv coef x1 ... xn             one line per support vector, with its dual coefficient
+ * </pre>
+ */
+public final class SvrCpuPredictor {
+    private final double gamma;
+    private final double intercept;
+    private final int features;
+    private final double[] supportVectors;
+    private final double[] coefficients;
+
+    /**
+     * The weight of each feature in the squared distance to the support vectors,
+     * which is {@code 1 / std^2} for standardized features and 1 otherwise.
+     */
+    private final double[] featureWeights;
+    private final int lags;
+    private final double interval;
+    private final double horizon;
+
+    /**
+     * Creates a predictor from a trained model.
+     *
+     * @param gamma the RBF kernel coefficient
+     * @param intercept the model intercept
+     * @param supportVectors the support vectors, each one with {@code features} values, stored one after another
+     * @param coefficients the dual coefficient of each support vector
+     * @param scaleMean the mean to subtract from each feature before prediction, or null to not standardize features
+     * @param scaleStd the standard deviation to divide each feature by before prediction, or null to not standardize features
+     * @param lags the number of past utilization samples the model was trained on, or 0 if it isn't autoregressive
+     * @param interval the time (in seconds) between the past utilization samples of an autoregressive model
+     * @param horizon how many seconds ahead an autoregressive model predicts
+     */
+    public SvrCpuPredictor(
+        final double gamma, final double intercept,
+        final double[] supportVectors, final double[] coefficients,
+        final double[] scaleMean, final double[] scaleStd,
+        final int lags, final double interval, final double horizon)
+    {
+        if(coefficients.length == 0 || supportVectors.length % coefficients.length != 0){
+            throw new IllegalArgumentException("The support vectors must have the same number of features");
+        }
+
+        this.features = supportVectors.length / coefficients.length;
+        if((scaleMean == null) != (scaleStd == null) ||
+           scaleMean != null && (scaleMean.length != features || scaleStd.length != features))
+        {
+            throw new IllegalArgumentException("The scaling mean and standard deviation must be given for every feature");
+        }
+
+        if(lags != 0 && lags != features){
+            throw new IllegalArgumentException(
+                String.format("An autoregressive model must have one feature for each lag: %d lags and %d features", lags, features));
+        }
+
+        if(lags != 0 && (interval <= 0 || horizon <= 0)){
+            throw new IllegalArgumentException("An autoregressive model must have a positive sampling interval and horizon");
+        }
+
+        this.gamma = gamma;
+        this.intercept = intercept;
+        this.supportVectors = supportVectors.clone();
+        this.coefficients = coefficients.clone();
+        this.featureWeights = new double[features];
+        for (int f = 0; f < features; f++) {
+            featureWeights[f] = scaleStd == null ? 1 : 1 / (scaleStd[f] * scaleStd[f]);
+        }
+
+        if(scaleMean != null) {
+            for (int offset = 0; offset < this.supportVectors.length; offset += features) {
+                for (int f = 0; f < features; f++) {
+                    this.supportVectors[offset + f] = scaleMean[f] + scaleStd[f] * this.supportVectors[offset + f];
+                }
+            }
+        }
+        this.lags = lags;
+        this.interval = interval;
+        this.horizon = horizon;
+    }
+
+    /**
+     * Loads a model exported by the notebook's {@code export_svr} function.
+     * @param file the model file
+     * @return the predictor for the loaded model
+     */
+    public static SvrCpuPredictor load(final Path file) {
+        double gamma = Double.NaN;
+        double intercept = 0;
+        int features = -1;
+        int lags = 0;
+        double interval = 0;
+        double horizon = 0;
+        double[] scaleMean = null;
+        double[] scaleStd = null;
+        final List<double[]> vectors = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                line = line.trim();
+                if(line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                final String[] tokens = line.split("\\s+");
+                try {
+                    switch (tokens[0]) {
+                        case "gamma": gamma = Double.parseDouble(tokens[1]); break;
+                        case "intercept": intercept = Double.parseDouble(tokens[1]); break;
+                        case "features": features = Integer.parseInt(tokens[1]); break;
+                        case "lags": lags = Integer.parseInt(tokens[1]); break;
+                        case "interval": interval = Double.parseDouble(tokens[1]); break;
+                        case "horizon": horizon = Double.parseDouble(tokens[1]); break;
+                        case "scale_mean": scaleMean = parseValues(tokens, 1); break;
+                        case "scale_std": scaleStd = parseValues(tokens, 1); break;
+                        case "sv": vectors.add(parseValues(tokens, 1)); break;
+                        default: throw new IllegalStateException("Unknown entry " + tokens[0]);
+                    }
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException(String.format("Invalid line %d in %s: %s", lineNumber, file, line), e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if(Double.isNaN(gamma) || features <= 0 || vectors.isEmpty()){
+            throw new IllegalStateException(file + " must define the gamma, the number of features and at least one support vector");
+        }
+
+        final double[] supportVectors = new double[vectors.size() * features];
+        final double[] coefficients = new double[vectors.size()];
+        for (int i = 0; i < vectors.size(); i++) {
+            final double[] vector = vectors.get(i);
+            if(vector.length != features + 1){
+                throw new IllegalStateException(String.format("Support vector %d in %s doesn't have %d features", i, file, features));
+            }
+
+            coefficients[i] = vector[0];
+            System.arraycopy(vector, 1, supportVectors, i * features, features);
+        }
+
+        return new SvrCpuPredictor(gamma, intercept, supportVectors, coefficients, scaleMean, scaleStd, lags, interval, horizon);
+    }
+
+    private static double[] parseValues(final String[] tokens, final int from) {
+        final double[] values = new double[tokens.length - from];
+        for (int i = from; i < tokens.length; i++) {
+            values[i - from] = Double.parseDouble(tokens[i]);
+        }
+
+        return values;
+    }
+
+    /**
+     * Predicts a value from a feature vector.
+     * @param x the features, in the same order used for training (it's not changed)
+     * @return the predicted value
+     */
+    public double predict(final double[] x) {
+        if(x.length != features){
+            throw new IllegalArgumentException(String.format("Expected %d features but %d were given", features, x.length));
+        }
+
+        double result = intercept;
+        for (int sv = 0, offset = 0; sv < coefficients.length; sv++, offset += features) {
+            double squaredDistance = 0;
+            for (int f = 0; f < features; f++) {
+                final double diff = x[f] - supportVectors[offset + f];
+                squaredDistance += featureWeights[f] * diff * diff;
+            }
+            result += coefficients[sv] * Math.exp(-gamma * squaredDistance);
+        }
+
+        return result;
+    }
+
+    /**
+     * Predicts a VM CPU utilization {@link #getHorizon() horizon} seconds ahead from its history.
+     * The features are the utilization at the time of the last sample and at each {@link #getInterval() interval}
+     * before it, up to {@link #getLags() lags} values. The utilization at a time is the one of the last sample
+     * collected until then, or the oldest sample if the history doesn't go back that far.
+     * No object is allocated, so the predictor can be shared by concurrent simulations, each one with its own buffer.
+     *
+     * @param history the VM CPU utilization history
+     * @param features a buffer with {@link #getLags() lags} elements, where the sampled utilization is stored
+     * @return the predicted CPU utilization (from 0 to 1), or 0 if the history is empty
+     * @throws IllegalStateException if the model is not autoregressive
+     */
+    public double predictAhead(final BoundedUtilizationHistory history, final double[] features) {
+        if(lags == 0){
+            throw new IllegalStateException("The model was not trained on past utilization samples");
+        }
+
+        if(features.length != lags){
+            throw new IllegalArgumentException(String.format("Expected a buffer for %d lags but its length is %d", lags, features.length));
+        }
+
+        final int size = history.size();
+        if(size == 0){
+            return 0;
+        }
+
+        final double lastTime = history.getTime(size - 1);
+        for (int lag = lags - 1, sample = size - 1; lag >= 0; lag--) {
+            final double time = lastTime - (lags - 1 - lag) * interval;
+            while (sample > 0 && history.getTime(sample) > time) {
+                sample--;
+            }
+            features[lag] = history.getUtilization(sample);
+        }
+
+        return Math.max(0, Math.min(1, predict(features)));
+    }
+
+    public int getFeatures() {
+        return features;
+    }
+
+    /**
+     * @return the number of support vectors in the model
+     */
+    public int getSupportVectors() {
+        return coefficients.length;
+    }
+
+    /**
+     * @return the number of past utilization samples an autoregressive model uses, or 0 for other models
+     */
+    public int getLags() {
+        return lags;
+    }
+
+    /**
+     * @return the time (in seconds) between the past utilization samples of an autoregressive model
+     */
+    public double getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return how many seconds ahead an autoregressive model predicts
+     */
+    public double getHorizon() {
+        return horizon;
+    }
+}
@@ -0,0 +1,109 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudsimplus.listeners.EventInfo;
+
+import java.util.function.Function;
+
+/**
+ * Submits Cloudlets created from a {@link TaskUsageTrace} to a broker
+ * only when the simulation time gets close to each row's start time.
+ * This way, just the rows inside a look-ahead window are turned into Cloudlets at any time,
+ * keeping memory bounded regardless of the trace size.
+ *
+ * <p>Rows are expected to be sorted by start time, as in the Google traces.
+ * Each Cloudlet is submitted with a delay that makes it arrive at its row's start time
+ * (or immediately for rows that are late).
+ * At least one future arrival is always kept scheduled until the trace ends,
+ * which ensures the simulation doesn't finish before the whole trace is fed.</p>
+ */
+public final class TaskUsageCloudletFeeder {
+    /**
+     * Default look-ahead window (in seconds): 5 minutes, the length of Google trace measurement periods.
+     */
+    public static final double DEFAULT_LOOK_AHEAD = 300;
+
+    private final TaskUsageTrace trace;
+    private final DatacenterBroker broker;
+    private final Function<TaskUsageRow, Cloudlet> cloudletFactory;
+    private final double lookAhead;
+    private double lastSubmittedStartTime = Double.NEGATIVE_INFINITY;
+    private long submittedCloudlets;
+
+    /**
+     * Creates a feeder with the {@link #DEFAULT_LOOK_AHEAD}
+     * that starts submitting Cloudlets when the simulation starts.
+     *
+     * @param simulation the simulation to feed Cloudlets to
+     * @param broker the broker to submit Cloudlets to
+     * @param trace the trace to read rows from, which is closed when all rows are submitted
+     * @param cloudletFactory a function that creates a Cloudlet from a trace row
+     */
+    public TaskUsageCloudletFeeder(
+        final Simulation simulation, final DatacenterBroker broker,
+        final TaskUsageTrace trace, final Function<TaskUsageRow, Cloudlet> cloudletFactory)
+    {
+        this(simulation, broker, trace, cloudletFactory, DEFAULT_LOOK_AHEAD);
+    }
+
+    /**
+     * Creates a feeder that starts submitting Cloudlets when the simulation starts.
+     *
+     * @param simulation the simulation to feed Cloudlets to
+     * @param broker the broker to submit Cloudlets to
+     * @param trace the trace to read rows from, which is closed when all rows are submitted
+     * @param cloudletFactory a function that creates a Cloudlet from a trace row
+     * @param lookAhead how many seconds ahead of the current time rows are submitted
+     */
+    public TaskUsageCloudletFeeder(
+        final Simulation simulation, final DatacenterBroker broker,
+        final TaskUsageTrace trace, final Function<TaskUsageRow, Cloudlet> cloudletFactory,
+        final double lookAhead)
+    {
+        if(lookAhead < 0){
+            throw new IllegalArgumentException("Look-ahead cannot be negative");
+        }
+
+        this.trace = trace;
+        this.broker = broker;
+        this.cloudletFactory = cloudletFactory;
+        this.lookAhead = lookAhead;
+        submitDueCloudlets(simulation.clock());
+        simulation.addOnClockTickListener(this::onClockTick);
+    }
+
+    private void onClockTick(final EventInfo info) {
+        submitDueCloudlets(info.getTime());
+    }
+
+    /**
+     * Submits Cloudlets for all rows starting inside the look-ahead window,
+     * or for the next row if there is no arrival scheduled after the current time.
+     * @param time the current simulation time
+     */
+    private void submitDueCloudlets(final double time) {
+        while (trace.hasNext() &&
+               (trace.peekStartTime() <= time + lookAhead || lastSubmittedStartTime <= time))
+        {
+            final TaskUsageRow row = trace.next();
+            final Cloudlet cloudlet = cloudletFactory.apply(row);
+            cloudlet.setSubmissionDelay(Math.max(0, row.getStartTime() - time));
+            broker.submitCloudlet(cloudlet);
+            lastSubmittedStartTime = row.getStartTime();
+            submittedCloudlets++;
+        }
+
+        if(!trace.hasNext()){
+            trace.close();
+        }
+    }
+
+    /**
+     * @return the number of Cloudlets submitted so far
+     */
+    public long getSubmittedCloudlets() {
+        return submittedCloudlets;
+    }
+}
@@ -0,0 +1,366 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * A Google Cluster task usage trace preprocessed into a fixed-width columnar binary file,
+ * which is memory-mapped to be replayed without parsing any text.
+ * Run {@link #main(String[])} once to convert a CSV trace,
+ * then {@link TaskUsageTrace#open(String)} uses the converted file automatically,
+ * converting it again when the CSV file changes.
+ *
+ * <p>Rows are accessed by index through the column getters, such as {@link #getStartTime(int)},
+ * which read directly from the mapped file and don't allocate objects.
+ * The trace can also be read sequentially as any {@link TaskUsageTrace},
+ * and {@link #rewind() rewound} to be replayed.</p>
+ *
+ * <p>The file has a {@link #HEADER_BYTES}-byte header with a {@link #MAGIC} int, the format version (int),
+ * the number of rows (long) and the size (long, in bytes) and last modification time (long, in milliseconds)
+ * of the CSV file it was converted from, or -1 if such a file was read as a resource.
+ * Such a size and time tell if the columnar file is stale. The header is followed by each column stored contiguously,
+ * in big-endian order: start time and end time (long, in microseconds), job id (long), task index (int),
+ * machine id (long), CPU rate, canonical memory usage and predicted CPU (double).
+ * Since each column is mapped separately, it may have up to 2GB.</p>
+ */
+public final class TaskUsageColumnarTrace implements TaskUsageTrace {
+    public static final int MAGIC = 0x54555431; //"TUT1"
+    public static final int VERSION = 2;
+    public static final int HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES * 3;
+
+    /**
+     * Extension of the columnar files, which replaces the {@code .csv} extension of the original trace.
+     */
+    public static final String EXTENSION = ".tut";
+
+    private static final int START = 0;
+    private static final int END = 1;
+    private static final int JOB = 2;
+    private static final int TASK = 3;
+    private static final int MACHINE = 4;
+    private static final int CPU = 5;
+    private static final int MEMORY = 6;
+    private static final int PREDICTED_CPU = 7;
+
+    /**
+     * The width (in bytes) of each column.
+     */
+    private static final int[] WIDTHS = {
+        Long.BYTES, Long.BYTES, Long.BYTES, Integer.BYTES, Long.BYTES, Double.BYTES, Double.BYTES, Double.BYTES
+    };
+
+    /**
+     * Number of rows buffered for each column while converting a trace.
+     */
+    private static final int CONVERSION_BUFFER_ROWS = 8192;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] columns = new MappedByteBuffer[WIDTHS.length];
+    private final int rows;
+    private final long sourceSize;
+    private final long sourceModified;
+    private final TaskUsageRow row = new TaskUsageRow();
+    private int position;
+
+    /**
+     * Converts a CSV trace to the columnar format.
+     * Usage: {@code TaskUsageColumnarTrace <trace.csv> [output.tut]}.
+     * If the output file is not given, it's written along the CSV file with the {@link #EXTENSION}.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        if(args.length < 1 || args.length > 2){
+            System.out.println("Usage: TaskUsageColumnarTrace <trace.csv> [output" + EXTENSION + "]");
+            return;
+        }
+
+        final Path output = Paths.get(args.length == 2 ? args[1] : columnarFileName(args[0]));
+        final long rows = convert(args[0], output);
+        System.out.printf("%d rows from %s written to %s%n", rows, args[0], output);
+    }
+
+    /**
+     * Gets the name of the columnar file for a CSV trace.
+     * @param csvFileName the CSV trace file name
+     * @return the file name with the {@code .csv} extension replaced by {@link #EXTENSION}
+     */
+    public static String columnarFileName(final String csvFileName) {
+        final String base = csvFileName.endsWith(".csv") ? csvFileName.substring(0, csvFileName.length() - 4) : csvFileName;
+        return base + EXTENSION;
+    }
+
+    /**
+     * Converts a CSV trace to the columnar format.
+     * The CSV is read twice: first to count its rows and then to write them.
+     * Only a small buffer for each column is kept in memory.
+     *
+     * @param csvFileName the path of the CSV trace file or resource
+     * @param output the file to write the columnar trace to (overwritten if it exists)
+     * @return the number of converted rows
+     */
+    public static long convert(final String csvFileName, final Path output) {
+        //The source attributes are read before the rows, so that changes made while converting make the file stale
+        final long sourceSize;
+        final long sourceModified;
+        try {
+            final Path csvPath = Paths.get(csvFileName);
+            final boolean isFile = Files.isRegularFile(csvPath);
+            sourceSize = isFile ? Files.size(csvPath) : -1;
+            sourceModified = isFile ? Files.getLastModifiedTime(csvPath).toMillis() : -1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long rows = 0;
+        try(TaskUsageTrace csv = TaskUsageTraceStream.open(csvFileName)) {
+            for (; csv.hasNext(); csv.next()) {
+                rows++;
+            }
+        }
+
+        final ByteBuffer[] buffers = new ByteBuffer[WIDTHS.length];
+        final long[] offsets = new long[WIDTHS.length];
+        long offset = HEADER_BYTES;
+        for (int i = 0; i < WIDTHS.length; i++) {
+            buffers[i] = ByteBuffer.allocate(CONVERSION_BUFFER_ROWS * WIDTHS[i]);
+            offsets[i] = offset;
+            offset += rows * WIDTHS[i];
+        }
+
+        try(FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            TaskUsageTrace csv = TaskUsageTraceStream.open(csvFileName))
+        {
+            final ByteBuffer header =
+                ByteBuffer.allocate(HEADER_BYTES)
+                          .putInt(MAGIC).putInt(VERSION).putLong(rows)
+                          .putLong(sourceSize).putLong(sourceModified);
+            header.flip();
+            writeFully(out, header, 0);
+
+            while (csv.hasNext()) {
+                final TaskUsageRow row = csv.next();
+                buffers[START].putLong(Math.round(row.getStartTime() * TaskUsageRow.MICROSECONDS));
+                buffers[END].putLong(Math.round(row.getEndTime() * TaskUsageRow.MICROSECONDS));
+                buffers[JOB].putLong(row.getJobId());
+                buffers[TASK].putInt((int) row.getTaskIndex());
+                buffers[MACHINE].putLong(row.getMachineId());
+                buffers[CPU].putDouble(row.getCpuRate());
+                buffers[MEMORY].putDouble(row.getMemoryUsage());
+                buffers[PREDICTED_CPU].putDouble(row.getPredictedCpu());
+                if(!buffers[START].hasRemaining()){
+                    flushColumns(out, buffers, offsets);
+                }
+            }
+
+            flushColumns(out, buffers, offsets);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return rows;
+    }
+
+    private static void flushColumns(final FileChannel out, final ByteBuffer[] buffers, final long[] offsets) throws IOException {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i].flip();
+            offsets[i] += writeFully(out, buffers[i], offsets[i]);
+            buffers[i].clear();
+        }
+    }
+
+    private static int writeFully(final FileChannel out, final ByteBuffer buffer, final long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += out.write(buffer, position + written);
+        }
+
+        return written;
+    }
+
+    /**
+     * Checks if a columnar trace file was converted from the current version of a CSV file,
+     * by comparing the size and last modification time of the CSV file with the ones stored in the columnar file header.
+     * Files of other format versions are never up to date.
+     *
+     * @param file the columnar trace file
+     * @param csvFile the CSV file the trace was converted from
+     * @return true if the columnar file can be used instead of the CSV file, false if it must be converted again
+     */
+    public static boolean isUpToDate(final Path file, final Path csvFile) {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if(channel.read(header) < 0){
+                    return false;
+                }
+            }
+
+            header.flip();
+            if(header.getInt() != MAGIC || header.getInt() != VERSION){
+                return false;
+            }
+
+            header.getLong(); //rows
+            return header.getLong() == Files.size(csvFile) &&
+                   header.getLong() == Files.getLastModifiedTime(csvFile).toMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a columnar trace file, mapping it into memory.
+     * @param file the columnar trace file
+     * @return the opened trace
+     */
+    public static TaskUsageColumnarTrace open(final Path file) {
+        try {
+            return new TaskUsageColumnarTrace(FileChannel.open(file, StandardOpenOption.READ), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TaskUsageColumnarTrace(final FileChannel channel, final Path file) throws IOException {
+        this.channel = channel;
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if(channel.read(header) < 0){
+                throw new IllegalStateException(file + " is too short to be a columnar trace");
+            }
+        }
+
+        header.flip();
+        if(header.getInt() != MAGIC || header.getInt() != VERSION){
+            throw new IllegalStateException(file + " is not a columnar trace of version " + VERSION);
+        }
+
+        final long rowsCount = header.getLong();
+        if(rowsCount > Integer.MAX_VALUE / Long.BYTES){
+            throw new IllegalStateException(String.format("%s has %d rows, more than a mapped column supports", file, rowsCount));
+        }
+
+        rows = (int) rowsCount;
+        sourceSize = header.getLong();
+        sourceModified = header.getLong();
+        long offset = HEADER_BYTES;
+        for (int i = 0; i < WIDTHS.length; i++) {
+            final long length = (long) rows * WIDTHS[i];
+            columns[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * @return the number of rows in the trace
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * @return the size (in bytes) of the CSV file the trace was converted from, or -1 if unknown
+     */
+    public long getSourceSize() {
+        return sourceSize;
+    }
+
+    /**
+     * @return the last modification time (in milliseconds since the epoch) of the CSV file
+     *         the trace was converted from, or -1 if unknown
+     */
+    public long getSourceModified() {
+        return sourceModified;
+    }
+
+    /**
+     * @param row the row index
+     * @return the start time of the row (in seconds)
+     */
+    public double getStartTime(final int row) {
+        return columns[START].getLong(row * Long.BYTES) / TaskUsageRow.MICROSECONDS;
+    }
+
+    /**
+     * @param row the row index
+     * @return the end time of the row (in seconds)
+     */
+    public double getEndTime(final int row) {
+        return columns[END].getLong(row * Long.BYTES) / TaskUsageRow.MICROSECONDS;
+    }
+
+    public long getJobId(final int row) {
+        return columns[JOB].getLong(row * Long.BYTES);
+    }
+
+    public int getTaskIndex(final int row) {
+        return columns[TASK].getInt(row * Integer.BYTES);
+    }
+
+    public long getMachineId(final int row) {
+        return columns[MACHINE].getLong(row * Long.BYTES);
+    }
+
+    public double getCpuRate(final int row) {
+        return columns[CPU].getDouble(row * Double.BYTES);
+    }
+
+    public double getMemoryUsage(final int row) {
+        return columns[MEMORY].getDouble(row * Double.BYTES);
+    }
+
+    public double getPredictedCpu(final int row) {
+        return columns[PREDICTED_CPU].getDouble(row * Double.BYTES);
+    }
+
+    /**
+     * Moves back to the first row, so that the trace can be read sequentially again.
+     */
+    public void rewind() {
+        position = 0;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < rows;
+    }
+
+    @Override
+    public double peekStartTime() {
+        return hasNext() ? getStartTime(position) : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public TaskUsageRow next() {
+        if(!hasNext()){
+            throw new NoSuchElementException("End of the columnar trace reached");
+        }
+
+        final int i = position++;
+        row.set(
+            getStartTime(i), getEndTime(i), getJobId(i), getTaskIndex(i),
+            getMachineId(i), getCpuRate(i), getMemoryUsage(i), getPredictedCpu(i));
+        return row;
+    }
+
+    /**
+     * Closes the file. The mapped columns are released when they are garbage collected.
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.cloudsimplus.examples.autoscaling;
+
+/**
+ * A single row of a Google Cluster task usage trace.
+ * Readers reuse the same instance for every row they read,
+ * so its values must be consumed before the next row is requested.
+ *
+ * <p>Times are converted from the microseconds used in the trace to seconds,
+ * the time unit of the simulation.</p>
+ *
+ * @see TaskUsageTrace
+ */
+public final class TaskUsageRow {
+    /**
+     * Number of microseconds in a second, the time unit used in Google traces.
+     */
+    public static final double MICROSECONDS = 1_000_000.0;
+
+    private double startTime;
+    private double endTime;
+    private long jobId;
+    private long taskIndex;
+    private long machineId;
+    private double cpuRate;
+    private double memoryUsage;
+    private double predictedCpu;
+
+    void set(final double startTime, final double endTime, final long jobId,
+             final long taskIndex, final long machineId, final double cpuRate,
+             final double memoryUsage, final double predictedCpu)
+    {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.jobId = jobId;
+        this.taskIndex = taskIndex;
+        this.machineId = machineId;
+        this.cpuRate = cpuRate;
+        this.memoryUsage = memoryUsage;
+        this.predictedCpu = predictedCpu;
+    }
+
+    /**
+     * @return the start time of the measurement period (in seconds)
+     */
+    public double getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return the end time of the measurement period (in seconds)
+     */
+    public double getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * @return the length of the measurement period (in seconds)
+     */
+    public double getDuration() {
+        return endTime - startTime;
+    }
+
+    public long getJobId() {
+        return jobId;
+    }
+
+    public long getTaskIndex() {
+        return taskIndex;
+    }
+
+    public long getMachineId() {
+        return machineId;
+    }
+
+    /**
+     * @return the mean CPU usage in the period, in normalized CPU cores
+     */
+    public double getCpuRate() {
+        return cpuRate;
+    }
+
+    /**
+     * @return the canonical memory usage in the period, normalized by the largest machine memory
+     */
+    public double getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * @return the sampled CPU usage, which in {@code task_usage_predicted.csv}
+     *         holds the SVR predictions for the last rows of the trace
+     */
+    public double getPredictedCpu() {
+        return predictedCpu;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Task %d/%d at machine %d from %.0f to %.0f: CPU %.6f memory %.6f",
+            jobId, taskIndex, machineId, startTime, endTime, cpuRate, memoryUsage);
+    }
+}
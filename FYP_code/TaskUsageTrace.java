@@ -0,0 +1,63 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.NoSuchElementException;
+
+/**
+ * A Google Cluster task usage trace read sequentially, one row at a time.
+ *
+ * @see TaskUsageTraceStream
+ * @see TaskUsageColumnarTrace
+ */
+public interface TaskUsageTrace extends Closeable {
+    /**
+     * Opens a task usage trace, preferring its preprocessed columnar version when available.
+     * That is, if there is a {@link TaskUsageColumnarTrace#EXTENSION} file in the file system
+     * with the same name of the given CSV file, such a file is memory-mapped.
+     * If the CSV file has changed since it was converted (or it was converted to an older format version),
+     * the columnar file is converted again before being mapped.
+     * If the CSV file is a resource instead of a file, the columnar file can't be checked and is used as is.
+     * Otherwise, the CSV file is parsed as text.
+     *
+     * @param fileName the path of the CSV trace file or resource
+     * @return the opened trace
+     */
+    static TaskUsageTrace open(final String fileName) {
+        final Path columnar = Paths.get(TaskUsageColumnarTrace.columnarFileName(fileName));
+        if(Files.exists(columnar)){
+            final Path csv = Paths.get(fileName);
+            if(Files.isRegularFile(csv) && !TaskUsageColumnarTrace.isUpToDate(columnar, csv)){
+                TaskUsageColumnarTrace.convert(fileName, columnar);
+            }
+
+            return TaskUsageColumnarTrace.open(columnar);
+        }
+
+        return TaskUsageTraceStream.open(fileName);
+    }
+
+    /**
+     * Checks if there is another row to be read.
+     * @return true if there is a next row, false if the end of the trace was reached
+     */
+    boolean hasNext();
+
+    /**
+     * Gets the start time (in seconds) of the next row, without reading it.
+     * @return the next row start time or {@link Double#POSITIVE_INFINITY} if there is no next row
+     */
+    double peekStartTime();
+
+    /**
+     * Reads the next row.
+     * @return the next row, which may be the same object for every call
+     * @throws NoSuchElementException if the end of the trace was reached
+     */
+    TaskUsageRow next();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,227 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a Google Cluster task usage trace one row at a time,
+ * keeping just the current line in memory, whatever is the size of the file.
+ *
+ * <p>It accepts both the raw trace format (no header, the start time as the first column)
+ * and CSV files exported from pandas, such as {@code task_usage_predicted.csv},
+ * which have a header line and an extra index column.
+ * Columns are located by the header names in the latter case.</p>
+ *
+ * @see TaskUsageRow
+ * @see TaskUsageCloudletFeeder
+ */
+public final class TaskUsageTraceStream implements TaskUsageTrace {
+    private static final String[] HEADER_NAMES = {
+        "start time", "end time", "job id", "task index", "machine id", "cpu rate", "canonical memory usage", "sampled cpu usage"
+    };
+
+    /**
+     * Indexes of the columns for the fields in {@link #HEADER_NAMES}, inside a line.
+     * Defaults to the positions in the raw Google trace.
+     */
+    private final int[] columns = {0, 1, 2, 3, 4, 5, 6, 19};
+
+    /**
+     * The values of the columns for the current line, following the order in {@link #HEADER_NAMES}.
+     */
+    private final String[] fields = new String[HEADER_NAMES.length];
+
+    private final String fileName;
+    private final BufferedReader reader;
+    private final TaskUsageRow row = new TaskUsageRow();
+    private final int lastColumn;
+    private String nextLine;
+    private long lineNumber;
+
+    /**
+     * Opens a trace from the file system or, if there is no such a file, from the classpath.
+     *
+     * @param fileName the path of the trace file or resource
+     * @return the opened stream
+     */
+    public static TaskUsageTraceStream open(final String fileName) {
+        try {
+            final Path path = Paths.get(fileName);
+            if(Files.exists(path)){
+                return new TaskUsageTraceStream(fileName, Files.newInputStream(path));
+            }
+
+            final InputStream resource = TaskUsageTraceStream.class.getClassLoader().getResourceAsStream(fileName);
+            if(resource == null){
+                throw new FileNotFoundException("Trace file not found: " + fileName);
+            }
+
+            return new TaskUsageTraceStream(fileName, resource);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TaskUsageTraceStream(final String fileName, final InputStream input) throws IOException {
+        this.fileName = fileName;
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.nextLine = readLine();
+        if(nextLine != null && nextLine.contains(HEADER_NAMES[0])){
+            parseHeader(nextLine);
+            nextLine = readLine();
+        }
+        lastColumn = max(columns);
+    }
+
+    private void parseHeader(final String header) {
+        final String[] names = header.split(",");
+        for (int i = 0; i < HEADER_NAMES.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < names.length; j++) {
+                if(names[j].trim().equals(HEADER_NAMES[i])){
+                    columns[i] = j;
+                    break;
+                }
+            }
+
+            if(columns[i] < 0){
+                throw new IllegalStateException(String.format("Column '%s' not found in %s", HEADER_NAMES[i], fileName));
+            }
+        }
+    }
+
+    private String readLine() throws IOException {
+        lineNumber++;
+        return reader.readLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextLine != null;
+    }
+
+    @Override
+    public double peekStartTime() {
+        if(nextLine == null){
+            return Double.POSITIVE_INFINITY;
+        }
+
+        return parseLong(field(nextLine, columns[0])) / TaskUsageRow.MICROSECONDS;
+    }
+
+    @Override
+    public TaskUsageRow next() {
+        if(nextLine == null){
+            throw new NoSuchElementException("End of " + fileName + " reached");
+        }
+
+        try {
+            splitFields(nextLine);
+            row.set(
+                parseLong(fields[0]) / TaskUsageRow.MICROSECONDS, parseLong(fields[1]) / TaskUsageRow.MICROSECONDS,
+                parseLong(fields[2]), parseLong(fields[3]), parseLong(fields[4]),
+                parseDouble(fields[5]), parseDouble(fields[6]), parseDouble(fields[7]));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException(String.format("Invalid line %d in %s: %s", lineNumber, fileName, nextLine), e);
+        }
+
+        try {
+            nextLine = readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return row;
+    }
+
+    /**
+     * Stores into {@link #fields} the values of the required columns of a line,
+     * scanning it just once.
+     * @param line the line to split
+     */
+    private void splitFields(final String line) {
+        int column = 0;
+        int start = 0;
+        while (start <= line.length()) {
+            int end = line.indexOf(',', start);
+            if(end < 0) {
+                end = line.length();
+            }
+
+            for (int i = 0; i < columns.length; i++) {
+                if(columns[i] == column){
+                    fields[i] = line.substring(start, end);
+                }
+            }
+
+            column++;
+            start = end + 1;
+        }
+
+        if(column <= lastColumn){
+            throw new IllegalStateException("Missing columns");
+        }
+    }
+
+    private static String field(final String line, final int column) {
+        int start = 0;
+        for (int i = 0; i < column; i++) {
+            start = line.indexOf(',', start) + 1;
+            if(start == 0){
+                throw new IllegalStateException("Missing columns in line: " + line);
+            }
+        }
+
+        final int end = line.indexOf(',', start);
+        return end < 0 ? line.substring(start) : line.substring(start, end);
+    }
+
+    private static int max(final int[] values) {
+        int max = values[0];
+        for (int value : values) {
+            max = Math.max(max, value);
+        }
+
+        return max;
+    }
+
+    /**
+     * Parses a long value, accepting values written in floating point notation (such as 6.0E8),
+     * which is how some tools export integer columns.
+     */
+    private static long parseLong(final String value) {
+        final String trimmed = value.trim();
+        if(trimmed.isEmpty()){
+            return 0;
+        }
+
+        try {
+            return Long.parseLong(trimmed);
+        } catch (NumberFormatException e) {
+            return (long) Double.parseDouble(trimmed);
+        }
+    }
+
+    private static double parseDouble(final String value) {
+        final String trimmed = value.trim();
+        return trimmed.isEmpty() ? 0 : Double.parseDouble(trimmed);
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import ch.qos.logback.classic.Level;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudsimplus.util.Log;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Searches the vertical CPU scaling parameters of the {@link VerticalVmCpuScalingExample}
+ * (lower threshold, upper threshold and scaling factor) that give the best trade-offs between
+ * the mean Cloudlet completion time and the allocated vCPU-seconds,
+ * reporting the Pareto front of such objectives.
+ *
+ * <p>The search space is recursively split into boxes, level by level.
+ * The center of every box in a level is simulated in parallel using fork-join.
+ * Then, boxes whose center is dominated by the current front by more than a
+ * {@link #getPruneMargin() margin} are pruned, and just the remaining ones are split into 8 sub-boxes
+ * for the next level. This assumes the objectives change smoothly inside a box,
+ * so dominated regions are not expected to hold Pareto-optimal parameters.
+ * Since every level is fully evaluated before pruning, the result doesn't depend on the
+ * number of threads.</p>
+ *
+ * <p>To ensure the lower threshold is always below the upper one,
+ * the upper threshold is searched as a fraction of the interval between the lower threshold and 1.</p>
+ */
+public final class ThresholdSearch {
+    public static final String HEADER = "lower_threshold,upper_threshold,scaling_factor,mean_completion_time,vcpu_seconds";
+
+    /**
+     * Minimum and maximum values of each dimension of the search space:
+     * lower threshold, upper threshold (as a fraction of the interval from the lower threshold to 1)
+     * and scaling factor.
+     */
+    private static final double[] SPACE_MIN = {0.05, 0.1, 0.05};
+    private static final double[] SPACE_MAX = {0.6, 1.0, 0.5};
+    private static final int DIMENSIONS = SPACE_MIN.length;
+
+    private final ScenarioSize size;
+    private final int maxDepth;
+    private final double pruneMargin;
+    private final ForkJoinPool pool;
+    private int evaluations;
+
+    /**
+     * The simulation results for a set of scaling parameters.
+     */
+    public static final class Candidate {
+        private final CpuScalingParameters parameters;
+        private final double meanCompletionTime;
+        private final double vcpuSeconds;
+
+        private Candidate(final CpuScalingParameters parameters, final double meanCompletionTime, final double vcpuSeconds) {
+            this.parameters = parameters;
+            this.meanCompletionTime = meanCompletionTime;
+            this.vcpuSeconds = vcpuSeconds;
+        }
+
+        /**
+         * Checks if this candidate dominates another one, even after the other has its objectives
+         * reduced by a given margin. A zero margin is the usual Pareto dominance.
+         *
+         * @param other the candidate to compare with
+         * @param margin the percentage (from 0 to 1) the other candidate objectives are reduced by
+         * @return true if this candidate is better or equal in all objectives and better in one of them
+         */
+        public boolean dominates(final Candidate other, final double margin) {
+            final double otherTime = other.meanCompletionTime * (1 - margin);
+            final double otherVcpu = other.vcpuSeconds * (1 - margin);
+            return meanCompletionTime <= otherTime && vcpuSeconds <= otherVcpu &&
+                   (meanCompletionTime < otherTime || vcpuSeconds < otherVcpu);
+        }
+
+        public CpuScalingParameters getParameters() {
+            return parameters;
+        }
+
+        public double getMeanCompletionTime() {
+            return meanCompletionTime;
+        }
+
+        public double getVcpuSeconds() {
+            return vcpuSeconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                Locale.ROOT, "%.4f,%.4f,%.4f,%.4f,%.2f",
+                parameters.getLowerThreshold(), parameters.getUpperThreshold(), parameters.getScalingFactor(),
+                meanCompletionTime, vcpuSeconds);
+        }
+    }
+
+    /**
+     * A region of the search space.
+     */
+    private static final class Box {
+        private final double[] min;
+        private final double[] max;
+
+        private Box(final double[] min, final double[] max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        private double center(final int dimension) {
+            return (min[dimension] + max[dimension]) / 2;
+        }
+
+        private CpuScalingParameters centerParameters() {
+            final double lower = center(0);
+            final double upper = lower + center(1) * (1 - lower);
+            return new CpuScalingParameters(lower, upper, center(2));
+        }
+
+        /**
+         * Splits the box at its center in every dimension.
+         * @return the 2^{@link #DIMENSIONS} sub-boxes
+         */
+        private List<Box> split() {
+            final List<Box> children = new ArrayList<>(1 << DIMENSIONS);
+            for (int mask = 0; mask < 1 << DIMENSIONS; mask++) {
+                final double[] childMin = min.clone();
+                final double[] childMax = max.clone();
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    if((mask & (1 << d)) == 0) {
+                        childMax[d] = center(d);
+                    } else {
+                        childMin[d] = center(d);
+                    }
+                }
+                children.add(new Box(childMin, childMax));
+            }
+
+            return children;
+        }
+    }
+
+    /**
+     * Simulates the centers of a range of boxes, splitting the range in halves until a single box is left.
+     */
+    private final class EvaluationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<Box> boxes;
+        private final Candidate[] results;
+        private final int from;
+        private final int to;
+
+        private EvaluationTask(final List<Box> boxes, final Candidate[] results, final int from, final int to) {
+            this.boxes = boxes;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1){
+                results[from] = evaluate(boxes.get(from).centerParameters());
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+            invokeAll(new EvaluationTask(boxes, results, from, middle), new EvaluationTask(boxes, results, middle, to));
+        }
+    }
+
+    public static void main(String[] args) {
+        final int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        final double pruneMargin = args.length > 1 ? Double.parseDouble(args[1]) : 0.05;
+        final int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Log.setLevel(Level.OFF);
+        final ThresholdSearch search =
+            new ThresholdSearch(VerticalVmCpuScalingExample.DEFAULT_SIZE, maxDepth, pruneMargin, new ForkJoinPool(threads));
+        final List<Candidate> front = search.search();
+        System.out.printf("# Pareto front found after %d simulations%n", search.getEvaluations());
+        printFront(front, System.out);
+    }
+
+    /**
+     * Creates a search.
+     *
+     * @param size the size of the scenario to simulate
+     * @param maxDepth the number of times the search space is split
+     * @param pruneMargin the percentage (from 0 to 1) a box center must be dominated by to prune the box
+     * @param pool the pool to run simulations in
+     */
+    public ThresholdSearch(final ScenarioSize size, final int maxDepth, final double pruneMargin, final ForkJoinPool pool) {
+        if(maxDepth < 0 || pruneMargin < 0 || pruneMargin >= 1){
+            throw new IllegalArgumentException("Max depth must not be negative and the prune margin must be in [0, 1)");
+        }
+
+        this.size = size;
+        this.maxDepth = maxDepth;
+        this.pruneMargin = pruneMargin;
+        this.pool = pool;
+    }
+
+    /**
+     * Runs the search.
+     * @return the Pareto front, sorted by mean Cloudlet completion time
+     */
+    public List<Candidate> search() {
+        final List<Candidate> evaluated = new ArrayList<>();
+        List<Box> level = new ArrayList<>();
+        level.add(new Box(SPACE_MIN.clone(), SPACE_MAX.clone()));
+        evaluations = 0;
+
+        for (int depth = 0; depth <= maxDepth && !level.isEmpty(); depth++) {
+            final Candidate[] results = new Candidate[level.size()];
+            pool.invoke(new EvaluationTask(level, results, 0, results.length));
+            evaluations += results.length;
+            evaluated.addAll(Arrays.asList(results));
+            final List<Candidate> front = paretoFront(evaluated);
+
+            final List<Box> next = new ArrayList<>();
+            for (int i = 0; i < results.length; i++) {
+                if(!isDominated(results[i], front, pruneMargin)) {
+                    next.addAll(level.get(i).split());
+                }
+            }
+            level = next;
+        }
+
+        return paretoFront(evaluated);
+    }
+
+    /**
+     * Simulates the scenario with some scaling parameters.
+     * @param parameters the parameters to simulate
+     * @return the candidate with the simulation results;
+     *         if some Cloudlet doesn't finish, its mean completion time is infinity
+     */
+    private Candidate evaluate(final CpuScalingParameters parameters) {
+        try(VerticalVmCpuScalingExample scenario = new VerticalVmCpuScalingExample(size, parameters)) {
+            scenario.start();
+            final List<Cloudlet> finished = scenario.getBroker().getCloudletFinishedList();
+            final double meanCompletionTime =
+                finished.size() < size.getCloudlets() ?
+                    Double.POSITIVE_INFINITY :
+                    finished.stream().mapToDouble(c -> c.getFinishTime() - c.getLastDatacenterArrivalTime()).average().orElse(0);
+            return new Candidate(parameters, meanCompletionTime, scenario.getAllocatedVcpuSeconds());
+        }
+    }
+
+    private static boolean isDominated(final Candidate candidate, final List<Candidate> front, final double margin) {
+        for (Candidate other : front) {
+            if(other.dominates(candidate, margin)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the candidates not dominated by any other one.
+     * @param candidates the candidates to filter
+     * @return the non-dominated candidates, sorted by mean Cloudlet completion time
+     */
+    public static List<Candidate> paretoFront(final List<Candidate> candidates) {
+        final List<Candidate> front = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if(!Double.isInfinite(candidate.meanCompletionTime) && !isDominated(candidate, candidates, 0)) {
+                front.add(candidate);
+            }
+        }
+
+        front.sort(Comparator.comparingDouble(Candidate::getMeanCompletionTime).thenComparingDouble(Candidate::getVcpuSeconds));
+        return front;
+    }
+
+    public static void printFront(final List<Candidate> front, final PrintStream out) {
+        out.println(HEADER);
+        front.forEach(out::println);
+    }
+
+    /**
+     * @return the number of simulations run by the last search
+     */
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return the percentage (from 0 to 1) a box center must be dominated by to prune the box
+     */
+    public double getPruneMargin() {
+        return pruneMargin;
+    }
+}
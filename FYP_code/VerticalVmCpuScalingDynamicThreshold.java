@@ -4,7 +4,6 @@ import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
 import org.cloudbus.cloudsim.brokers.DatacenterBroker;
 import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
-import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.Simulation;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
@@ -31,16 +30,13 @@ import org.cloudsimplus.autoscaling.VerticalVmScalingSimple;
 import org.cloudsimplus.autoscaling.resources.ResourceScaling;
 import org.cloudsimplus.autoscaling.resources.ResourceScalingGradual;
 import org.cloudsimplus.autoscaling.resources.ResourceScalingInstantaneous;
-import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
 import org.cloudsimplus.listeners.EventInfo;
 import org.cloudsimplus.listeners.EventListener;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
-import static java.util.Comparator.comparingDouble;
-public class VerticalVmCpuScalingDynamicThreshold
+public class VerticalVmCpuScalingDynamicThreshold implements AutoscalingScenario
 {
     private static final int SCHEDULING_INTERVAL = 1;
     private static final int HOSTS = 1;
@@ -49,12 +45,64 @@ public class VerticalVmCpuScalingDynamicThreshold
     private static final int VM_PES = 14;
     private static final int VM_RAM = 1200;
     private final CloudSim simulation;
+    private VmMetricsRecorder metricsRecorder;
+    private CloudletResultsSink results;
+    private final CloudletTemplate cloudletTemplate;
     private DatacenterBroker broker0;
     private List<Host> hostList;
     private List<Vm> vmList;
     private List<Cloudlet> cloudletList;
     private static final int CLOUDLETS = 10;
     private static final int CLOUDLETS_INITIAL_LENGTH = 20_000;
+    /**
+     * The time (in seconds) between arrivals of the Cloudlets submitted after the simulation starts,
+     * when no {@link ArrivalProcess} is given.
+     */
+    private static final int DELAYED_CLOUDLETS_INTERVAL = 2;
+    public static final ScenarioSize DEFAULT_SIZE = new ScenarioSize(HOSTS, VMS, CLOUDLETS);
+    /**
+     * Number of most recent CPU utilization samples the thresholds are computed from.
+     */
+    private static final int HISTORY_WINDOW = 30;
+
+    /**
+     * Number of samples evicted from the {@link #HISTORY_WINDOW} that are averaged
+     * into a single older sample, and how many of such older samples are kept.
+     * They cover the last 30 minutes with 1-minute resolution (for a 1-second scheduling interval).
+     */
+    private static final int HISTORY_DOWNSAMPLING_FACTOR = 60;
+    private static final int OLDER_HISTORY_WINDOW = 30;
+
+    /**
+     * Number of samples required before thresholds are computed from the history.
+     * Until then, the {@link #STATIC_LOWER_THRESHOLD} and {@link #STATIC_UPPER_THRESHOLD} are used.
+     */
+    private static final int MIN_HISTORY = 5;
+
+    /**
+     * Number of standard deviations above (below) the mean CPU utilization
+     * the upper (lower) threshold is set to.
+     */
+    private static final double THRESHOLD_DEVIATIONS = 2;
+    private static final double STATIC_LOWER_THRESHOLD = 0.1;
+    private static final double STATIC_UPPER_THRESHOLD = 0.5;
+    private static final double MIN_UPPER_THRESHOLD = 0.3;
+    private static final double MAX_UPPER_THRESHOLD = 0.9;
+
+    /**
+     * Minimum distance between the lower and upper thresholds, avoiding VMs to be scaled up and down
+     * at every tick when the utilization is steady.
+     */
+    private static final double MIN_THRESHOLDS_GAP = 0.2;
+
+    private final int hosts;
+    private final int cloudlets;
+
+    /**
+     * The CPU utilization history of each VM, where the index is the VM id.
+     * It's used instead of the VM's own utilization history, whose memory grows along the whole simulation.
+     */
+    private final List<BoundedUtilizationHistory> cpuHistories = new ArrayList<>();
     private int createsVms;
 
     public static void main(String[] args)
@@ -63,50 +111,134 @@ public class VerticalVmCpuScalingDynamicThreshold
     }
     public VerticalVmCpuScalingDynamicThreshold()
     {
-        hostList = new ArrayList<>(HOSTS);
-        vmList = new ArrayList<>(VMS);
-        cloudletList = new ArrayList<>(CLOUDLETS);
+        this(DEFAULT_SIZE);
+        start();
+        VmMetricsRecorder.print(metricsRecorder.getFile(), System.out);
+        printSimulationResults();
+        close();
+    }
+    /**
+     * Builds the simulation scenario with a given size, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     */
+    public VerticalVmCpuScalingDynamicThreshold(final ScenarioSize size)
+    {
+        this(size, ArrivalProcess.periodic(DELAYED_CLOUDLETS_INTERVAL, DELAYED_CLOUDLETS_INTERVAL), Double.POSITIVE_INFINITY, true);
+    }
+    /**
+     * Builds the simulation scenario with a given size, where the Cloudlets submitted after the simulation starts
+     * arrive according to an {@link ArrivalProcess}, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param arrivals the arrival times of the Cloudlets submitted after the simulation starts
+     * @param arrivalsHorizon the time after which no more Cloudlets arrive
+     * @see StochasticCloudletGenerator
+     */
+    public VerticalVmCpuScalingDynamicThreshold(final ScenarioSize size, final ArrivalProcess arrivals, final double arrivalsHorizon)
+    {
+        this(size, arrivals, arrivalsHorizon, false);
+    }
+    /**
+     * Builds the simulation scenario, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param arrivals the arrival times of the Cloudlets submitted after the simulation starts
+     * @param arrivalsHorizon the time after which no more Cloudlets arrive
+     * @param limitArrivals true to stop arrivals after the Cloudlets defined by the size,
+     *                      false to keep them arriving until the horizon
+     */
+    private VerticalVmCpuScalingDynamicThreshold(
+        final ScenarioSize size, final ArrivalProcess arrivals, final double arrivalsHorizon, final boolean limitArrivals)
+    {
+        hosts = size.getHosts();
+        cloudlets = size.getCloudlets();
+        final UtilizationModel utilizationModelDynamic = new UtilizationModelDynamic(1.0/cloudlets);
+        cloudletTemplate = new CloudletTemplate(new UtilizationModelFull(), utilizationModelDynamic, utilizationModelDynamic);
+        hostList = new ArrayList<>(hosts);
+        vmList = new ArrayList<>(size.getVms());
+        cloudletList = new ArrayList<>(cloudlets);
         simulation = new CloudSim();
         simulation.addOnClockTickListener(this::onClockTickListener);
         createDatacenter();
         broker0 = new DatacenterBrokerSimple(simulation);
-        vmList.addAll(createListOfScalableVms(VMS));
-        createCloudletListsWithDifferentDelays();
+        vmList.addAll(createListOfScalableVms(size.getVms()));
+        createInitialCloudletList();
         broker0.submitVmList(vmList);
         broker0.submitCloudletList(cloudletList);
-        simulation.start();
-        printSimulationResults();
+        final int delayedCloudlets = cloudlets - cloudletList.size();
+        new StochasticCloudletGenerator(
+            simulation, broker0, arrivals, this::createDelayedCloudlet,
+            limitArrivals ? delayedCloudlets : Long.MAX_VALUE, arrivalsHorizon);
+    }
+    @Override
+    public CloudSim getSimulation()
+    {
+        return simulation;
+    }
+    @Override
+    public DatacenterBroker getBroker()
+    {
+        return broker0;
+    }
+    /**
+     * {@inheritDoc}
+     * The VM metrics and Cloudlet results recorded along the simulation are written to new files,
+     * which are flushed when it finishes and deleted by {@link #close()}.
+     * This is the only entry point that records them: if the simulation is started directly
+     * from {@link #getSimulation()}, it runs the same way but no VM metrics are recorded.
+     */
+    @Override
+    public void start()
+    {
+        metricsRecorder = VmMetricsRecorder.ofTempFile(getClass().getSimpleName());
+        results = CloudletResultsSink.ofTempFile(getClass().getSimpleName(), broker0);
+        try
+        {
+            simulation.start();
+        }
+        finally
+        {
+            metricsRecorder.close();
+            results.close();
+        }
+    }
+    /**
+     * {@inheritDoc}
+     * The VM metrics and Cloudlet results files are deleted.
+     */
+    @Override
+    public void close()
+    {
+        if(metricsRecorder != null)
+        {
+            metricsRecorder.delete();
+        }
+        if(results != null)
+        {
+            results.delete();
+        }
     }
     private void onClockTickListener(EventInfo evt)
     {
-        vmList.forEach(vm -> {
-            System.out.printf(
-                "\t\tTime %6.1f: Vm %d CPU Usage: %6.2f%% (%2d vCPUs. Running Cloudlets: #%02d) Upper Threshold: %.2f History Entries: %d%n",
-                evt.getTime(), vm.getId(), vm.getCpuPercentUtilization()*100.0,
-                vm.getNumberOfPes(),
-                vm.getCloudletScheduler().getCloudletExecList().size(),
-                vm.getPeVerticalScaling().getUpperThresholdFunction().apply(vm),
-                vm.getUtilizationHistory().getHistory().size());
-        });
-    }
-    private void printSimulationResults()
-    {
-        final List<Cloudlet> finishedCloudlets = broker0.getCloudletFinishedList();
-        final Comparator<Cloudlet> sortByVmId = comparingDouble(c -> c.getVm().getId());
-        final Comparator<Cloudlet> sortByStartTime = comparingDouble(Cloudlet::getExecStartTime);
-        finishedCloudlets.sort(sortByVmId.thenComparing(sortByStartTime));
-        for(int i=0;i<finishedCloudlets.size();i++)
+        for (Vm vm : vmList)
         {
-        	Cloudlet t=finishedCloudlets.get(i);
-        	//System.out.println(t.getActualCpuTime());
-        	System.out.println(t.getAccumulatedBwCost());
+            cpuHistories.get((int) vm.getId()).add(evt.getTime(), vm.getCpuPercentUtilization());
+            //Metrics are only recorded if the simulation was run by start()
+            if(metricsRecorder != null)
+            {
+                metricsRecorder.record(evt.getTime(), vm, upperCpuUtilizationThreshold(vm));
+            }
         }
-        //System.out.println(c.getFinishTime());
-        new CloudletsTableBuilder(finishedCloudlets).build();
+    }
+    @Override
+    public void printSimulationResults()
+    {
+        CloudletResults.print(results.getFile(), CloudletResults.Group.VM, System.out);
     }
     private void createDatacenter()
     {
-        for (int i = 0; i < HOSTS; i++) 
+        for (int i = 0; i < hosts; i++) 
         {
             hostList.add(createHost());
         }
@@ -142,7 +274,7 @@ public class VerticalVmCpuScalingDynamicThreshold
     {
         final int id = createsVms++;
         final Vm vm = new VmSimple(id, 1000, VM_PES).setRam(VM_RAM).setBw(1000).setSize(10000).setCloudletScheduler(new CloudletSchedulerTimeShared());
-        vm.getUtilizationHistory().enable();
+        cpuHistories.add(new BoundedUtilizationHistory(HISTORY_WINDOW, HISTORY_DOWNSAMPLING_FACTOR, OLDER_HISTORY_WINDOW));
         return vm;
     }
 
@@ -156,39 +288,69 @@ public class VerticalVmCpuScalingDynamicThreshold
         verticalCpuScaling.setUpperThresholdFunction(this::upperCpuUtilizationThreshold);
         return verticalCpuScaling;
     }
+    /**
+     * Defines the lower CPU utilization threshold as the mean of the VM recent utilization
+     * minus {@link #THRESHOLD_DEVIATIONS} standard deviations, kept at least
+     * {@link #MIN_THRESHOLDS_GAP} below the upper threshold.
+     * The statistics are maintained incrementally, so this is O(1).
+     *
+     * @param vm the VM to get the lower threshold for
+     * @return the lower CPU utilization threshold
+     */
     private double lowerCpuUtilizationThreshold(final Vm vm)
     {
-        return 0.1;
+        final SlidingWindowStatistics stats = cpuHistories.get((int) vm.getId()).getRecentStatistics();
+        if(stats.size() < MIN_HISTORY)
+        {
+            return STATIC_LOWER_THRESHOLD;
+        }
+
+        final double lower = stats.getMean() - THRESHOLD_DEVIATIONS * stats.getStandardDeviation();
+        return Math.max(0, Math.min(lower, upperCpuUtilizationThreshold(vm) - MIN_THRESHOLDS_GAP));
     }
+    /**
+     * Defines the upper CPU utilization threshold as the mean of the VM recent utilization
+     * plus {@link #THRESHOLD_DEVIATIONS} standard deviations,
+     * bounded by {@link #MIN_UPPER_THRESHOLD} and {@link #MAX_UPPER_THRESHOLD}.
+     * That is, a VM is overloaded when its utilization is unusually high compared to its recent behaviour.
+     * The statistics are maintained incrementally, so this is O(1).
+     *
+     * @param vm the VM to get the upper threshold for
+     * @return the upper CPU utilization threshold
+     */
     private double upperCpuUtilizationThreshold(final Vm vm)
     {
-    	return 0.5;
+        final SlidingWindowStatistics stats = cpuHistories.get((int) vm.getId()).getRecentStatistics();
+        if(stats.size() < MIN_HISTORY)
+        {
+            return STATIC_UPPER_THRESHOLD;
+        }
+
+        final double upper = stats.getMean() + THRESHOLD_DEVIATIONS * stats.getStandardDeviation();
+        return Math.max(MIN_UPPER_THRESHOLD, Math.min(upper, MAX_UPPER_THRESHOLD));
     }
-    private void createCloudletListsWithDifferentDelays()
+    private void createInitialCloudletList()
     {
-        final int initialCloudletsNumber = (int)(CLOUDLETS/2.5);
-        final int remainingCloudletsNumber = CLOUDLETS-initialCloudletsNumber;
+        final int initialCloudletsNumber = (int)(cloudlets/2.5);
         //Creates a List of Cloudlets that will start running immediately when the simulation starts
         for (int i = 0; i < initialCloudletsNumber; i++)
         {
             cloudletList.add(createCloudlet(CLOUDLETS_INITIAL_LENGTH+(i*1000), 2));
         }
-        for (int i = 1; i <= remainingCloudletsNumber; i++)
-        {
-            cloudletList.add(createCloudlet(CLOUDLETS_INITIAL_LENGTH*2/i, 1,i*2));
-        }
     }
-    private Cloudlet createCloudlet(final long length, final int numberOfPes)
+    /**
+     * Creates a Cloudlet arriving after the simulation starts, with decreasing lengths along the arrivals,
+     * which start decreasing again when more Cloudlets than the scenario size arrive.
+     * @param index the arrival index, starting at 0
+     * @return the created Cloudlet
+     */
+    private Cloudlet createDelayedCloudlet(final long index)
     {
-        return createCloudlet(length, numberOfPes, 0);
+        final int delayedCloudlets = cloudlets - (int)(cloudlets/2.5);
+        return createCloudlet(CLOUDLETS_INITIAL_LENGTH*2/(index % delayedCloudlets + 1), 1);
     }
-    private Cloudlet createCloudlet(final long length, final int numberOfPes, final double delay)
+    private Cloudlet createCloudlet(final long length, final int numberOfPes)
     {
-        
-        final UtilizationModel utilizationCpu = new UtilizationModelFull();
-        final UtilizationModel utilizationModelDynamic = new UtilizationModelDynamic(1.0/CLOUDLETS);
-        Cloudlet cl = new CloudletSimple(length, numberOfPes);
-        cl.setFileSize(1024).setOutputSize(1024).setUtilizationModelBw(utilizationModelDynamic).setUtilizationModelRam(utilizationModelDynamic).setUtilizationModelCpu(utilizationCpu).setSubmissionDelay(delay);
-        return cl;
+        return cloudletTemplate.create(length, numberOfPes);
     }
 }
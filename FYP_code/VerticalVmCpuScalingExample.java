@@ -27,7 +27,6 @@ import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
 import org.cloudbus.cloudsim.brokers.DatacenterBroker;
 import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
-import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.Simulation;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
@@ -53,15 +52,12 @@ import org.cloudsimplus.autoscaling.VerticalVmScalingSimple;
 import org.cloudsimplus.autoscaling.resources.ResourceScaling;
 import org.cloudsimplus.autoscaling.resources.ResourceScalingGradual;
 import org.cloudsimplus.autoscaling.resources.ResourceScalingInstantaneous;
-import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
 import org.cloudsimplus.listeners.EventInfo;
 import org.cloudsimplus.listeners.EventListener;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
-import static java.util.Comparator.comparingDouble;
 
 /**
  * An example that scales VM PEs up or down, according to the arrival of Cloudlets.
@@ -85,7 +81,7 @@ import static java.util.Comparator.comparingDouble;
  * @see VerticalVmRamScalingExample
  * @see VerticalVmCpuScalingDynamicThreshold
  */
-public class VerticalVmCpuScalingExample {
+public class VerticalVmCpuScalingExample implements AutoscalingScenario {
     /**
      * The interval in which the Datacenter will schedule events.
      * As lower is this interval, sooner the processing of VMs and Cloudlets
@@ -103,6 +99,23 @@ public class VerticalVmCpuScalingExample {
      * For more details, see {@link Datacenter#getSchedulingInterval()}.</p>
     */
     private static final int SCHEDULING_INTERVAL = 1;
+
+    /**
+     * The largest scheduling interval used when it is {@link AdaptiveSchedulingInterval adaptive}.
+     */
+    private static final int MAX_SCHEDULING_INTERVAL = 8;
+
+    /**
+     * The distance between the VM CPU utilization and the nearest threshold
+     * from which the {@link #MAX_SCHEDULING_INTERVAL} is used, when the interval is adaptive.
+     */
+    private static final double ADAPTIVE_INTERVAL_BAND = 0.2;
+
+    /**
+     * How long (in seconds) the CPU utilization must stay between the thresholds to be considered settled,
+     * when the PEs to scale are computed by a {@link PidResourceScaling}.
+     */
+    private static final int SETTLING_HOLD = 10;
     private static final int HOSTS = 1;
 
     private static final int HOST_PES = 32;
@@ -110,6 +123,9 @@ public class VerticalVmCpuScalingExample {
     private static final int VM_PES = 14;
     private static final int VM_RAM = 1200;
     private final CloudSim simulation;
+    private VmMetricsRecorder metricsRecorder;
+    private CloudletResultsSink results;
+    private final CloudletTemplate cloudletTemplate;
     private DatacenterBroker broker0;
     private List<Host> hostList;
     private List<Vm> vmList;
@@ -118,8 +134,42 @@ public class VerticalVmCpuScalingExample {
     private static final int CLOUDLETS = 10;
     private static final int CLOUDLETS_INITIAL_LENGTH = 20_000;
 
+    /**
+     * The time (in seconds) between arrivals of the Cloudlets submitted after the simulation starts,
+     * when no {@link ArrivalProcess} is given.
+     */
+    private static final int DELAYED_CLOUDLETS_INTERVAL = 2;
+
+    /**
+     * The size defined by the constants above.
+     */
+    public static final ScenarioSize DEFAULT_SIZE = new ScenarioSize(HOSTS, VMS, CLOUDLETS);
+
+    /**
+     * The thresholds and scaling factor used when none is given.
+     * @see #lowerCpuUtilizationThreshold(Vm)
+     * @see #upperCpuUtilizationThreshold(Vm)
+     */
+    public static final CpuScalingParameters DEFAULT_SCALING = new CpuScalingParameters(0.4, 0.8, 0.1);
+
+    private final int hosts;
+    private final int cloudlets;
+    private final CpuScalingParameters scaling;
+    private final boolean feedbackScaling;
+
+    /**
+     * The controllers computing the PEs to scale for each VM, when {@link #feedbackScaling} is enabled.
+     */
+    private final List<PidResourceScaling> controllers = new ArrayList<>();
     private int createsVms;
 
+    /**
+     * The number of vCPUs allocated to the VMs multiplied by the time they were allocated,
+     * accumulated at every clock tick.
+     */
+    private double allocatedVcpuSeconds;
+    private double lastTickTime;
+
     public static void main(String[] args) {
         new VerticalVmCpuScalingExample();
     }
@@ -132,60 +182,236 @@ public class VerticalVmCpuScalingExample {
           Make sure to import org.cloudsimplus.util.Log;*/
         //Log.setLevel(ch.qos.logback.classic.Level.WARN);
 
-        hostList = new ArrayList<>(HOSTS);
-        vmList = new ArrayList<>(VMS);
-        cloudletList = new ArrayList<>(CLOUDLETS);
+        this(DEFAULT_SIZE);
+        start();
+        VmMetricsRecorder.print(metricsRecorder.getFile(), System.out);
+        printSimulationResults();
+        close();
+    }
+
+    /**
+     * Builds the simulation scenario with a given size, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     */
+    public VerticalVmCpuScalingExample(final ScenarioSize size) {
+        this(size, DEFAULT_SCALING);
+    }
+
+    /**
+     * Builds the simulation scenario with a given size and vertical CPU scaling parameters,
+     * without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param scaling the thresholds and scaling factor for the vertical CPU scaling of every VM
+     */
+    public VerticalVmCpuScalingExample(final ScenarioSize size, final CpuScalingParameters scaling) {
+        this(size, scaling, false);
+    }
+
+    /**
+     * Builds the simulation scenario with a given size and vertical CPU scaling parameters,
+     * without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param scaling the thresholds and scaling factor for the vertical CPU scaling of every VM
+     * @param adaptiveSchedulingInterval true to stretch the Datacenter scheduling interval while VMs are far
+     *                                   from the scaling thresholds, false to keep it fixed
+     * @see AdaptiveSchedulingInterval
+     */
+    public VerticalVmCpuScalingExample(
+        final ScenarioSize size, final CpuScalingParameters scaling, final boolean adaptiveSchedulingInterval)
+    {
+        this(size, scaling, adaptiveSchedulingInterval, false);
+    }
+
+    /**
+     * Builds the simulation scenario with a given size and vertical CPU scaling parameters,
+     * without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param scaling the thresholds and scaling factor for the vertical CPU scaling of every VM
+     * @param adaptiveSchedulingInterval true to stretch the Datacenter scheduling interval while VMs are far
+     *                                   from the scaling thresholds, false to keep it fixed
+     * @param feedbackScaling true to compute the number of PEs to scale by a {@link PidResourceScaling} controller
+     *                        tracking the utilization between the thresholds,
+     *                        false to scale twice the scaling factor of the allocated PEs at each step
+     * @see AdaptiveSchedulingInterval
+     */
+    public VerticalVmCpuScalingExample(
+        final ScenarioSize size, final CpuScalingParameters scaling,
+        final boolean adaptiveSchedulingInterval, final boolean feedbackScaling)
+    {
+        this(size, scaling, adaptiveSchedulingInterval, feedbackScaling,
+             ArrivalProcess.periodic(DELAYED_CLOUDLETS_INTERVAL, DELAYED_CLOUDLETS_INTERVAL), Double.POSITIVE_INFINITY, true);
+    }
+
+    /**
+     * Builds the simulation scenario with a given size and vertical CPU scaling parameters,
+     * where the Cloudlets submitted after the simulation starts arrive according to an {@link ArrivalProcess},
+     * without starting the simulation.
+     * Such Cloudlets are created just when they are about to arrive, so long periods can be simulated
+     * without creating the whole workload up front.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param scaling the thresholds and scaling factor for the vertical CPU scaling of every VM
+     * @param adaptiveSchedulingInterval true to stretch the Datacenter scheduling interval while VMs are far
+     *                                   from the scaling thresholds, false to keep it fixed
+     * @param feedbackScaling true to compute the number of PEs to scale by a {@link PidResourceScaling} controller
+     *                        tracking the utilization between the thresholds,
+     *                        false to scale twice the scaling factor of the allocated PEs at each step
+     * @param arrivals the arrival times of the Cloudlets submitted after the simulation starts
+     * @param arrivalsHorizon the time after which no more Cloudlets arrive
+     * @see StochasticCloudletGenerator
+     */
+    public VerticalVmCpuScalingExample(
+        final ScenarioSize size, final CpuScalingParameters scaling,
+        final boolean adaptiveSchedulingInterval, final boolean feedbackScaling,
+        final ArrivalProcess arrivals, final double arrivalsHorizon)
+    {
+        this(size, scaling, adaptiveSchedulingInterval, feedbackScaling, arrivals, arrivalsHorizon, false);
+    }
+
+    /**
+     * Builds the simulation scenario, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param scaling the thresholds and scaling factor for the vertical CPU scaling of every VM
+     * @param adaptiveSchedulingInterval true to stretch the Datacenter scheduling interval while VMs are far
+     *                                   from the scaling thresholds, false to keep it fixed
+     * @param feedbackScaling true to compute the number of PEs to scale by a {@link PidResourceScaling} controller
+     * @param arrivals the arrival times of the Cloudlets submitted after the simulation starts
+     * @param arrivalsHorizon the time after which no more Cloudlets arrive
+     * @param limitArrivals true to stop arrivals after the Cloudlets defined by the size,
+     *                      false to keep them arriving until the horizon
+     */
+    private VerticalVmCpuScalingExample(
+        final ScenarioSize size, final CpuScalingParameters scaling,
+        final boolean adaptiveSchedulingInterval, final boolean feedbackScaling,
+        final ArrivalProcess arrivals, final double arrivalsHorizon, final boolean limitArrivals)
+    {
+        this.scaling = scaling;
+        this.feedbackScaling = feedbackScaling;
+        hosts = size.getHosts();
+        cloudlets = size.getCloudlets();
+        cloudletTemplate = createCloudletTemplate();
+        hostList = new ArrayList<>(hosts);
+        vmList = new ArrayList<>(size.getVms());
+        cloudletList = new ArrayList<>(cloudlets);
 
         simulation = new CloudSim();
         simulation.addOnClockTickListener(this::onClockTickListener);
 
-        createDatacenter();
+        final Datacenter dc0 = createDatacenter();
         broker0 = new DatacenterBrokerSimple(simulation);
 
-        vmList.addAll(createListOfScalableVms(VMS));
-
-        createCloudletListsWithDifferentDelays();
+        vmList.addAll(createListOfScalableVms(size.getVms()));
+        createInitialCloudletList();
         broker0.submitVmList(vmList);
         broker0.submitCloudletList(cloudletList);
 
-        simulation.start();
+        final int delayedCloudlets = cloudlets - cloudletList.size();
+        final StochasticCloudletGenerator generator = new StochasticCloudletGenerator(
+            simulation, broker0, arrivals, this::createDelayedCloudlet,
+            limitArrivals ? delayedCloudlets : Long.MAX_VALUE, arrivalsHorizon);
+        if(adaptiveSchedulingInterval) {
+            new AdaptiveSchedulingInterval(
+                dc0, vmList, AdaptiveSchedulingInterval.cpuThresholdDistance(scaling.getLowerThreshold(), scaling.getUpperThreshold()),
+                SCHEDULING_INTERVAL, MAX_SCHEDULING_INTERVAL, ADAPTIVE_INTERVAL_BAND)
+                .setNextArrivalTime(generator::getNextArrivalTime);
+        }
+    }
 
-        printSimulationResults();
+    @Override
+    public CloudSim getSimulation() {
+        return simulation;
+    }
+
+    @Override
+    public DatacenterBroker getBroker() {
+        return broker0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The VM metrics and Cloudlet results recorded along the simulation are written to new files,
+     * which are flushed when it finishes and deleted by {@link #close()}.
+     * This is the only entry point that records them: if the simulation is started directly
+     * from {@link #getSimulation()}, it runs the same way but no VM metrics are recorded.
+     */
+    @Override
+    public void start() {
+        metricsRecorder = VmMetricsRecorder.ofTempFile(getClass().getSimpleName());
+        results = CloudletResultsSink.ofTempFile(getClass().getSimpleName(), broker0);
+        try {
+            simulation.start();
+        } finally {
+            metricsRecorder.close();
+            results.close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The VM metrics and Cloudlet results files are deleted.
+     */
+    @Override
+    public void close() {
+        if(metricsRecorder != null) {
+            metricsRecorder.delete();
+        }
+        if(results != null) {
+            results.delete();
+        }
     }
 
     /**
-     * Shows updates every time the simulation clock advances.
+     * Records VM metrics every time the simulation clock advances, if the simulation was run by {@link #start()}.
+     * They are printed just after the simulation finishes, since formatting them at every tick
+     * dominates the simulation time when there are lots of VMs.
      * @param evt information about the event happened (that for this Listener is just the simulation time)
      */
     private void onClockTickListener(EventInfo evt) {
-        vmList.forEach(vm ->
-            System.out.printf(
-                "\t\tTime %6.1f: Vm %d CPU Usage: %6.2f%% (%2d vCPUs. Running Cloudlets: #%d). RAM usage: %.2f%% (%d MB)%n",
-                evt.getTime(), vm.getId(), vm.getCpuPercentUtilization()*100.0, vm.getNumberOfPes(),
-                vm.getCloudletScheduler().getCloudletExecList().size(),
-                vm.getRam().getPercentUtilization()*100, vm.getRam().getAllocatedResource())
-        );
+        final double elapsed = evt.getTime() - lastTickTime;
+        for (Vm vm : vmList) {
+            if(metricsRecorder != null) {
+                metricsRecorder.record(evt.getTime(), vm, scaling.getUpperThreshold());
+            }
+            allocatedVcpuSeconds += vm.getNumberOfPes() * elapsed;
+        }
+        lastTickTime = evt.getTime();
     }
 
-    private void printSimulationResults() {
-        final List<Cloudlet> finishedCloudlets = broker0.getCloudletFinishedList();
-        final Comparator<Cloudlet> sortByVmId = comparingDouble(c -> c.getVm().getId());
-        final Comparator<Cloudlet> sortByStartTime = comparingDouble(Cloudlet::getExecStartTime);
-        finishedCloudlets.sort(sortByVmId.thenComparing(sortByStartTime));
+    /**
+     * Gets the number of vCPUs allocated to the VMs multiplied by the time they were allocated.
+     * It's the cost side of the vertical scaling trade-off.
+     * @return the allocated vCPU-seconds up to the last clock tick
+     */
+    public double getAllocatedVcpuSeconds() {
+        return allocatedVcpuSeconds;
+    }
 
-        new CloudletsTableBuilder(finishedCloudlets).build();
+    @Override
+    public void printSimulationResults() {
+        CloudletResults.print(results.getFile(), CloudletResults.Group.VM, System.out);
+        if(!controllers.isEmpty()) {
+            System.out.printf("%nVERTICAL CPU SCALING SETTLING%n");
+            controllers.forEach(PidResourceScaling::printSettlingReport);
+        }
     }
 
     /**
      * Creates a Datacenter and its Hosts.
+     * @return the created Datacenter
      */
-    private void createDatacenter() {
-        for (int i = 0; i < HOSTS; i++) {
+    private Datacenter createDatacenter() {
+        for (int i = 0; i < hosts; i++) {
             hostList.add(createHost());
         }
 
         Datacenter dc0 = new DatacenterSimple(simulation, hostList, new VmAllocationPolicySimple());
         dc0.setSchedulingInterval(SCHEDULING_INTERVAL);
+        return dc0;
     }
 
     private Host createHost() {
@@ -210,13 +436,13 @@ public class VerticalVmCpuScalingExample {
      *
      * @param numberOfVms number of VMs to create
      * @return the list of scalable VMs
-     * @see #createVerticalPeScaling()
+     * @see #createVerticalPeScaling(Vm)
      */
     private List<Vm> createListOfScalableVms(final int numberOfVms) {
         List<Vm> newList = new ArrayList<>(numberOfVms);
         for (int i = 0; i < numberOfVms; i++) {
             Vm vm = createVm();
-            vm.setPeVerticalScaling(createVerticalPeScaling());
+            vm.setPeVerticalScaling(createVerticalPeScaling(vm));
             newList.add(vm);
         }
 
@@ -254,13 +480,27 @@ public class VerticalVmCpuScalingExample {
      * {@code verticalCpuScaling.setLowerThresholdFunction(vm -> 0.4);}
      * </p>
      *
+     * <p>When {@link #feedbackScaling} is enabled, the number of PEs to scale is computed by a {@link PidResourceScaling}
+     * targeting the utilization halfway between the thresholds, instead of a fixed fraction of the allocated PEs.
+     * The utilization is considered settled while it's between the thresholds.</p>
+     *
+     * @param vm the VM to scale
      * @see #createListOfScalableVms(int)
      */
-    private VerticalVmScaling createVerticalPeScaling() {
-        final double scalingFactor = 0.1;
-        VerticalVmScalingSimple verticalCpuScaling = new VerticalVmScalingSimple(Processor.class, scalingFactor);
+    private VerticalVmScaling createVerticalPeScaling(final Vm vm) {
+        VerticalVmScalingSimple verticalCpuScaling = new VerticalVmScalingSimple(Processor.class, scaling.getScalingFactor());
         //verticalCpuScaling.setResourceScaling(new ResourceScalingInstantaneous());
-        verticalCpuScaling.setResourceScaling(vs -> 2*vs.getScalingFactor()*vs.getAllocatedResource());
+        if(feedbackScaling) {
+            final double gap = scaling.getUpperThreshold() - scaling.getLowerThreshold();
+            final PidResourceScaling controller =
+                new PidResourceScaling(vm, Vm::getCpuPercentUtilization, scaling.getLowerThreshold() + gap / 2)
+                    .setSettlingBand(gap / 2)
+                    .setSettlingHold(SETTLING_HOLD);
+            controllers.add(controller);
+            verticalCpuScaling.setResourceScaling(controller);
+        } else {
+            verticalCpuScaling.setResourceScaling(vs -> 2*vs.getScalingFactor()*vs.getAllocatedResource());
+        }
         verticalCpuScaling.setLowerThresholdFunction(this::lowerCpuUtilizationThreshold);
         verticalCpuScaling.setUpperThresholdFunction(this::upperCpuUtilizationThreshold);
         return verticalCpuScaling;
@@ -268,86 +508,90 @@ public class VerticalVmCpuScalingExample {
 
     /**
      * Defines the minimum CPU utilization percentage that indicates a Vm is underloaded.
-     * This function is using a statically defined threshold, but it would be defined
-     * a dynamic threshold based on any condition you want.
+     * This function is using a statically defined threshold (given at construction),
+     * but it would be defined a dynamic threshold based on any condition you want.
      * A reference to this method is assigned to each Vertical VM Scaling created.
      *
      * @param vm the VM to check if its CPU is underloaded.
      *        <b>The parameter is not being used internally, which means the same
      *        threshold is used for any Vm.</b>
      * @return the lower CPU utilization threshold
-     * @see #createVerticalPeScaling()
+     * @see #createVerticalPeScaling(Vm)
      */
     private double lowerCpuUtilizationThreshold(Vm vm) {
-        return 0.4;
+        return scaling.getLowerThreshold();
     }
 
     /**
      * Defines the maximum CPU utilization percentage that indicates a Vm is overloaded.
-     * This function is using a statically defined threshold, but it would be defined
-     * a dynamic threshold based on any condition you want.
+     * This function is using a statically defined threshold (given at construction),
+     * but it would be defined a dynamic threshold based on any condition you want.
      * A reference to this method is assigned to each Vertical VM Scaling created.
      *
      * @param vm the VM to check if its CPU is overloaded.
      *        The parameter is not being used internally, that means the same
      *        threshold is used for any Vm.
      * @return the upper CPU utilization threshold
-     * @see #createVerticalPeScaling()
+     * @see #createVerticalPeScaling(Vm)
      */
     private double upperCpuUtilizationThreshold(Vm vm) {
-        return 0.8;
+        return scaling.getUpperThreshold();
     }
 
     /**
-     * Creates lists of Cloudlets to be submitted to the broker with different delays,
+     * Creates the Cloudlets that will start running immediately when the simulation starts,
+     * adding them to the {@link #cloudletList}.
+     * The remaining Cloudlets are created by a {@link StochasticCloudletGenerator} when they arrive,
      * simulating their arrivals at different times.
-     * Adds all created Cloudlets to the {@link #cloudletList}.
+     * @see #createDelayedCloudlet(long)
      */
-    private void createCloudletListsWithDifferentDelays() {
-        final int initialCloudletsNumber = (int)(CLOUDLETS/2.5);
-        final int remainingCloudletsNumber = CLOUDLETS-initialCloudletsNumber;
-        //Creates a List of Cloudlets that will start running immediately when the simulation starts
+    private void createInitialCloudletList() {
+        final int initialCloudletsNumber = (int)(cloudlets/2.5);
         for (int i = 0; i < initialCloudletsNumber; i++) {
             cloudletList.add(createCloudlet(CLOUDLETS_INITIAL_LENGTH+(i*1000), 2));
         }
+    }
 
-        /*
-         * Creates several Cloudlets, increasing the arrival delay and decreasing
-         * the length of each one.
-         * The progressing delay enables CPU usage to increase gradually along the arrival of
-         * new Cloudlets (triggering CPU up scaling at some point in time).
-         *
-         * The decreasing length enables Cloudlets to finish in different times,
-         * to gradually reduce CPU usage (triggering CPU down scaling at some point in time).
-         *
-         * Check the logs to understand how the scaling is working.
-        */
-        for (int i = 1; i <= remainingCloudletsNumber; i++) {
-            cloudletList.add(createCloudlet(CLOUDLETS_INITIAL_LENGTH*2/i, 1,i*2));
-        }
+    /**
+     * Creates a Cloudlet arriving after the simulation starts.
+     *
+     * <p>By default, Cloudlets arrive every {@link #DELAYED_CLOUDLETS_INTERVAL} seconds,
+     * increasing the arrival delay and decreasing the length of each one.
+     * The progressing delay enables CPU usage to increase gradually along the arrival of
+     * new Cloudlets (triggering CPU up scaling at some point in time).</p>
+     *
+     * <p>The decreasing length enables Cloudlets to finish in different times,
+     * to gradually reduce CPU usage (triggering CPU down scaling at some point in time).
+     * When more Cloudlets than the scenario size arrive, the lengths start decreasing again.</p>
+     *
+     * Check the logs to understand how the scaling is working.
+     *
+     * @param index the arrival index, starting at 0
+     * @return the created Cloudlet
+     */
+    private Cloudlet createDelayedCloudlet(final long index) {
+        final int delayedCloudlets = cloudlets - (int)(cloudlets/2.5);
+        return createCloudlet(CLOUDLETS_INITIAL_LENGTH*2/(index % delayedCloudlets + 1), 1);
     }
 
     /**
-     * Creates a single Cloudlet with no delay, which means the Cloudlet arrival time will
-     * be zero (exactly when the simulation starts).
+     * Creates a single Cloudlet.
      *
      * @param length the Cloudlet length
      * @param numberOfPes the number of PEs the Cloudlets requires
      * @return the created Cloudlet
      */
     private Cloudlet createCloudlet(final long length, final int numberOfPes) {
-        return createCloudlet(length, numberOfPes, 0);
+        return cloudletTemplate.create(length, numberOfPes);
     }
 
     /**
-     * Creates a single Cloudlet.
+     * Creates the template shared by all Cloudlets,
+     * so that their utilization models are created just once.
      *
-     * @param length the length of the cloudlet to create.
-     * @param numberOfPes the number of PEs the Cloudlets requires.
-     * @param delay the delay that defines the arrival time of the Cloudlet at the Cloud infrastructure.
-     * @return the created Cloudlet
+     * @return the created template
      */
-    private Cloudlet createCloudlet(final long length, final int numberOfPes, final double delay) {
+    private CloudletTemplate createCloudletTemplate() {
         /*
         Since a VM PE isn't used by two Cloudlets at the same time,
         the Cloudlet can used 100% of that CPU capacity at the time
@@ -370,14 +614,7 @@ public class VerticalVmCpuScalingExample {
          * use a {@link UtilizationModelStochastic} to define resource usage randomly,
          * or use any other {@link UtilizationModel} implementation.
         */
-        final UtilizationModel utilizationModelDynamic = new UtilizationModelDynamic(1.0/CLOUDLETS);
-        Cloudlet cl = new CloudletSimple(length, numberOfPes);
-        cl.setFileSize(1024)
-            .setOutputSize(1024)
-            .setUtilizationModelBw(utilizationModelDynamic)
-            .setUtilizationModelRam(utilizationModelDynamic)
-            .setUtilizationModelCpu(utilizationCpu)
-            .setSubmissionDelay(delay);
-        return cl;
+        final UtilizationModel utilizationModelDynamic = new UtilizationModelDynamic(1.0/cloudlets);
+        return new CloudletTemplate(utilizationCpu, utilizationModelDynamic, utilizationModelDynamic);
     }
 }
@@ -27,7 +27,6 @@ import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
 import org.cloudbus.cloudsim.brokers.DatacenterBroker;
 import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
-import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.Simulation;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
@@ -41,23 +40,18 @@ import org.cloudbus.cloudsim.resources.PeSimple;
 import org.cloudbus.cloudsim.resources.Ram;
 import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
-import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
 import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
-import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
 import org.cloudsimplus.autoscaling.HorizontalVmScaling;
 import org.cloudsimplus.autoscaling.VerticalVmScaling;
 import org.cloudsimplus.autoscaling.VerticalVmScalingSimple;
-import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
 import org.cloudsimplus.listeners.EventInfo;
 import org.cloudsimplus.listeners.EventListener;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
-import static java.util.Comparator.comparingDouble;
 import static org.cloudbus.cloudsim.utilizationmodels.UtilizationModel.Unit;
 
 /**
@@ -74,6 +68,10 @@ import static org.cloudbus.cloudsim.utilizationmodels.UtilizationModel.Unit;
  * according to a <b>static computed utilization threshold</b>.
  * Then it requests the RAM to be scaled up.</p>
  *
+ * <p>Optionally, the RAM of Hosts is overcommitted and managed by a {@link HostMemoryManager},
+ * which reclaims idle VM RAM by ballooning and slows Cloudlets down when the RAM their VM uses is swapped out.
+ * That enables measuring how the RAM scaling thresholds affect the Host packing density and the Cloudlets slowdown.</p>
+ *
  * <p>The example uses the CloudSim Plus {@link EventListener} feature
  * to enable monitoring the simulation and dynamically creating objects such as Cloudlets and VMs.
  * It relies on
@@ -86,7 +84,7 @@ import static org.cloudbus.cloudsim.utilizationmodels.UtilizationModel.Unit;
  * @since CloudSim Plus 1.2.0
  * @see VerticalVmCpuScalingExample
  */
-public class VerticalVmRamScalingExample {
+public class VerticalVmRamScalingExample implements AutoscalingScenario {
     /**
      * The interval in which the Datacenter will schedule events.
      * As lower is this interval, sooner the processing of VMs and Cloudlets
@@ -110,7 +108,25 @@ public class VerticalVmRamScalingExample {
     private static final int VMS = 1;
     private static final int VM_PES = 5;
     private static final int VM_RAM = 800;
+    private static final long HOST_RAM = 20000; //in Megabytes
+    private static final double LOWER_RAM_THRESHOLD = 0.5;
+    private static final double UPPER_RAM_THRESHOLD = 0.7;
+
+    /**
+     * The PEs of each VM when the Host RAM is overcommitted, so that up to {@link #HOST_PES} VMs share a Host
+     * and the RAM is what limits how many VMs are placed into it.
+     */
+    private static final int OVERCOMMIT_VM_PES = 1;
+
+    /**
+     * A Host with half the physical RAM its VMs can be allocated, with ballooning enabled.
+     * @see #OVERCOMMIT_SIZE
+     */
+    public static final MemoryOvercommitParameters DEFAULT_OVERCOMMIT =
+        new MemoryOvercommitParameters(4000, 2, true, 0.1, 100, 10);
+
     private final CloudSim simulation;
+    private CloudletResultsSink results;
     private DatacenterBroker broker0;
     private List<Host> hostList;
     private List<Vm> vmList;
@@ -124,6 +140,25 @@ public class VerticalVmRamScalingExample {
      */
     private static final long CLOUDLET_LENGTHS[] = {40_000, 50_000, 60_000, 70_000, 80_000};
 
+    /**
+     * The size defined by the constants above,
+     * creating one Cloudlet for each {@link #CLOUDLET_LENGTHS length}.
+     */
+    public static final ScenarioSize DEFAULT_SIZE = new ScenarioSize(HOSTS, VMS, CLOUDLET_LENGTHS.length);
+
+    /**
+     * A size that fills a Host with VMs when the Host RAM is overcommitted,
+     * creating one Cloudlet with each {@link #CLOUDLET_LENGTHS length} for each VM.
+     */
+    public static final ScenarioSize OVERCOMMIT_SIZE =
+        new ScenarioSize(HOSTS, HOST_PES / OVERCOMMIT_VM_PES, HOST_PES / OVERCOMMIT_VM_PES * CLOUDLET_LENGTHS.length);
+
+    private final int hosts;
+    private final int cloudlets;
+    private final double lowerRamThreshold;
+    private final double upperRamThreshold;
+    private final MemoryOvercommitParameters overcommit;
+    private final HostMemoryManager memoryManager;
     private int createdCloudlets;
     private int createsVms;
 
@@ -139,25 +174,109 @@ public class VerticalVmRamScalingExample {
           Make sure to import org.cloudsimplus.util.Log;*/
         //Log.setLevel(ch.qos.logback.classic.Level.WARN);
 
-        hostList = new ArrayList<>(HOSTS);
-        vmList = new ArrayList<>(VMS);
-        cloudletList = new ArrayList<>(CLOUDLET_LENGTHS.length);
+        this(DEFAULT_SIZE);
+        start();
+        printSimulationResults();
+        close();
+    }
+
+    /**
+     * Builds the simulation scenario with a given size, without starting the simulation.
+     * If more Cloudlets than {@link #CLOUDLET_LENGTHS} are requested, such lengths are reused in turn.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     */
+    public VerticalVmRamScalingExample(final ScenarioSize size) {
+        this(size, null);
+    }
+
+    /**
+     * Builds the simulation scenario with a given size and memory management mode, without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param overcommit how the Host RAM is overcommitted, or null to allocate just the physical RAM of Hosts
+     *                   without simulating memory contention
+     */
+    public VerticalVmRamScalingExample(final ScenarioSize size, final MemoryOvercommitParameters overcommit) {
+        this(size, LOWER_RAM_THRESHOLD, UPPER_RAM_THRESHOLD, overcommit);
+    }
+
+    /**
+     * Builds the simulation scenario with a given size, RAM scaling thresholds and memory management mode,
+     * without starting the simulation.
+     *
+     * @param size the number of Hosts, VMs and Cloudlets to create
+     * @param lowerRamThreshold the RAM utilization (from 0 to 1) below which a VM is underloaded
+     * @param upperRamThreshold the RAM utilization (from 0 to 1) above which a VM is overloaded
+     * @param overcommit how the Host RAM is overcommitted, or null to allocate just the physical RAM of Hosts
+     *                   without simulating memory contention
+     */
+    public VerticalVmRamScalingExample(
+        final ScenarioSize size, final double lowerRamThreshold, final double upperRamThreshold,
+        final MemoryOvercommitParameters overcommit)
+    {
+        if(lowerRamThreshold < 0 || upperRamThreshold > 1 || lowerRamThreshold >= upperRamThreshold){
+            throw new IllegalArgumentException(
+                String.format("Thresholds must satisfy 0 <= lower < upper <= 1: %.4f/%.4f", lowerRamThreshold, upperRamThreshold));
+        }
+
+        this.lowerRamThreshold = lowerRamThreshold;
+        this.upperRamThreshold = upperRamThreshold;
+        this.overcommit = overcommit;
+        hosts = size.getHosts();
+        cloudlets = size.getCloudlets();
+        hostList = new ArrayList<>(hosts);
+        vmList = new ArrayList<>(size.getVms());
+        cloudletList = new ArrayList<>(cloudlets);
 
         simulation = new CloudSim();
         simulation.addOnClockTickListener(this::onClockTickListener);
 
         createDatacenter();
+        memoryManager = overcommit == null ? null : new HostMemoryManager(simulation, hostList, overcommit);
         broker0 = new DatacenterBrokerSimple(simulation);
 
-        vmList.addAll(createListOfScalableVms(VMS));
+        vmList.addAll(createListOfScalableVms(size.getVms()));
 
         createCloudletList();
         broker0.submitVmList(vmList);
         broker0.submitCloudletList(cloudletList);
+    }
+
+    @Override
+    public CloudSim getSimulation() {
+        return simulation;
+    }
 
-        simulation.start();
+    @Override
+    public DatacenterBroker getBroker() {
+        return broker0;
+    }
 
-        printSimulationResults();
+    /**
+     * {@inheritDoc}
+     * The results of the Cloudlets finished along the simulation are recorded into a new file,
+     * which is flushed when it finishes and deleted by {@link #close()}.
+     */
+    @Override
+    public void start() {
+        results = CloudletResultsSink.ofTempFile(getClass().getSimpleName(), broker0);
+        try {
+            simulation.start();
+        } finally {
+            results.close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The Cloudlet results file is deleted.
+     */
+    @Override
+    public void close() {
+        if(results != null) {
+            results.delete();
+        }
     }
 
     private void onClockTickListener(EventInfo eventInfo) {
@@ -173,20 +292,26 @@ public class VerticalVmRamScalingExample {
         }
     }
 
-    private void printSimulationResults() {
-        final List<Cloudlet> finishedCloudlets = broker0.getCloudletFinishedList();
-        final Comparator<Cloudlet> sortByVmId = comparingDouble(c -> c.getVm().getId());
-        final Comparator<Cloudlet> sortByStartTime = comparingDouble(Cloudlet::getExecStartTime);
-        finishedCloudlets.sort(sortByVmId.thenComparing(sortByStartTime));
+    @Override
+    public void printSimulationResults() {
+        CloudletResults.print(results.getFile(), CloudletResults.Group.VM, System.out);
+        if(memoryManager != null) {
+            memoryManager.printReport(vmList);
+        }
+    }
 
-        new CloudletsTableBuilder(finishedCloudlets).build();
+    /**
+     * @return the manager simulating the Host memory, or null if the Host RAM is not overcommitted
+     */
+    public HostMemoryManager getMemoryManager() {
+        return memoryManager;
     }
 
     /**
      * Creates a Datacenter and its Hosts.
      */
     private void createDatacenter() {
-        for (int i = 0; i < HOSTS; i++) {
+        for (int i = 0; i < hosts; i++) {
             hostList.add(createHost());
         }
 
@@ -200,7 +325,7 @@ public class VerticalVmRamScalingExample {
             peList.add(new PeSimple(1000, new PeProvisionerSimple()));
         }
 
-        final long ram = 20000; //in Megabytes
+        final long ram = overcommit == null ? HOST_RAM : overcommit.getAllocatableRam(); //in Megabytes
         final long bw = 100000; //in Megabytes
         final long storage = 10000000; //in Megabites/s
         return new HostSimple(ram, bw, storage, peList)
@@ -236,7 +361,7 @@ public class VerticalVmRamScalingExample {
     private Vm createVm() {
         final int id = createsVms++;
 
-        return new VmSimple(id, 1000, VM_PES)
+        return new VmSimple(id, 1000, overcommit == null ? VM_PES : OVERCOMMIT_VM_PES)
             .setRam(VM_RAM).setBw(1000).setSize(10000)
             .setCloudletScheduler(new CloudletSchedulerTimeShared());
     }
@@ -263,7 +388,7 @@ public class VerticalVmRamScalingExample {
 
     /**
      * Defines the minimum RAM utilization percentage that indicates a Vm is underloaded.
-     * This function is using a statically defined threshold, but it would be defined
+     * This function is using a statically defined threshold (given at construction), but it would be defined
      * a dynamic threshold based on any condition you want.
      * A reference to this method is assigned to each Vertical VM Scaling created.
      *
@@ -273,12 +398,12 @@ public class VerticalVmRamScalingExample {
      * @return the lower RAM utilization threshold
      */
     private double lowerRamUtilizationThreshold(Vm vm) {
-        return 0.5;
+        return lowerRamThreshold;
     }
 
     /**
      * Defines the maximum RAM utilization percentage that indicates a Vm is overloaded.
-     * This function is using a statically defined threshold, but it would be defined
+     * This function is using a statically defined threshold (given at construction), but it would be defined
      * a dynamic threshold based on any condition you want.
      * A reference to this method is assigned to each Vertical VM Scaling created.
      *
@@ -288,13 +413,14 @@ public class VerticalVmRamScalingExample {
      * @return the upper RAM utilization threshold
      */
     private double upperRamUtilizationThreshold(Vm vm) {
-        return 0.7;
+        return upperRamThreshold;
     }
 
     private void createCloudletList() {
         UtilizationModelDynamic ramModel = new UtilizationModelDynamic(Unit.ABSOLUTE, 200);
-        for (long length: CLOUDLET_LENGTHS) {
-            cloudletList.add(createCloudlet(ramModel, length));
+        final CloudletTemplate template = CloudletTemplate.full().withRamModel(ramModel);
+        for (int i = 0; i < cloudlets; i++) {
+            cloudletList.add(createCloudlet(template, CLOUDLET_LENGTHS[i % CLOUDLET_LENGTHS.length]));
         }
 
         ramModel = new UtilizationModelDynamic(Unit.ABSOLUTE, 10);
@@ -304,16 +430,10 @@ public class VerticalVmRamScalingExample {
         cloudletList.get(0).setUtilizationModelRam(ramModel);
     }
 
-    private Cloudlet createCloudlet(UtilizationModel ramUtilizationModel, long length) {
+    private Cloudlet createCloudlet(CloudletTemplate template, long length) {
         final int id = createdCloudlets++;
-        //randomly selects a length for the cloudlet
-        UtilizationModel utilizationFull = new UtilizationModelFull();
-        return new CloudletSimple(id, length, 1)
-            .setFileSize(1024)
-            .setOutputSize(1024)
-            .setUtilizationModelBw(utilizationFull)
-            .setUtilizationModelCpu(utilizationFull)
-            .setUtilizationModelRam(ramUtilizationModel);
+        final Cloudlet cloudlet = template.create(id, length, 1);
+        return memoryManager == null ? cloudlet : memoryManager.applySwapPenalty(cloudlet);
     }
 
     /**
@@ -0,0 +1,92 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+
+/**
+ * The capacity of a kind of VM: number of PEs, MIPS of each PE, RAM, bandwidth and storage.
+ *
+ * @see GridWorkloadClassifier
+ */
+public final class VmFlavor {
+    /**
+     * The flavor the examples have been using for every VM.
+     */
+    public static final VmFlavor DEFAULT = new VmFlavor(2, 1000, 512, 1000, 10000);
+
+    private final int pes;
+    private final long mips;
+    private final long ram;
+    private final long bw;
+    private final long size;
+
+    /**
+     * Creates a VM flavor.
+     *
+     * @param pes the number of PEs
+     * @param mips the MIPS capacity of each PE
+     * @param ram the RAM (in Megabytes)
+     * @param bw the bandwidth (in Megabits/s)
+     * @param size the storage (in Megabytes)
+     */
+    public VmFlavor(final int pes, final long mips, final long ram, final long bw, final long size) {
+        if(pes <= 0 || mips <= 0 || ram <= 0 || bw <= 0 || size <= 0){
+            throw new IllegalArgumentException("All VM capacities must be positive");
+        }
+
+        this.pes = pes;
+        this.mips = mips;
+        this.ram = ram;
+        this.bw = bw;
+        this.size = size;
+    }
+
+    /**
+     * Creates a VM with the capacities of this flavor.
+     * The Cloudlet scheduler must be set by the caller.
+     *
+     * @param id the VM id
+     * @return the new VM
+     */
+    public Vm createVm(final long id) {
+        return new VmSimple(id, mips, pes).setRam(ram).setBw(bw).setSize(size);
+    }
+
+    /**
+     * Gets a flavor with each capacity limited by another one.
+     * @param max the maximum capacities
+     * @return this flavor if it doesn't exceed the maximum, or a new limited one
+     */
+    public VmFlavor limitTo(final VmFlavor max) {
+        if(pes <= max.pes && ram <= max.ram && bw <= max.bw && size <= max.size){
+            return this;
+        }
+
+        return new VmFlavor(Math.min(pes, max.pes), mips, Math.min(ram, max.ram), Math.min(bw, max.bw), Math.min(size, max.size));
+    }
+
+    public int getPes() {
+        return pes;
+    }
+
+    public long getMips() {
+        return mips;
+    }
+
+    public long getRam() {
+        return ram;
+    }
+
+    public long getBw() {
+        return bw;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d PEs of %d MIPS, %d MB RAM, %d Mbps BW, %d MB storage", pes, mips, ram, bw, size);
+    }
+}
@@ -0,0 +1,336 @@
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Records VM metrics collected at every simulation clock tick into a compact binary file,
+ * replacing the formatting and printing of such metrics while the simulation is running.
+ *
+ * <p>Samples are stored into preallocated primitive arrays (batches).
+ * When a batch is full, it's handed to a background thread that writes it to the file,
+ * while the simulation keeps recording into another batch.
+ * Batches are reused, therefore no object is allocated per recorded sample.</p>
+ *
+ * <p>The human-readable view of the metrics can be rendered after the simulation
+ * by {@link #print(Path, PrintStream)}.</p>
+ *
+ * <p>The file starts with a {@link #MAGIC} int, followed by fixed-size records of
+ * {@link #RECORD_BYTES} bytes in big-endian order:
+ * time (double), VM id (long), CPU utilization (double, from 0 to 1), vCPUs (int),
+ * running Cloudlets (int), RAM utilization (double, from 0 to 1), allocated RAM in MB (long)
+ * and CPU upper utilization threshold (double, NaN if not given).</p>
+ */
+public final class VmMetricsRecorder implements Closeable {
+    /**
+     * Identifies files written by this class.
+     */
+    public static final int MAGIC = 0x564D4D31; //"VMM1"
+    public static final int RECORD_BYTES = Double.BYTES * 4 + Long.BYTES * 2 + Integer.BYTES * 2;
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+
+    /**
+     * Number of batches allocated: while one is being filled, the others may be waiting to be written.
+     */
+    private static final int BATCHES = 3;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final BlockingQueue<Batch> freeBatches;
+    private final BlockingQueue<Batch> fullBatches;
+    private final Thread writer;
+
+    /**
+     * An empty batch that signals the writer thread to finish.
+     */
+    private final Batch poison;
+    private Batch current;
+    private volatile IOException writeError;
+    private boolean closed;
+
+    /**
+     * Primitive arrays storing a batch of samples, together with the buffer used to write them.
+     */
+    private static final class Batch {
+        private final double[] time;
+        private final long[] vmId;
+        private final double[] cpu;
+        private final int[] pes;
+        private final int[] cloudlets;
+        private final double[] ram;
+        private final long[] ramMb;
+        private final double[] upperThreshold;
+        private final ByteBuffer buffer;
+        private int size;
+
+        private Batch(final int capacity) {
+            time = new double[capacity];
+            vmId = new long[capacity];
+            cpu = new double[capacity];
+            pes = new int[capacity];
+            cloudlets = new int[capacity];
+            ram = new double[capacity];
+            ramMb = new long[capacity];
+            upperThreshold = new double[capacity];
+            buffer = ByteBuffer.allocateDirect(capacity * RECORD_BYTES);
+        }
+
+        private boolean isFull() {
+            return size == time.length;
+        }
+
+        private void writeTo(final FileChannel channel) throws IOException {
+            buffer.clear();
+            for (int i = 0; i < size; i++) {
+                buffer.putDouble(time[i]).putLong(vmId[i]).putDouble(cpu[i])
+                      .putInt(pes[i]).putInt(cloudlets[i])
+                      .putDouble(ram[i]).putLong(ramMb[i]).putDouble(upperThreshold[i]);
+            }
+
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     * Creates a recorder that writes to a temporary file, deleted by {@link #delete()}
+     * or, if that is not called, when the JVM exits.
+     * @param prefix the prefix of the file name
+     * @return the created recorder
+     * @see #getFile()
+     */
+    public static VmMetricsRecorder ofTempFile(final String prefix) {
+        try {
+            final Path file = Files.createTempFile(prefix, ".vmm");
+            file.toFile().deleteOnExit();
+            return new VmMetricsRecorder(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a recorder with the {@link #DEFAULT_BATCH_SIZE}.
+     * @param file the file to write the metrics to (overwritten if it exists)
+     */
+    public VmMetricsRecorder(final Path file) {
+        this(file, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a recorder.
+     * @param file the file to write the metrics to (overwritten if it exists)
+     * @param batchSize the number of samples stored in memory before being written in background
+     */
+    public VmMetricsRecorder(final Path file, final int batchSize) {
+        if(batchSize <= 0){
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+
+        this.file = file;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).putInt(MAGIC);
+            header.flip();
+            channel.write(header);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        freeBatches = new ArrayBlockingQueue<>(BATCHES);
+        fullBatches = new ArrayBlockingQueue<>(BATCHES + 1);
+        for (int i = 1; i < BATCHES; i++) {
+            freeBatches.add(new Batch(batchSize));
+        }
+        current = new Batch(batchSize);
+        poison = new Batch(0);
+
+        writer = new Thread(this::writeBatches, getClass().getSimpleName() + "-" + file.getFileName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Records the current metrics of a VM.
+     * The CPU upper threshold is given by the caller, which usually has it at hand,
+     * instead of being computed again by the threshold function of the VM scaling for every sample.
+     *
+     * @param time the simulation time the metrics refer to
+     * @param vm the VM to record metrics from
+     * @param upperThreshold the current CPU upper utilization threshold of the VM, or NaN if there is none
+     */
+    public void record(final double time, final Vm vm, final double upperThreshold) {
+        if(closed){
+            throw new IllegalStateException("The recorder is already closed");
+        }
+
+        final Batch batch = current;
+        final int i = batch.size++;
+        batch.time[i] = time;
+        batch.vmId[i] = vm.getId();
+        batch.cpu[i] = vm.getCpuPercentUtilization();
+        batch.pes[i] = (int) vm.getNumberOfPes();
+        batch.cloudlets[i] = vm.getCloudletScheduler().getCloudletExecList().size();
+        batch.ram[i] = vm.getRam().getPercentUtilization();
+        batch.ramMb[i] = vm.getRam().getAllocatedResource();
+        batch.upperThreshold[i] = upperThreshold;
+
+        if(batch.isFull()){
+            current = swap(batch);
+        }
+    }
+
+    /**
+     * Hands a batch to the writer thread and gets a free one.
+     * @param batch the batch to be written
+     * @return the free batch to record the next samples into
+     */
+    private Batch swap(final Batch batch) {
+        checkWriteError();
+        try {
+            fullBatches.put(batch);
+            return freeBatches.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for metrics to be written", e);
+        }
+    }
+
+    private void writeBatches() {
+        try {
+            for (Batch batch = fullBatches.take(); batch != poison; batch = fullBatches.take()) {
+                try {
+                    batch.writeTo(channel);
+                } catch (IOException e) {
+                    writeError = e;
+                    batch.size = 0;
+                }
+                freeBatches.put(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkWriteError() {
+        if(writeError != null){
+            throw new UncheckedIOException(writeError);
+        }
+    }
+
+    /**
+     * Writes the pending samples and closes the file, waiting for the writer thread to finish.
+     */
+    @Override
+    public void close() {
+        if(closed){
+            return;
+        }
+
+        closed = true;
+        try {
+            if(current.size > 0) {
+                fullBatches.put(current);
+            }
+            fullBatches.put(poison);
+            writer.join();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for metrics to be written", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        checkWriteError();
+    }
+
+    /**
+     * Closes the recorder, if not closed yet, and deletes its file.
+     * The metrics can't be printed after that.
+     */
+    public void delete() {
+        close();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Prints the human-readable view of a metrics file written by a {@link VmMetricsRecorder},
+     * one line for each recorded sample.
+     *
+     * @param file the metrics file
+     * @param out where to print the metrics
+     */
+    public static void print(final Path file, final PrintStream out) {
+        try (FileChannel input = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_BATCH_SIZE * RECORD_BYTES);
+            buffer.limit(Integer.BYTES);
+            readFully(input, buffer);
+            if(buffer.getInt(0) != MAGIC){
+                throw new IllegalArgumentException(file + " is not a VM metrics file");
+            }
+
+            buffer.clear();
+            while (input.read(buffer) > 0 || buffer.position() > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_BYTES) {
+                    printRecord(buffer, out);
+                }
+                buffer.compact();
+                if(buffer.position() > 0 && input.position() == input.size()){
+                    throw new IllegalStateException(file + " has a truncated record at its end");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void printRecord(final ByteBuffer buffer, final PrintStream out) {
+        final double time = buffer.getDouble();
+        final long vmId = buffer.getLong();
+        final double cpu = buffer.getDouble();
+        final int pes = buffer.getInt();
+        final int cloudlets = buffer.getInt();
+        final double ram = buffer.getDouble();
+        final long ramMb = buffer.getLong();
+        final double upperThreshold = buffer.getDouble();
+        out.printf(
+            "\t\tTime %6.1f: Vm %d CPU Usage: %6.2f%% (%2d vCPUs. Running Cloudlets: #%d). RAM usage: %.2f%% (%d MB)",
+            time, vmId, cpu*100.0, pes, cloudlets, ram*100, ramMb);
+        if(!Double.isNaN(upperThreshold)) {
+            out.printf(" Upper Threshold: %.2f", upperThreshold);
+        }
+        out.println();
+    }
+
+    private static void readFully(final FileChannel input, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if(input.read(buffer) < 0){
+                throw new IllegalStateException("Unexpected end of the metrics file");
+            }
+        }
+    }
+}